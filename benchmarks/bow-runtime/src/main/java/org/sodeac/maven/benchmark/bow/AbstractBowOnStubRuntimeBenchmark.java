@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.maven.benchmark.bow;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sodeac.common.typedtree.BranchNode;
+import org.sodeac.maven.benchmark.bow.model.BenchmarkBowFactory;
+import org.sodeac.maven.benchmark.bow.model.OrderBow;
+import org.sodeac.maven.benchmark.bow.model.OrderNodeType;
+import org.sodeac.maven.benchmark.bow.model.PositionBow;
+
+/**
+ * Runtime paths of generated BOWs. Each thread works on its own trees, 
+ * threads share the field factories of BOW classes only.
+ * 
+ * <p>Generated BOWs run on the typed tree stub of module typedtree-stub, not on the runtime of org.sodeac.common, 
+ * which is not available in public repositories. Results compare generator options and generated code paths, 
+ * they do not measure the real runtime.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public abstract class AbstractBowOnStubRuntimeBenchmark
+{
+	private static final int POSITION_COUNT = 16;
+	private static final int MAX_CREATED_POSITIONS = 1024;
+
+	private OrderBow<?> order = null;
+	private OrderBow<?> createTarget = null;
+	private BranchNode<?,? extends OrderNodeType> constructNode = null;
+	private int createdPositions = 0;
+	private int value = 0;
+
+	@Setup
+	public void setup()
+	{
+		order = BenchmarkBowFactory.createOrder();
+		order.setNumber("4711").setQuantity(3).setPrice(9.95d).setPaid(true);
+		order.createCustomer().setName("customer").setEmail("customer@example.com");
+		for(int i = 0; i < POSITION_COUNT; i++)
+		{
+			order.createOneOfPositions().setArticle("article-" + i).setAmount(i);
+		}
+
+		createTarget = BenchmarkBowFactory.createOrder();
+		constructNode = BenchmarkBowFactory.createOrder().getWrappedBranchNode();
+	}
+
+	/**
+	 * Constructor of BOW: lookup of field factory of each BOW class in hierarchy and copy of node fields.
+	 */
+	@Benchmark
+	public Object construct()
+	{
+		return new OrderBow<>(constructNode, null);
+	}
+
+	/**
+	 * Root node and BOW created by generated BOW factory.
+	 */
+	@Benchmark
+	public Object createRoot()
+	{
+		return BenchmarkBowFactory.createOrder();
+	}
+
+	@Benchmark
+	public void getLeafNodeValue(Blackhole blackhole)
+	{
+		blackhole.consume(order.getNumber());
+		blackhole.consume(order.getQuantityAsInt());
+		blackhole.consume(order.getPriceAsDouble());
+		blackhole.consume(order.isPaidAsBoolean());
+	}
+
+	@Benchmark
+	public Object setLeafNodeValue()
+	{
+		int next = ++value;
+		return order.setNumber("4711").setQuantity(next).setPrice(next * 0.5d).setPaid((next & 1) == 0);
+	}
+
+	/**
+	 * create&lt;Field&gt;(): branch node replaces previous one, nested BOW is created by createNestedBow.
+	 */
+	@Benchmark
+	public Object createBranchNode()
+	{
+		return createTarget.createCustomer();
+	}
+
+	/**
+	 * createOneOf&lt;Field&gt;(): branch node is appended to list, nested BOW is created by createNestedBow. 
+	 * Target is replaced periodically to bound list size.
+	 */
+	@Benchmark
+	public Object createBranchNodeItem()
+	{
+		if(++createdPositions > MAX_CREATED_POSITIONS)
+		{
+			createTarget = BenchmarkBowFactory.createOrder();
+			createdPositions = 1;
+		}
+		return createTarget.createOneOfPositions();
+	}
+
+	/**
+	 * getStreamOf&lt;Field&gt;() over {@value #POSITION_COUNT} nested BOWs.
+	 */
+	@Benchmark
+	public int getStreamOfBranchNodeItems()
+	{
+		return order.getStreamOfPositions().mapToInt(PositionBow::getAmountAsInt).sum();
+	}
+
+	@Benchmark
+	public Object getBranchNode()
+	{
+		return order.getCustomer();
+	}
+}
@@ -0,0 +1,21 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.maven.benchmark.bow;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Runtime paths of generated BOWs on typed tree stub with concurrent threads, e.g. to measure contention on field factories of BOW classes.
+ */
+@Threads(4)
+public class ConcurrentBowOnStubRuntimeBenchmark extends AbstractBowOnStubRuntimeBenchmark
+{
+}
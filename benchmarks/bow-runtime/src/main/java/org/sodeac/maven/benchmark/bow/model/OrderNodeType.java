@@ -0,0 +1,28 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.maven.benchmark.bow.model;
+
+import org.sodeac.common.annotation.GenerateBow;
+import org.sodeac.common.typedtree.BranchNodeListType;
+import org.sodeac.common.typedtree.BranchNodeMetaModel;
+import org.sodeac.common.typedtree.BranchNodeType;
+import org.sodeac.common.typedtree.LeafNodeType;
+
+@GenerateBow(primitiveAccessors = true)
+public class OrderNodeType extends BranchNodeMetaModel
+{
+	public static volatile LeafNodeType<OrderNodeType,String> number;
+	public static volatile LeafNodeType<OrderNodeType,Integer> quantity;
+	public static volatile LeafNodeType<OrderNodeType,Double> price;
+	public static volatile LeafNodeType<OrderNodeType,Boolean> paid;
+	public static volatile BranchNodeType<OrderNodeType,CustomerNodeType> customer;
+	public static volatile BranchNodeListType<OrderNodeType,PositionNodeType> positions;
+}
@@ -0,0 +1,22 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.maven.benchmark.bow.model;
+
+import org.sodeac.common.annotation.GenerateBow;
+import org.sodeac.common.typedtree.BranchNodeMetaModel;
+import org.sodeac.common.typedtree.LeafNodeType;
+
+@GenerateBow(primitiveAccessors = true)
+public class PositionNodeType extends BranchNodeMetaModel
+{
+	public static volatile LeafNodeType<PositionNodeType,String> article;
+	public static volatile LeafNodeType<PositionNodeType,Integer> amount;
+}
@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.maven;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import spoon.reflect.CtModel;
+
+/**
+ * Phases of mojos on synthetic projects. Model is built by {@link #buildModel()}, generation benchmarks reuse a model shared by project
+ * and write into empty output directories. Average time per phase of mojo report is printed after each iteration, 
+ * allocation of benchmarks is reported by {@code -prof gc}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class MojoPhaseBenchmark
+{
+	private static final String[] PHASES = new String[] 
+	{
+		GenerationReport.PHASE_MODEL, GenerationReport.PHASE_SCAN, GenerationReport.PHASE_HIERARCHY, 
+		GenerationReport.PHASE_RENDER, GenerationReport.PHASE_WRITE, GenerationReport.PHASE_TOTAL
+	};
+
+	@Param({"100", "1000", "10000"})
+	private int classCount;
+
+	private SyntheticProject syntheticProject = null;
+	private File outputDirectory = null;
+	private Map<String,Long> phaseNanos = new LinkedHashMap<>();
+	private int invocationCount = 0;
+
+	@Setup(Level.Trial)
+	public void createProject() throws Exception
+	{
+		syntheticProject = SyntheticProject.create(classCount);
+		outputDirectory = new File(syntheticProject.getBaseDirectory(), "target/generated");
+
+		// model shared by generation benchmarks
+
+		createBowMojo().getModel();
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteProject() throws Exception
+	{
+		syntheticProject.delete();
+	}
+
+	@Setup(Level.Invocation)
+	public void cleanOutput() throws Exception
+	{
+		SyntheticProject.delete(outputDirectory);
+	}
+
+	@TearDown(Level.Iteration)
+	public void printPhases()
+	{
+		StringBuilder builder = new StringBuilder("phases (avg ms):");
+		for(Entry<String,Long> entry : phaseNanos.entrySet())
+		{
+			builder.append(" " + entry.getKey() + " " + String.format("%.3f", entry.getValue() / (invocationCount * 1000000d)));
+		}
+		System.out.println();
+		System.out.println(builder);
+		phaseNanos.clear();
+		invocationCount = 0;
+	}
+
+	/**
+	 * Spoon model of all sources, built by launcher of plugin.
+	 */
+	@Benchmark
+	public CtModel buildModel() throws Exception
+	{
+		SharedSpoonModel.remove(syntheticProject.getProject());
+
+		GenerateBranchNodeToObjectWrapperMojo mojo = createBowMojo();
+		CtModel model = mojo.getModel();
+		collectPhases(mojo.report);
+
+		// model is shared by project again for generation benchmarks
+
+		return model;
+	}
+
+	/**
+	 * Scan, hierarchy resolution, render and write of BOWs by reused model.
+	 */
+	@Benchmark
+	public GenerationReport generateBranchNodeToObjectWrapper() throws Exception
+	{
+		GenerateBranchNodeToObjectWrapperMojo mojo = createBowMojo();
+		mojo.execute();
+		collectPhases(mojo.report);
+		return mojo.report;
+	}
+
+	/**
+	 * Scan, render and write of service descriptors and service index by reused model.
+	 */
+	@Benchmark
+	public GenerationReport generateServiceDescriptor() throws Exception
+	{
+		ServiceDescriptorMojo mojo = new ServiceDescriptorMojo();
+		mojo.setLog(new QuietLog());
+		mojo.configureStandalone(syntheticProject.getProject(), outputDirectory);
+		mojo.execute();
+		collectPhases(mojo.report);
+		return mojo.report;
+	}
+
+	/**
+	 * Mojo configured by package private entry point of plugin. Classpath of model is skipped, sources are parsed in noclasspath mode.
+	 */
+	private GenerateBranchNodeToObjectWrapperMojo createBowMojo()
+	{
+		GenerateBranchNodeToObjectWrapperMojo mojo = new GenerateBranchNodeToObjectWrapperMojo();
+		mojo.setLog(new QuietLog());
+		mojo.configureStandalone(syntheticProject.getProject(), outputDirectory);
+		return mojo;
+	}
+
+	private void collectPhases(GenerationReport report)
+	{
+		for(String phase : PHASES)
+		{
+			long nanos = report.getPhaseTime(phase);
+			if(nanos > 0L)
+			{
+				Long value = phaseNanos.get(phase);
+				phaseNanos.put(phase, value == null ? nanos : value + nanos);
+			}
+		}
+		invocationCount++;
+	}
+
+	/**
+	 * Log of mojo without info and debug messages, which would dominate small projects.
+	 */
+	private static class QuietLog extends SystemStreamLog
+	{
+		@Override
+		public boolean isInfoEnabled()
+		{
+			return false;
+		}
+
+		@Override
+		public void info(CharSequence content)
+		{
+		}
+
+		@Override
+		public void info(CharSequence content, Throwable error)
+		{
+		}
+
+		@Override
+		public void info(Throwable error)
+		{
+		}
+	}
+}
@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Maven project with generated sources in temporary directory. Classes are distributed to packages of {@value #PACKAGE_SIZE} classes.
+ * Half of classes are node types annotated by GenerateBow, a quarter are service factories and a quarter are plain classes.
+ * Each package has a tree model annotated by GenerateBowFactory.
+ */
+public class SyntheticProject
+{
+	public static final int PACKAGE_SIZE = 100;
+
+	private File baseDirectory = null;
+	private MavenProject project = null;
+
+	private SyntheticProject(File baseDirectory, MavenProject project)
+	{
+		super();
+		this.baseDirectory = baseDirectory;
+		this.project = project;
+	}
+
+	public File getBaseDirectory()
+	{
+		return baseDirectory;
+	}
+
+	public MavenProject getProject()
+	{
+		return project;
+	}
+
+	public File getSourceDirectory()
+	{
+		return new File(baseDirectory, "src/main/java");
+	}
+
+	/**
+	 * Creates project with source files of {@code classCount} classes.
+	 *
+	 * @param classCount count of classes, without tree models
+	 * @return project
+	 * @throws IOException
+	 */
+	public static SyntheticProject create(int classCount) throws IOException
+	{
+		File baseDirectory = Files.createTempDirectory("sodeac-benchmark-" + classCount + "-").toFile();
+		File sourceDirectory = new File(baseDirectory, "src/main/java");
+
+		for(int packageIndex = 0; (packageIndex * PACKAGE_SIZE) < classCount; packageIndex++)
+		{
+			String packageName = "fixture.p" + packageIndex;
+			File packageDirectory = new File(sourceDirectory, packageName.replace('.', '/'));
+			packageDirectory.mkdirs();
+
+			StringBuilder treeModel = new StringBuilder();
+			treeModel.append("package " + packageName + ";\n\n");
+			treeModel.append("import org.sodeac.common.annotation.GenerateBowFactory;\n");
+			treeModel.append("import org.sodeac.common.typedtree.BranchNodeType;\n");
+			treeModel.append("import org.sodeac.common.typedtree.TypedTreeMetaModel;\n\n");
+			treeModel.append("@GenerateBowFactory\n");
+			treeModel.append("public class Package" + packageIndex + "TreeModel extends TypedTreeMetaModel<Package" + packageIndex + "TreeModel>\n{\n");
+
+			String previousNodeType = null;
+			for(int i = packageIndex * PACKAGE_SIZE; (i < classCount) && (i < ((packageIndex + 1) * PACKAGE_SIZE)); i++)
+			{
+				switch (i % 4)
+				{
+					case 0:
+					case 1:
+						String nodeType = "Node" + i + "NodeType";
+						write(packageDirectory, nodeType, renderNodeType(packageName, nodeType, previousNodeType));
+						treeModel.append("\tpublic static volatile BranchNodeType<Package" + packageIndex + "TreeModel," + nodeType + "> node" + i + ";\n");
+						previousNodeType = nodeType;
+						break;
+					case 2:
+						write(packageDirectory, "Service" + i, renderService(packageName, "Service" + i));
+						break;
+					default:
+						write(packageDirectory, "Plain" + i, renderPlain(packageName, "Plain" + i));
+						break;
+				}
+			}
+
+			treeModel.append("}\n");
+			write(packageDirectory, "Package" + packageIndex + "TreeModel", treeModel.toString());
+		}
+
+		MavenProject project = new MavenProject();
+		project.setGroupId("org.sodeac.benchmark");
+		project.setArtifactId("synthetic-" + classCount);
+		project.setVersion("1.0");
+		project.setFile(new File(baseDirectory, "pom.xml"));
+		project.getBuild().setDirectory(new File(baseDirectory, "target").getAbsolutePath());
+		project.getBuild().setOutputDirectory(new File(baseDirectory, "target/classes").getAbsolutePath());
+		project.getBuild().setSourceDirectory(sourceDirectory.getAbsolutePath());
+		project.addCompileSourceRoot(sourceDirectory.getAbsolutePath());
+
+		return new SyntheticProject(baseDirectory, project);
+	}
+
+	/**
+	 * Deletes directory of project.
+	 *
+	 * @throws IOException
+	 */
+	public void delete() throws IOException
+	{
+		delete(baseDirectory);
+	}
+
+	/**
+	 * Deletes directory recursively.
+	 *
+	 * @param directory directory to delete
+	 * @throws IOException
+	 */
+	public static void delete(File directory) throws IOException
+	{
+		if(! directory.exists())
+		{
+			return;
+		}
+		try(Stream<Path> paths = Files.walk(directory.toPath()))
+		{
+			for(Path path : (Iterable<Path>)paths.sorted(Comparator.reverseOrder())::iterator)
+			{
+				Files.delete(path);
+			}
+		}
+	}
+
+	private static String renderNodeType(String packageName, String className, String previousNodeType)
+	{
+		StringBuilder builder = new StringBuilder();
+		builder.append("package " + packageName + ";\n\n");
+		builder.append("import org.sodeac.common.annotation.GenerateBow;\n");
+		builder.append("import org.sodeac.common.typedtree.BranchNodeListType;\n");
+		builder.append("import org.sodeac.common.typedtree.BranchNodeMetaModel;\n");
+		builder.append("import org.sodeac.common.typedtree.BranchNodeType;\n");
+		builder.append("import org.sodeac.common.typedtree.LeafNodeType;\n\n");
+		builder.append("@GenerateBow(primitiveAccessors = true)\n");
+		builder.append("public class " + className + " extends BranchNodeMetaModel\n{\n");
+		builder.append("\tpublic static volatile LeafNodeType<" + className + ",String> name;\n");
+		builder.append("\tpublic static volatile LeafNodeType<" + className + ",Integer> count;\n");
+		builder.append("\tpublic static volatile LeafNodeType<" + className + ",Boolean> enabled;\n");
+		if(previousNodeType != null)
+		{
+			builder.append("\tpublic static volatile BranchNodeType<" + className + "," + previousNodeType + "> child;\n");
+			builder.append("\tpublic static volatile BranchNodeListType<" + className + "," + previousNodeType + "> children;\n");
+		}
+		builder.append("}\n");
+		return builder.toString();
+	}
+
+	private static String renderService(String packageName, String className)
+	{
+		StringBuilder builder = new StringBuilder();
+		builder.append("package " + packageName + ";\n\n");
+		builder.append("import org.sodeac.common.IService;\n");
+		builder.append("import org.sodeac.common.annotation.ServiceAddress;\n");
+		builder.append("import org.sodeac.common.annotation.ServiceFactory;\n");
+		builder.append("import org.sodeac.common.annotation.ServiceRegistration;\n");
+		builder.append("import org.sodeac.common.annotation.StringProperty;\n\n");
+		builder.append("@ServiceFactory(upperScalingLimit = 4, stringProperty = @StringProperty(key = \"name\", value = \"" + className + "\"))\n");
+		builder.append("@ServiceRegistration(serviceType = Runnable.class)\n");
+		builder.append("public class " + className + " implements Runnable\n{\n");
+		builder.append("\t@ServiceAddress(domain = \"fixture\")\n");
+		builder.append("\tprotected IService.IServiceProvider<Runnable> provider;\n\n");
+		builder.append("\tpublic void run()\n\t{\n\t\tprovider.get().run();\n\t}\n");
+		builder.append("}\n");
+		return builder.toString();
+	}
+
+	private static String renderPlain(String packageName, String className)
+	{
+		StringBuilder builder = new StringBuilder();
+		builder.append("package " + packageName + ";\n\n");
+		builder.append("public class " + className + "\n{\n");
+		builder.append("\tprivate int value;\n\n");
+		builder.append("\tpublic int next(int step)\n\t{\n\t\tvalue += step;\n\t\treturn value;\n\t}\n");
+		builder.append("}\n");
+		return builder.toString();
+	}
+
+	private static void write(File packageDirectory, String className, String source) throws IOException
+	{
+		Files.write(Paths.get(packageDirectory.getPath(), className + ".java"), source.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,22 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.common.annotation;
+
+public @interface BowMethod
+{
+	enum ReturnBowMode {DEFAULT, SELF, UNDEFINED_PARENT_TYPE, NESTED_BOW}
+
+	boolean convertReturnValueToBow() default false;
+	boolean createBowFromReturnValue() default false;
+	boolean keepStatic() default false;
+	String name() default "";
+	ReturnBowMode returnBowMode() default ReturnBowMode.DEFAULT;
+}
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.common.typedtree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Node of typed tree. Values of child nodes are stored by index of node type in meta model: 
+ * values of leaf nodes, child branch nodes and lists of child branch nodes.
+ * 
+ * <p>Nodes are not thread safe.
+ *
+ * @param <P> type of parent meta model
+ * @param <R> type of meta model of this node
+ */
+public class BranchNode<P,R>
+{
+	public BranchNode(BranchNode<?,P> parentNode, INodeType<P,R> nodeType, BranchNodeMetaModel model)
+	{
+		super();
+		this.parentNode = parentNode;
+		this.nodeType = nodeType;
+		this.model = model;
+		this.values = new Object[model.getNodeTypeList().size()];
+	}
+
+	private BranchNode parentNode = null;
+	private INodeType<P,R> nodeType = null;
+	private BranchNodeMetaModel model = null;
+	private Object[] values = null;
+	private BranchNodeToObjectWrapper bow = null;
+
+	public BranchNode getParentNode()
+	{
+		return parentNode;
+	}
+
+	public BranchNodeToObjectWrapper getBow()
+	{
+		return bow;
+	}
+
+	void setBow(BranchNodeToObjectWrapper bow)
+	{
+		this.bow = bow;
+	}
+
+	public INodeType getNodeType()
+	{
+		return nodeType;
+	}
+
+	public BranchNodeMetaModel getModel()
+	{
+		return model;
+	}
+
+	public Object getValue(int nodeTypeIndex)
+	{
+		return values[nodeTypeIndex];
+	}
+
+	public void setValue(int nodeTypeIndex, Object value)
+	{
+		if(! (model.getNodeTypeList().get(nodeTypeIndex) instanceof LeafNodeType))
+		{
+			throw new IllegalArgumentException("node type " + model.getNodeTypeList().get(nodeTypeIndex) + " is not a leaf node type");
+		}
+		values[nodeTypeIndex] = value;
+	}
+
+	/**
+	 * Creates child branch node. A single child replaces current child, a list child is appended to list. 
+	 * If this node is wrapped by BOW, the child node is wrapped by nested BOW.
+	 *
+	 * @param nodeTypeIndex index of node type
+	 * @return new child node
+	 */
+	public BranchNode create(int nodeTypeIndex)
+	{
+		INodeType childNodeType = model.getNodeTypeList().get(nodeTypeIndex);
+		BranchNode child = new BranchNode(this, childNodeType, ModelRegistry.getBranchNodeMetaModel(childNodeType.getTypeClass()));
+		if(childNodeType instanceof BranchNodeListType)
+		{
+			getOrCreateList(nodeTypeIndex).add(child);
+		}
+		else if(childNodeType instanceof BranchNodeType)
+		{
+			values[nodeTypeIndex] = child;
+		}
+		else
+		{
+			throw new IllegalArgumentException("node type " + childNodeType + " is not a branch node type");
+		}
+		if(bow != null)
+		{
+			bow.createNestedBow(nodeTypeIndex, childNodeType, child);
+		}
+		return child;
+	}
+
+	public boolean remove(int nodeTypeIndex, BranchNode child)
+	{
+		if(values[nodeTypeIndex] instanceof List)
+		{
+			return ((List)values[nodeTypeIndex]).remove(child);
+		}
+		if(values[nodeTypeIndex] == child)
+		{
+			values[nodeTypeIndex] = null;
+			return true;
+		}
+		return false;
+	}
+
+	public List<BranchNode> getUnmodifiableList(int nodeTypeIndex)
+	{
+		List<BranchNode> list = (List<BranchNode>)values[nodeTypeIndex];
+		return list == null ? Collections.emptyList() : Collections.unmodifiableList(list);
+	}
+
+	/**
+	 * Copies values and child nodes of other node of same meta model into this node.
+	 *
+	 * @param other node to copy from
+	 */
+	public void copyFrom(BranchNode other)
+	{
+		if(other.model != model)
+		{
+			throw new IllegalArgumentException("meta model of node differs");
+		}
+		for(int i = 0; i < values.length; i++)
+		{
+			INodeType childNodeType = model.getNodeTypeList().get(i);
+			if(childNodeType instanceof LeafNodeType)
+			{
+				values[i] = other.values[i];
+			}
+			else if(childNodeType instanceof BranchNodeType)
+			{
+				values[i] = null;
+				if(other.values[i] != null)
+				{
+					create(i).copyFrom((BranchNode)other.values[i]);
+				}
+			}
+			else
+			{
+				values[i] = null;
+				for(Object otherChild : other.getUnmodifiableList(i))
+				{
+					create(i).copyFrom((BranchNode)otherChild);
+				}
+			}
+		}
+	}
+
+	private List<BranchNode> getOrCreateList(int nodeTypeIndex)
+	{
+		List<BranchNode> list = (List<BranchNode>)values[nodeTypeIndex];
+		if(list == null)
+		{
+			list = new ArrayList<>();
+			values[nodeTypeIndex] = list;
+		}
+		return list;
+	}
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.common.typedtree;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Meta model of branch node. Node types are public static fields of meta model class and its super classes. 
+ * Unset node type fields are initialized on construction of first meta model of declaring class.
+ */
+public class BranchNodeMetaModel
+{
+	private static final Object NODE_TYPE_INIT_LOCK = new Object();
+
+	public BranchNodeMetaModel()
+	{
+		super();
+
+		List<INodeType> nodeTypeList = new ArrayList<>();
+		Map<INodeType,Integer> nodeTypeIndexByClass = new HashMap<>();
+
+		LinkedList<Class<?>> hierarchy = new LinkedList<>();
+		for(Class<?> clazz = getClass(); (clazz != BranchNodeMetaModel.class) && (clazz != TypedTreeMetaModel.class); clazz = clazz.getSuperclass())
+		{
+			hierarchy.addFirst(clazz);
+		}
+		for(Class<?> clazz : hierarchy)
+		{
+			for(Field field : clazz.getDeclaredFields())
+			{
+				if((! Modifier.isStatic(field.getModifiers())) || (! INodeType.class.isAssignableFrom(field.getType())))
+				{
+					continue;
+				}
+				INodeType nodeType = getOrCreateNodeType(clazz, field);
+				nodeTypeIndexByClass.put(nodeType, nodeTypeList.size());
+				nodeTypeList.add(nodeType);
+			}
+		}
+
+		this.nodeTypeList = Collections.unmodifiableList(nodeTypeList);
+		this.nodeTypeIndexByClass = Collections.unmodifiableMap(nodeTypeIndexByClass);
+	}
+
+	private List<INodeType> nodeTypeList = null;
+	private Map<INodeType,Integer> nodeTypeIndexByClass = null;
+
+	public Map<INodeType,Integer> getNodeTypeIndexByClass()
+	{
+		return nodeTypeIndexByClass;
+	}
+
+	public List<INodeType> getNodeTypeList()
+	{
+		return nodeTypeList;
+	}
+
+	private static INodeType getOrCreateNodeType(Class<?> parentNodeClass, Field field)
+	{
+		synchronized (NODE_TYPE_INIT_LOCK)
+		{
+			try
+			{
+				INodeType nodeType = (INodeType)field.get(null);
+				if(nodeType != null)
+				{
+					return nodeType;
+				}
+
+				Type typeArgument = ((ParameterizedType)field.getGenericType()).getActualTypeArguments()[1];
+				Class<?> typeClass = (Class<?>)(typeArgument instanceof ParameterizedType ? ((ParameterizedType)typeArgument).getRawType() : typeArgument);
+
+				if(field.getType() == LeafNodeType.class)
+				{
+					nodeType = new LeafNodeType(parentNodeClass, typeClass, field.getName());
+				}
+				else if(field.getType() == BranchNodeType.class)
+				{
+					nodeType = new BranchNodeType(parentNodeClass, typeClass, field.getName());
+				}
+				else if(field.getType() == BranchNodeListType.class)
+				{
+					nodeType = new BranchNodeListType(parentNodeClass, typeClass, field.getName());
+				}
+				else
+				{
+					throw new IllegalStateException("unsupported node type " + field);
+				}
+				field.set(null, nodeType);
+				return nodeType;
+			}
+			catch (IllegalAccessException e)
+			{
+				throw new IllegalStateException("node type " + field + " is not accessible", e);
+			}
+		}
+	}
+}
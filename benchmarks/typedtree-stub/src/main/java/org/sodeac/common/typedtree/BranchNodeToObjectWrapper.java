@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.common.typedtree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Base class of generated BOWs. A BOW wraps a branch node and accesses child nodes by {@link NodeField}s.
+ */
+public class BranchNodeToObjectWrapper
+{
+	protected BranchNodeToObjectWrapper __parent;
+
+	private BranchNode<?,?> branchNode = null;
+
+	public BranchNodeToObjectWrapper(BranchNode<?,?> branchNode, BranchNodeToObjectWrapper parent)
+	{
+		super();
+		this.branchNode = branchNode;
+		this.__parent = parent;
+		branchNode.setBow(this);
+	}
+
+	protected BranchNodeMetaModel getModel()
+	{
+		return branchNode.getModel();
+	}
+
+	protected void dispose()
+	{
+		this.branchNode = null;
+		this.__parent = null;
+	}
+
+	protected Object getLeafNodeValue(NodeField field)
+	{
+		return branchNode.getValue(field.getNodeTypeIndex());
+	}
+
+	protected void setLeafNodeValue(NodeField field, Object value)
+	{
+		branchNode.setValue(field.getNodeTypeIndex(), value);
+	}
+
+	protected BranchNode getBranchNode(NodeField field)
+	{
+		return (BranchNode)branchNode.getValue(field.getNodeTypeIndex());
+	}
+
+	protected BranchNode createBranchNode(NodeField field)
+	{
+		return branchNode.create(field.getNodeTypeIndex());
+	}
+
+	protected BranchNode createBranchNodeItem(NodeField field)
+	{
+		return branchNode.create(field.getNodeTypeIndex());
+	}
+
+	protected boolean removeBranchNodeItem(NodeField field, BranchNodeToObjectWrapper bow)
+	{
+		if((bow == null) || (! branchNode.remove(field.getNodeTypeIndex(), bow.getWrappedBranchNode())))
+		{
+			return false;
+		}
+		bow.dispose();
+		return true;
+	}
+
+	protected List getBowList(NodeField field)
+	{
+		List<BranchNode> nodeList = branchNode.getUnmodifiableList(field.getNodeTypeIndex());
+		List<BranchNodeToObjectWrapper> bowList = new ArrayList<>(nodeList.size());
+		for(BranchNode node : nodeList)
+		{
+			bowList.add(node.getBow());
+		}
+		return Collections.unmodifiableList(bowList);
+	}
+
+	protected Stream getBowStream(NodeField field)
+	{
+		return branchNode.getUnmodifiableList(field.getNodeTypeIndex()).stream().map(BranchNode::getBow);
+	}
+
+	public BranchNode getWrappedBranchNode()
+	{
+		return branchNode;
+	}
+
+	/**
+	 * Creates BOW of new child node. Generated BOWs create typed nested BOWs, the default is an untyped BOW.
+	 *
+	 * @param nodeTypeIndex index of node type in meta model of this node
+	 * @param nodeType node type of child node
+	 * @param branchNode child node
+	 * @return nested BOW
+	 */
+	protected BranchNodeToObjectWrapper createNestedBow(int nodeTypeIndex, INodeType nodeType, BranchNode branchNode)
+	{
+		return new BranchNodeToObjectWrapper(branchNode, this);
+	}
+
+	/**
+	 * Index and type of child node, resolved once per meta model.
+	 */
+	protected static class NodeField
+	{
+		public NodeField(Integer index, INodeType nodeType)
+		{
+			super();
+			if(index == null)
+			{
+				throw new IllegalArgumentException("node type " + nodeType + " is not part of meta model");
+			}
+			this.nodeTypeIndex = index.intValue();
+			this.nodeType = nodeType;
+		}
+
+		private int nodeTypeIndex;
+		private INodeType nodeType = null;
+
+		public int getNodeTypeIndex()
+		{
+			return nodeTypeIndex;
+		}
+
+		public INodeType getNodeType()
+		{
+			return nodeType;
+		}
+	}
+}
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.common.typedtree;
+
+/**
+ * Type of single child branch node.
+ */
+public class BranchNodeType<P,T> implements INodeType<P,T>
+{
+	public BranchNodeType(Class<P> parentNodeClass, Class<T> typeClass, String nodeName)
+	{
+		super();
+		this.parentNodeClass = parentNodeClass;
+		this.typeClass = typeClass;
+		this.nodeName = nodeName;
+	}
+
+	private Class<P> parentNodeClass = null;
+	private Class<T> typeClass = null;
+	private String nodeName = null;
+
+	@Override
+	public Class<P> getParentNodeClass()
+	{
+		return parentNodeClass;
+	}
+
+	@Override
+	public Class<T> getTypeClass()
+	{
+		return typeClass;
+	}
+
+	@Override
+	public String getNodeName()
+	{
+		return nodeName;
+	}
+
+	@Override
+	public String toString()
+	{
+		return parentNodeClass.getSimpleName() + "." + nodeName;
+	}
+}
@@ -0,0 +1,26 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.common.typedtree;
+
+/**
+ * Type of child node, defined as static field of meta model of parent node.
+ *
+ * @param <P> type of parent meta model
+ * @param <T> type of value or of meta model of child node
+ */
+public interface INodeType<P,T>
+{
+	public Class<P> getParentNodeClass();
+
+	public Class<T> getTypeClass();
+
+	public String getNodeName();
+}
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.common.typedtree;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of meta models. Each meta model class has a single instance.
+ */
+public class ModelRegistry
+{
+	private static final Map<Class<?>,BranchNodeMetaModel> MODELS = new ConcurrentHashMap<>();
+
+	public static <T extends TypedTreeMetaModel> T getTypedTreeMetaModel(Class<T> modelClass)
+	{
+		return modelClass.cast(getBranchNodeMetaModel(modelClass));
+	}
+
+	public static BranchNodeMetaModel getBranchNodeMetaModel(Class<?> modelClass)
+	{
+		BranchNodeMetaModel model = MODELS.get(modelClass);
+		if(model == null)
+		{
+			// construct outside of map, construction initializes node types only and does not look up other models
+
+			try
+			{
+				model = (BranchNodeMetaModel)modelClass.getConstructor().newInstance();
+			}
+			catch (ReflectiveOperationException e)
+			{
+				throw new IllegalStateException("create meta model " + modelClass + " failed", e);
+			}
+			BranchNodeMetaModel registered = MODELS.putIfAbsent(modelClass, model);
+			if(registered != null)
+			{
+				model = registered;
+			}
+		}
+		return model;
+	}
+}
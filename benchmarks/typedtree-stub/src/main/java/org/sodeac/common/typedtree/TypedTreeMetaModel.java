@@ -0,0 +1,24 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.common.typedtree;
+
+/**
+ * Meta model of tree. Node types of model are types of root nodes.
+ *
+ * @param <T> type of model
+ */
+public class TypedTreeMetaModel<T> extends BranchNodeMetaModel
+{
+	public <R> BranchNode<T,R> createRootNode(BranchNodeType<T,R> type)
+	{
+		return new BranchNode<T,R>(null, type, ModelRegistry.getBranchNodeMetaModel(type.getTypeClass()));
+	}
+}
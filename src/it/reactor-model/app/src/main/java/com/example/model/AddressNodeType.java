@@ -0,0 +1,9 @@
+package com.example.model;
+import org.sodeac.common.annotation.GenerateBow;
+import org.sodeac.common.typedtree.*;
+@GenerateBow(beanLikeSetters = true, primitiveAccessors = true)
+public class AddressNodeType extends BranchNodeMetaModel
+{
+	public static volatile LeafNodeType<AddressNodeType,String> street;
+	public static volatile LeafNodeType<AddressNodeType,Integer> zip;
+}
@@ -0,0 +1,28 @@
+package com.example.model;
+import org.sodeac.common.annotation.*;
+import org.sodeac.common.typedtree.*;
+@GenerateBow(buildAlias = true, primitiveAccessors = true)
+public class PersonNodeType extends BaseEntityNodeType
+{
+	public static volatile LeafNodeType<PersonNodeType,String> name;
+	public static volatile LeafNodeType<PersonNodeType,Boolean> active;
+	public static volatile LeafNodeType<PersonNodeType,Double> score;
+	public static volatile LeafNodeType<PersonNodeType,Integer> count;
+	public static volatile BranchNodeType<PersonNodeType,AddressNodeType> address;
+	public static volatile BranchNodeListType<PersonNodeType,AddressNodeType> formerAddresses;
+
+	@BowMethod
+	public static void describe(String prefix, int count) { }
+
+	@BowMethod
+	public static void touch(@BowParameter(self = true) BranchNode<?,PersonNodeType> node, String... tags) { }
+
+	@BowMethod(convertReturnValueToBow = true, returnBowMode = BowMethod.ReturnBowMode.NESTED_BOW)
+	public static BranchNode<PersonNodeType,AddressNodeType> primaryAddress(@BowParameter(self = true) BranchNode<?,PersonNodeType> node) throws java.io.IOException { return null; }
+	
+	@BowMethod(name = "relocate", convertReturnValueToBow = true, returnBowMode = BowMethod.ReturnBowMode.SELF)
+	public static void move(@BowParameter(self = true) BranchNode<?,PersonNodeType> node, @BowParameter(convertToBow = true, name = "target") BranchNode<PersonNodeType,AddressNodeType> address, java.util.List<java.util.Map<String, ? extends Number>> hints) { }
+	
+	@BowMethod(convertReturnValueToBow = true, createBowFromReturnValue = true)
+	public static BranchNode<?,AddressNodeType> newAddress(@BowParameter(automaticConsumerMode = BowParameter.AutomaticConsumer.NEW_BOW_BY_RETURNTYPE) java.util.function.Consumer<BranchNode<?,AddressNodeType>> consumer) { return null; }
+}
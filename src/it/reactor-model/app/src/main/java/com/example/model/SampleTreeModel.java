@@ -0,0 +1,12 @@
+package com.example.model;
+import org.sodeac.common.annotation.*;
+import org.sodeac.common.typedtree.*;
+@GenerateBowFactory
+public class SampleTreeModel extends TypedTreeMetaModel<SampleTreeModel>
+{
+	public static volatile BranchNodeType<SampleTreeModel,PersonNodeType> person;
+	public static volatile BranchNodeType<SampleTreeModel,AddressNodeType> address;
+
+	@BowMethod(convertReturnValueToBow = true)
+	public static BranchNode<SampleTreeModel,PersonNodeType> load(String id) throws Exception { return null; }
+}
@@ -0,0 +1,9 @@
+package com.example.srv;
+import org.sodeac.common.annotation.*;
+@ServiceFactory(lowerScalingLimit = 2, upperScalingLimit = 4, stringProperty = {@StringProperty(key = "zeta", value = "z"), @StringProperty(key = "alpha", value = "a"), @StringProperty(key = "mid", value = "m")}, integerProperty = @IntegerProperty(key = "prio", value = 7), booleanProperty = @BooleanProperty(key = "enabled", value = true))
+@ServiceRegistration(serviceType = IGreeter.class)
+@Version(major = 2, minor = 1)
+public class GreeterImpl extends BaseService implements IGreeter
+{
+	public String greet() { return "hi"; }
+}
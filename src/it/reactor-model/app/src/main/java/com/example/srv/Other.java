@@ -0,0 +1,3 @@
+package com.example.srv;
+@org.sodeac.common.annotation.ServiceFactory
+public class Other { }
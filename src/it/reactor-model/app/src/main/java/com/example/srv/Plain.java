@@ -0,0 +1,2 @@
+package com.example.srv;
+public class Plain { int x; }
@@ -0,0 +1,8 @@
+package com.example.model;
+import org.sodeac.common.typedtree.*;
+@org.sodeac.common.annotation.GenerateBow
+public class BaseEntityNodeType extends BranchNodeMetaModel
+{
+	public static volatile LeafNodeType<BaseEntityNodeType,java.util.UUID> id;
+	public static volatile LeafNodeType<BaseEntityNodeType,Long> version;
+}
@@ -0,0 +1,9 @@
+package com.example.srv;
+import org.sodeac.common.IService;
+import org.sodeac.common.annotation.*;
+public abstract class BaseService
+{
+	@ServiceAddress(domain = "com.example")
+	@ServicePreference(score = 10, filter = "(x=1)")
+	protected IService.IServiceProvider<IGreeter> greeterProvider;
+}
@@ -0,0 +1,28 @@
+// reactor is run with maven.main.skip, module base is part of spoon model of reactor, but its classes are never built
+
+def expectedFiles = [
+	'base/src/generated/com/example/model/BaseEntityBow.java',
+	'app/src/generated/com/example/model/PersonBow.java',
+	'app/src/generated/com/example/model/AddressBow.java',
+	'app/src/generated/com/example/model/SampleBowFactory.java',
+	'app/src/main/resources/SDC-INF/com.example.srv.GreeterImpl.xml',
+	'app/src/main/resources/SDC-INF/service-index.xml'
+]
+for(String expectedFile : expectedFiles)
+{
+	assert new File(basedir, expectedFile).isFile() : "missing generated file " + expectedFile
+}
+
+assert ! new File(basedir, 'base/target/classes/com').exists() : "module base must not be compiled"
+
+def personBow = new File(basedir, 'app/src/generated/com/example/model/PersonBow.java').text
+assert personBow.contains('extends com.example.model.BaseEntityBow') : "type of module base is not resolved in module app"
+
+def serviceDescriptor = new File(basedir, 'app/src/main/resources/SDC-INF/com.example.srv.GreeterImpl.xml').text
+assert serviceDescriptor.contains('greeterProvider') : "reference inherited from module base is missing"
+
+def buildLog = new File(basedir, 'build.log').text
+assert buildLog.count('build spoon model of reactor') == 1 : "spoon model of reactor must be built once"
+assert ! buildLog.contains('for spoon model of reactor failed') : "dependencies must be resolved without projects of reactor"
+
+return true
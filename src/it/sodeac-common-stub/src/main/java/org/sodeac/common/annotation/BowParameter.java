@@ -0,0 +1,21 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.common.annotation;
+
+public @interface BowParameter
+{
+	enum AutomaticConsumer {NONE, NEW_BOW_BY_RETURNTYPE}
+
+	boolean self() default false;
+	boolean convertToBow() default false;
+	String name() default "";
+	AutomaticConsumer automaticConsumerMode() default AutomaticConsumer.NONE;
+}
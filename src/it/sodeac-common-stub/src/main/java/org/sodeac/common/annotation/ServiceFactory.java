@@ -0,0 +1,23 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.common.annotation;
+
+public @interface ServiceFactory
+{
+	Class<?> factoryClass() default Object.class;
+	int lowerScalingLimit() default 1;
+	int upperScalingLimit() default 1;
+	boolean shared() default true;
+	StringProperty[] stringProperty() default {};
+	IntegerProperty[] integerProperty() default {};
+	BooleanProperty[] booleanProperty() default {};
+	ServiceRegistration[] registrations() default {};
+}
@@ -0,0 +1,19 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.common.annotation;
+
+public @interface ServiceRegistration
+{
+	Class<?>[] serviceType() default {};
+	String name() default "<REPLACED__BY__CLASS__NAME>";
+	String domain() default "<REPLACED__BY__PACKAGE__NAME>";
+	Version version() default @Version(major = -1, minor = -1, service = -1);
+}
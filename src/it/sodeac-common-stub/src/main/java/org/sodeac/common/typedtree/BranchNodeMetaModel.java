@@ -0,0 +1,27 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.common.typedtree;
+
+import java.util.List;
+import java.util.Map;
+
+public class BranchNodeMetaModel
+{
+	public Map<INodeType,Integer> getNodeTypeIndexByClass()
+	{
+		return null;
+	}
+
+	public List<INodeType> getNodeTypeList()
+	{
+		return null;
+	}
+}
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.common.typedtree;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+public class BranchNodeToObjectWrapper
+{
+	protected BranchNodeToObjectWrapper __parent;
+
+	public BranchNodeToObjectWrapper(BranchNode<?,?> branchNode, BranchNodeToObjectWrapper parent)
+	{
+	}
+
+	protected BranchNodeMetaModel getModel()
+	{
+		return null;
+	}
+
+	protected void dispose()
+	{
+	}
+
+	protected Object getLeafNodeValue(NodeField field)
+	{
+		return null;
+	}
+
+	protected void setLeafNodeValue(NodeField field, Object value)
+	{
+	}
+
+	protected BranchNode getBranchNode(NodeField field)
+	{
+		return null;
+	}
+
+	protected BranchNode createBranchNode(NodeField field)
+	{
+		return null;
+	}
+
+	protected BranchNode createBranchNodeItem(NodeField field)
+	{
+		return null;
+	}
+
+	protected boolean removeBranchNodeItem(NodeField field, BranchNodeToObjectWrapper bow)
+	{
+		return false;
+	}
+
+	protected List getBowList(NodeField field)
+	{
+		return null;
+	}
+
+	protected Stream getBowStream(NodeField field)
+	{
+		return null;
+	}
+
+	public BranchNode getWrappedBranchNode()
+	{
+		return null;
+	}
+
+	protected BranchNodeToObjectWrapper createNestedBow(int nodeTypeIndex, INodeType nodeType, BranchNode branchNode)
+	{
+		return null;
+	}
+
+	protected static class NodeField
+	{
+		public NodeField(Integer index, INodeType nodeType)
+		{
+		}
+
+		public int getNodeTypeIndex()
+		{
+			return 0;
+		}
+
+		public INodeType getNodeType()
+		{
+			return null;
+		}
+	}
+
+	protected static class NestedPowFactoryCache
+	{
+		public NestedPowFactoryCache(NodeField nodeField, BiFunction<BranchNode, BranchNodeToObjectWrapper, BranchNodeToObjectWrapper> factory)
+		{
+		}
+
+		public NodeField getNodeField()
+		{
+			return null;
+		}
+
+		public BiFunction<BranchNode, BranchNodeToObjectWrapper, BranchNodeToObjectWrapper> getFactory()
+		{
+			return null;
+		}
+	}
+}
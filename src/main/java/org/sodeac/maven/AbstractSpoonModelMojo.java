@@ -0,0 +1,943 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.DefaultDependencyResolutionRequest;
+import org.apache.maven.project.DependencyResolutionException;
+import org.apache.maven.project.DependencyResolutionResult;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectDependenciesResolver;
+
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.eclipse.aether.graph.DependencyFilter;
+import org.eclipse.aether.graph.DependencyNode;
+
+import spoon.Launcher;
+import spoon.reflect.CtModel;
+import spoon.reflect.cu.SourcePosition;
+import spoon.reflect.declaration.CtClass;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.reference.CtTypeReference;
+
+/**
+ * Base of all mojos working with spoon model of application sources.
+ * 
+ * <p>The model is built from compile source roots and resolved compile classpath of project. Source roots added by mojos of this plugin are not part of the model.
+ * In reactor mode one model is built from compile source roots of all projects of reactor and is shared by all projects. 
+ * Each project generates only for types of its own source roots.
+ */
+public abstract class AbstractSpoonModelMojo extends AbstractMojo
+{
+	private static final String GENERATED_SOURCE_ROOTS_CONTEXT_KEY = AbstractSpoonModelMojo.class.getName() + ".generatedSourceRoots";
+	private static final String REACTOR_SOURCE_ROOTS_CONTEXT_KEY = AbstractSpoonModelMojo.class.getName() + ".reactorSourceRoots";
+	private static final Object REACTOR_MODEL_LOCK = new Object();
+	
+	@Parameter(property = "project", readonly = true)
+	protected MavenProject project;
+
+	@Parameter(defaultValue = "${session}", readonly = true)
+	protected MavenSession session;
+
+	@Component
+	private ProjectDependenciesResolver dependenciesResolver;
+
+	@Parameter(defaultValue = "${plugin.version}", readonly = true)
+	protected String pluginVersion;
+
+	/**
+	 * Count of worker threads to render and write generated files. A value less than 1 uses count of available processors.
+	 */
+	@Parameter(property = "threads", defaultValue = "0")
+	protected int threads;
+
+	/**
+	 * Scan source files for trigger annotations before building spoon model and build model only of candidates and their dependencies.
+	 * If types of prefiltered model can not be resolved, the model of all sources is built.
+	 */
+	@Parameter(property = "prefilter-sources", defaultValue = "false")
+	protected boolean prefilterSources;
+
+	/**
+	 * Write timings and counters of execution as JSON document to report directory.
+	 */
+	@Parameter(property = "write-report", defaultValue = "false")
+	protected boolean writeReport;
+
+	@Parameter(property = "report-dir", defaultValue = "${project.build.directory}/sodeac")
+	protected String reportDirectory;
+
+	/**
+	 * Restore generated files from build-level cache, if sources, plugin version and configuration are unchanged, without building spoon model.
+	 */
+	@Parameter(property = "generation-cache", defaultValue = "false")
+	protected boolean generationCache;
+
+	@Parameter(property = "generation-cache-dir", defaultValue = "${user.home}/.m2/sodeac-generation-cache")
+	protected String generationCacheDirectory;
+
+	/**
+	 * Maximum size of generation cache in megabytes. Least recently used entries are removed, if size is exceeded.
+	 */
+	@Parameter(property = "generation-cache-max-size", defaultValue = "256")
+	protected long generationCacheMaxSize;
+
+	/**
+	 * Render each output twice and fail, if the renders differ.
+	 */
+	@Parameter(property = "reproducible-check", defaultValue = "false")
+	protected boolean reproducibleCheck;
+
+	/**
+	 * Build spoon model without dependencies of project. Dependencies are not read, types of dependencies are not resolved. 
+	 * Spoon runs in no-classpath mode regardless of this parameter and tolerates unresolved types, 
+	 * because generated sources referenced by application sources are not part of the model.
+	 */
+	@Parameter(property = "spoon-skip-classpath", defaultValue = "false")
+	protected boolean skipSpoonClasspath;
+
+	/**
+	 * Parse comments into spoon model. Generators of this plugin do not need comments.
+	 */
+	@Parameter(property = "spoon-comments", defaultValue = "false")
+	protected boolean spoonComments;
+
+	/**
+	 * Java compliance level of spoon model. A value less than 1 uses release or source level of compiler configuration, otherwise 8.
+	 */
+	@Parameter(property = "spoon-compliance-level", defaultValue = "0")
+	protected int spoonComplianceLevel;
+
+	/**
+	 * Package globs or source path patterns of source files to build spoon model of, e.g. {@code com.example.model.**}. All source files, if empty.
+	 * Super classes of model classes must be included. See {@link SourceScope}.
+	 */
+	@Parameter(property = "model-includes")
+	protected List<String> modelIncludes;
+
+	/**
+	 * Package globs or source path patterns of source files to exclude from spoon model.
+	 */
+	@Parameter(property = "model-excludes")
+	protected List<String> modelExcludes;
+
+	/**
+	 * Build one spoon model of all projects of reactor in first execution and reuse it in all projects.
+	 * Classpath of model is union of external compile dependencies of all projects of reactor.
+	 */
+	@Parameter(property = "reactor-model", defaultValue = "false")
+	protected boolean reactorModel;
+
+	/**
+	 * Keep spoon model in memory of build process, e.g. maven daemon, and update it in next build by parsing only changed source files.
+	 * Sources are not prefiltered in this mode. See {@link WarmSpoonModel}.
+	 */
+	@Parameter(property = "warm-model", defaultValue = "false")
+	protected boolean warmModel;
+
+	/**
+	 * Maximum estimated memory of all warm models of build process in megabytes.
+	 */
+	@Parameter(property = "warm-model-max-memory", defaultValue = "512")
+	protected long warmModelMaxMemory;
+
+	protected GenerationReport report = new GenerationReport();
+
+	private boolean reactorModelInUse = false;
+	private List<String> resolvedClasspath = null;
+	private WarmSpoonModel acquiredWarmModel = null;
+
+	/**
+	 * Configures parameters, maven injects in a build, for executions without maven, e.g. by benchmarks. 
+	 * Classpath of model is skipped, sources are parsed in noclasspath mode. Optional features keep their defaults (disabled).
+	 *
+	 * @param project project with source roots and build directory
+	 * @param outputDirectory output directory of generated files
+	 */
+	void configureStandalone(MavenProject project, File outputDirectory)
+	{
+		File buildDirectory = new File(project.getBuild().getDirectory());
+
+		this.project = project;
+		this.pluginVersion = "standalone";
+		this.reportDirectory = new File(buildDirectory, "sodeac").getPath();
+		this.generationCacheDirectory = new File(buildDirectory, "sodeac-generation-cache").getPath();
+		this.generationCacheMaxSize = 256L;
+		this.warmModelMaxMemory = 512L;
+		this.skipSpoonClasspath = true;
+	}
+
+	/**
+	 * Returns spoon model of application sources. The model is built only once per project and build and is shared by all mojos of this plugin.
+	 * A warm model is not updated by concurrent builds until {@link #releaseModel()}.
+	 *
+	 * @return spoon model
+	 * @throws Exception
+	 */
+	protected CtModel getModel() throws Exception
+	{
+		long phaseStart = System.nanoTime();
+		releaseModel();
+
+		if(reactorModel)
+		{
+			CtModel model = getReactorModel();
+			if(model != null)
+			{
+				report.endPhase(GenerationReport.PHASE_MODEL, phaseStart);
+				return model;
+			}
+		}
+
+		String key = getModelKey();
+
+		CtModel model = SharedSpoonModel.get(project, key);
+		if((model != null) && acquireSharedWarmModel(model))
+		{
+			getLog().info("reuse spoon model of " + project.getBasedir());
+			report.setCount(GenerationReport.COUNT_MODEL_REUSED, 1);
+			report.endPhase(GenerationReport.PHASE_MODEL, phaseStart);
+			return model;
+		}
+
+		File outputDirectory = new File(project.getBuild().getOutputDirectory()).getAbsoluteFile();
+		model = buildModel(key, getSourceRoots(), getClasspath(), Collections.singletonList(outputDirectory), getComplianceLevel(project));
+
+		SharedSpoonModel.put(project, key, model);
+		report.setCount(GenerationReport.COUNT_MODEL_REUSED, 0);
+		report.endPhase(GenerationReport.PHASE_MODEL, phaseStart);
+
+		return model;
+	}
+
+	/**
+	 * Releases read access to warm model acquired by {@link #getModel()}. Must be invoked by thread of {@link #getModel()}, if model is not used anymore.
+	 */
+	protected void releaseModel()
+	{
+		if(acquiredWarmModel != null)
+		{
+			acquiredWarmModel.release();
+			acquiredWarmModel = null;
+		}
+	}
+
+	/**
+	 * Acquires read access to warm model, if model shared in project context is a warm model. 
+	 * 
+	 * @param model shared model
+	 * @return false, if warm model is dropped or invalid and shared model must not be used
+	 */
+	private boolean acquireSharedWarmModel(CtModel model)
+	{
+		if(! warmModel)
+		{
+			return true;
+		}
+		WarmSpoonModel warmSpoonModel = WarmSpoonModel.find(model);
+		if((warmSpoonModel == null) || (warmSpoonModel.acquire() == null))
+		{
+			getLog().info("shared spoon model is not kept as warm model anymore, build model");
+			return false;
+		}
+		acquiredWarmModel = warmSpoonModel;
+		return true;
+	}
+
+	/**
+	 * Returns types of model declared in source roots of project. Without reactor mode these are all types of model.
+	 *
+	 * @param model spoon model returned by {@link #getModel()}
+	 * @return types of project
+	 */
+	protected Collection<CtType<?>> getProjectTypes(CtModel model)
+	{
+		if(! reactorModelInUse)
+		{
+			return model.getAllTypes();
+		}
+
+		List<String> sourceRootPrefixes = new ArrayList<>();
+		for(File sourceRoot : getSourceRoots())
+		{
+			sourceRootPrefixes.add(sourceRoot.getPath() + File.separator);
+		}
+
+		List<CtType<?>> projectTypes = new ArrayList<>();
+		for(CtType<?> type : model.getAllTypes())
+		{
+			SourcePosition position = type.getPosition();
+			File file = position == null ? null : position.getFile();
+			if(file == null)
+			{
+				continue;
+			}
+			String path = file.getAbsolutePath();
+			for(String sourceRootPrefix : sourceRootPrefixes)
+			{
+				if(path.startsWith(sourceRootPrefix))
+				{
+					projectTypes.add(type);
+					break;
+				}
+			}
+		}
+		return projectTypes;
+	}
+
+	/**
+	 * Logs timings and counters of execution and writes JSON report, if enabled.
+	 *
+	 * @param goal goal of mojo
+	 * @throws IOException
+	 */
+	protected void publishReport(String goal) throws IOException
+	{
+		getLog().info(goal + " timings: " + report.formatPhases());
+		getLog().info(goal + " counters: " + report.formatCounters());
+
+		if(writeReport)
+		{
+			File reportFile = new File(reportDirectory, goal + "-report.json");
+			report.writeJson(reportFile, goal, project.getId());
+			getLog().debug("report written to " + reportFile);
+		}
+	}
+
+	/**
+	 * Opens entry of generation cache for current inputs of project.
+	 *
+	 * @param goal goal of mojo
+	 * @param configuration configuration of mojo, that affects generated files
+	 * @return generation cache, or null, if cache is disabled
+	 * @throws Exception
+	 */
+	protected GenerationCache openGenerationCache(String goal, String configuration) throws Exception
+	{
+		if(! generationCache)
+		{
+			return null;
+		}
+
+		// projects of reactor are not part of classpath of reactor model, their sources are inputs instead
+
+		List<File> sourceRoots = new ArrayList<>(getSourceRoots());
+		if(reactorModel)
+		{
+			for(MavenProject upstreamProject : session.getProjectDependencyGraph().getUpstreamProjects(project, true))
+			{
+				sourceRoots.addAll(getSourceRoots(upstreamProject));
+			}
+		}
+
+		SourceScope scope = getSourceScope();
+		String key = GenerationCache.fingerprint
+		(
+			pluginVersion + "|" + goal + "|" + configuration + (scope.isUnrestricted() ? "" : "|" + scope), 
+			sourceRoots, 
+			getClasspath()
+		);
+		return new GenerationCache(new File(generationCacheDirectory), generationCacheMaxSize * 1024L * 1024L, key);
+	}
+
+	/**
+	 * Returns path of file relative to base directory of project, to use paths in configuration of generation cache.
+	 *
+	 * @param path path of file
+	 * @return relative path, or canonical path, if file is not located in base directory
+	 * @throws IOException
+	 */
+	protected String getProjectRelativePath(String path) throws IOException
+	{
+		String basePath = project.getBasedir().getCanonicalPath() + File.separator;
+		String filePath = new File(path).getCanonicalPath();
+		if(filePath.startsWith(basePath))
+		{
+			return filePath.substring(basePath.length()).replace(File.separatorChar, '/');
+		}
+		return filePath;
+	}
+
+	/**
+	 * Renders output. In reproducible check mode the output is rendered twice and the renders are compared.
+	 *
+	 * @param outputName name of output for error message
+	 * @param renderer renders output
+	 * @return rendered output
+	 * @throws Exception
+	 */
+	protected byte[] render(String outputName, Callable<byte[]> renderer) throws Exception
+	{
+		byte[] content = renderer.call();
+		if(reproducibleCheck && (! Arrays.equals(content, renderer.call())))
+		{
+			throw new IllegalStateException("output of " + outputName + " is not reproducible, two successive renders differ");
+		}
+		return content;
+	}
+
+	protected int getThreadCount()
+	{
+		if(threads < 1)
+		{
+			return Runtime.getRuntime().availableProcessors();
+		}
+		return threads;
+	}
+
+	/**
+	 * Registers directory of generated sources as compile source root. The directory is not part of spoon models of this plugin.
+	 *
+	 * @param sourceRoot directory of generated sources
+	 */
+	protected void addGeneratedSourceRoot(File sourceRoot)
+	{
+		Set<String> generatedSourceRoots = getContextSet(project, GENERATED_SOURCE_ROOTS_CONTEXT_KEY);
+		if(generatedSourceRoots == null)
+		{
+			generatedSourceRoots = new HashSet<>();
+			project.setContextValue(GENERATED_SOURCE_ROOTS_CONTEXT_KEY, generatedSourceRoots);
+		}
+		generatedSourceRoots.add(sourceRoot.getAbsolutePath());
+		project.addCompileSourceRoot(sourceRoot.getAbsolutePath());
+	}
+
+	/**
+	 * Returns existing compile source roots of project, without source roots of generated sources of this plugin.
+	 *
+	 * @return source roots
+	 */
+	protected List<File> getSourceRoots()
+	{
+		return getSourceRoots(project);
+	}
+
+	private static List<File> getSourceRoots(MavenProject project)
+	{
+		Set<String> generatedSourceRoots = getContextSet(project, GENERATED_SOURCE_ROOTS_CONTEXT_KEY);
+
+		List<File> sourceRoots = new ArrayList<>();
+		for(String compileSourceRoot : project.getCompileSourceRoots())
+		{
+			File sourceRoot = new File(compileSourceRoot).getAbsoluteFile();
+			if((generatedSourceRoots != null) && generatedSourceRoots.contains(sourceRoot.getPath()))
+			{
+				continue;
+			}
+			if(sourceRoot.isDirectory())
+			{
+				sourceRoots.add(sourceRoot);
+			}
+		}
+		return sourceRoots;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Set<String> getContextSet(MavenProject project, String key)
+	{
+		return (Set<String>)project.getContextValue(key);
+	}
+
+	protected SourceScope getSourceScope()
+	{
+		return new SourceScope(modelIncludes, modelExcludes);
+	}
+
+	private List<String> getClasspath() throws Exception
+	{
+		if(resolvedClasspath != null)
+		{
+			return resolvedClasspath;
+		}
+
+		// projects of reactor are part of reactor model and their classes are not part of classpath
+
+		if(reactorModel)
+		{
+			resolvedClasspath = resolveReactorClasspath(Collections.singletonList(project));
+			return resolvedClasspath;
+		}
+
+		List<String> classpath = new ArrayList<>();
+		if(! skipSpoonClasspath)
+		{
+			// classes of project are built from sources of model
+
+			File outputDirectory = new File(project.getBuild().getOutputDirectory()).getAbsoluteFile();
+			for(String classpathElement : project.getCompileClasspathElements())
+			{
+				File file = new File(classpathElement).getAbsoluteFile();
+				if(file.equals(outputDirectory) || (! file.exists()))
+				{
+					continue;
+				}
+				classpath.add(file.getPath());
+			}
+		}
+		resolvedClasspath = classpath;
+		return resolvedClasspath;
+	}
+
+	private int getComplianceLevel(MavenProject project)
+	{
+		if(spoonComplianceLevel > 0)
+		{
+			return spoonComplianceLevel;
+		}
+
+		List<String> versions = new ArrayList<>();
+		versions.add(project.getProperties().getProperty("maven.compiler.release"));
+		Plugin compilerPlugin = project.getPlugin("org.apache.maven.plugins:maven-compiler-plugin");
+		if((compilerPlugin != null) && (compilerPlugin.getConfiguration() instanceof Xpp3Dom))
+		{
+			Xpp3Dom configuration = (Xpp3Dom)compilerPlugin.getConfiguration();
+			versions.add(configuration.getChild("release") == null ? null : configuration.getChild("release").getValue());
+			versions.add(configuration.getChild("source") == null ? null : configuration.getChild("source").getValue());
+		}
+		versions.add(project.getProperties().getProperty("maven.compiler.source"));
+
+		for(String version : versions)
+		{
+			if((version == null) || version.trim().isEmpty())
+			{
+				continue;
+			}
+			version = version.trim();
+			if(version.startsWith("1."))
+			{
+				version = version.substring(2);
+			}
+			try
+			{
+				return Integer.parseInt(version);
+			}
+			catch (NumberFormatException e) 
+			{
+				getLog().debug("ignore java version " + version);
+			}
+		}
+		return 8;
+	}
+
+	private CtModel buildModel(String key, List<File> sourceRoots, List<String> classpath, List<File> outputDirectories, int complianceLevel) throws Exception
+	{
+		SourceScope scope = getSourceScope();
+		List<File> inputResources = sourceRoots;
+		if(! scope.isUnrestricted())
+		{
+			inputResources = scope.collectSourceFiles(sourceRoots);
+			getLog().info("spoon model is limited to " + inputResources.size() + " source files in scope " + scope);
+		}
+
+		if(warmModel)
+		{
+			List<File> sourceFiles = scope.isUnrestricted() ? scope.collectSourceFiles(sourceRoots) : inputResources;
+			return buildWarmModel(key, sourceFiles, classpath, outputDirectories, complianceLevel);
+		}
+
+		CtModel model = null;
+		if(prefilterSources)
+		{
+			model = buildPrefilteredModel(sourceRoots, scope, classpath, complianceLevel);
+		}
+		if(model == null)
+		{
+			Launcher launcher = createLauncher(inputResources, classpath, complianceLevel);
+			launcher.buildModel();
+			model = launcher.getModel();
+		}
+		return model;
+	}
+
+	private CtModel buildWarmModel(String key, List<File> sourceFiles, List<String> classpath, List<File> outputDirectories, int complianceLevel) throws Exception
+	{
+		WarmSpoonModel warmSpoonModel = WarmSpoonModel.get(key);
+		if((warmSpoonModel != null) && warmSpoonModel.isClasspathChanged(classpath))
+		{
+			getLog().info("classpath of warm spoon model changed, build model of all sources");
+			warmSpoonModel = null;
+		}
+		if(warmSpoonModel != null)
+		{
+			Set<File> changedSourceFiles = warmSpoonModel.getChangedSourceFiles(sourceFiles);
+			Set<File> removedSourceFiles = warmSpoonModel.getRemovedSourceFiles(sourceFiles);
+			if(changedSourceFiles.isEmpty() && removedSourceFiles.isEmpty())
+			{
+				CtModel model = warmSpoonModel.acquire();
+				if(model != null)
+				{
+					acquiredWarmModel = warmSpoonModel;
+					getLog().info("reuse warm spoon model, sources unchanged");
+					report.setCount(GenerationReport.COUNT_SOURCES_PARSED, 0);
+					return model;
+				}
+			}
+
+			// parsing many files in context of old model is not cheaper than building new model
+
+			else if((changedSourceFiles.size() + removedSourceFiles.size()) * 2 <= sourceFiles.size())
+			{
+				// classes of previous build resolve types of unchanged sources referenced by changed sources
+
+				List<String> updateClasspath = new ArrayList<>(classpath);
+				if(! skipSpoonClasspath)
+				{
+					for(File outputDirectory : outputDirectories)
+					{
+						if(outputDirectory.isDirectory())
+						{
+							updateClasspath.add(outputDirectory.getPath());
+						}
+					}
+				}
+				try
+				{
+					CtModel model = warmSpoonModel.update(sourceFiles, updateClasspath);
+					acquiredWarmModel = warmSpoonModel;
+					getLog().info("update warm spoon model: " + changedSourceFiles.size() + " changed, " + removedSourceFiles.size() + " removed source files");
+					report.setCount(GenerationReport.COUNT_SOURCES_PARSED, changedSourceFiles.size());
+					return model;
+				}
+				catch (Exception e) 
+				{
+					getLog().info("update warm spoon model failed, build model of all sources: " + e.getMessage());
+				}
+			}
+		}
+
+		Launcher launcher = createLauncher(sourceFiles, classpath, complianceLevel);
+		launcher.buildModel();
+		CtModel model = launcher.getModel();
+		acquiredWarmModel = WarmSpoonModel.put(key, model, sourceFiles, classpath, warmModelMaxMemory * 1024L * 1024L);
+		if(acquiredWarmModel == null)
+		{
+			getLog().info("spoon model exceeds memory limit of warm models (" + warmModelMaxMemory + " MB) and is not kept");
+		}
+		report.setCount(GenerationReport.COUNT_SOURCES_PARSED, sourceFiles.size());
+		return model;
+	}
+
+	private Launcher createLauncher(Collection<File> inputResources, List<String> classpath, int complianceLevel)
+	{
+		Launcher launcher = new Launcher();
+
+		// sources generated by this plugin or other plugins are not part of model, so types might be unresolved even with complete classpath
+
+		launcher.getEnvironment().setNoClasspath(true);
+		launcher.getEnvironment().setCommentEnabled(spoonComments);
+		launcher.getEnvironment().setComplianceLevel(complianceLevel);
+		if(! classpath.isEmpty())
+		{
+			launcher.getEnvironment().setSourceClasspath(classpath.toArray(new String[classpath.size()]));
+		}
+		for(File inputResource : inputResources)
+		{
+			launcher.addInputResource(inputResource.getPath());
+		}
+		return launcher;
+	}
+
+	private CtModel buildPrefilteredModel(List<File> sourceRoots, SourceScope scope, List<String> classpath, int complianceLevel)
+	{
+		try
+		{
+			Set<File> requiredSourceFiles = scope.isUnrestricted() ? SourcePrefilter.findRequiredSourceFilesInDirectories(sourceRoots) : SourcePrefilter.findRequiredSourceFiles(scope.collectSourceFiles(sourceRoots));
+
+			Launcher launcher = createLauncher(requiredSourceFiles, classpath, complianceLevel);
+			launcher.buildModel();
+			CtModel model = launcher.getModel();
+
+			for(CtType<?> type : model.getAllTypes())
+			{
+				if(! (type instanceof CtClass))
+				{
+					continue;
+				}
+				if(! isSuperClassResolvable((CtClass<?>)type))
+				{
+					getLog().info("super class of " + type.getQualifiedName() + " not resolvable in prefiltered model, build model of all sources");
+					return null;
+				}
+			}
+
+			getLog().info("prefiltered spoon model contains " + requiredSourceFiles.size() + " source files");
+			return model;
+		}
+		catch (Exception e)
+		{
+			getLog().info("build prefiltered model failed, build model of all sources: " + e.getMessage());
+			return null;
+		}
+	}
+
+	private boolean isSuperClassResolvable(CtClass<?> javaClass)
+	{
+		CtTypeReference<?> superClass = javaClass.getSuperclass();
+		if(superClass == null)
+		{
+			return true;
+		}
+		try
+		{
+			return superClass.getTypeDeclaration() != null;
+		}
+		catch (Exception e)
+		{
+			return false;
+		}
+	}
+
+	private String getModelKey() throws Exception
+	{
+		StringBuilder keyBuilder = new StringBuilder(project.getBasedir().getCanonicalPath());
+
+		keyBuilder.append("|sources:");
+		for(File sourceRoot : getSourceRoots())
+		{
+			keyBuilder.append(sourceRoot.getCanonicalPath() + ";");
+		}
+
+		keyBuilder.append("|classpath:");
+		for(String classpathElement : getClasspath())
+		{
+			keyBuilder.append(classpathElement + ";");
+		}
+
+		SourceScope scope = getSourceScope();
+		if(! scope.isUnrestricted())
+		{
+			keyBuilder.append("|scope:" + scope);
+		}
+
+		keyBuilder.append("|compliance:" + getComplianceLevel(project));
+		if(spoonComments)
+		{
+			keyBuilder.append("|comments");
+		}
+
+		if(prefilterSources)
+		{
+			keyBuilder.append("|prefiltered");
+		}
+
+		return keyBuilder.toString();
+	}
+
+	private CtModel getReactorModel() throws Exception
+	{
+		MavenProject topLevelProject = session.getTopLevelProject();
+		List<MavenProject> reactorProjects = getReactorProjects();
+		if(! reactorProjects.contains(project))
+		{
+			return null;
+		}
+
+		// executions of parallel builds wait for model built by first execution
+
+		synchronized (REACTOR_MODEL_LOCK)
+		{
+			String key = getReactorModelKey(reactorProjects);
+			CtModel model = SharedSpoonModel.get(topLevelProject, SharedSpoonModel.REACTOR_CONTEXT_KEY, key);
+			if((model != null) && (! acquireSharedWarmModel(model)))
+			{
+				model = null;
+			}
+			boolean reused = model != null;
+			if(model == null)
+			{
+				getLog().info("build spoon model of reactor with " + reactorProjects.size() + " projects");
+
+				List<File> sourceRoots = new ArrayList<>();
+				Set<String> sourceRootPaths = new HashSet<>();
+				List<File> outputDirectories = new ArrayList<>();
+				int complianceLevel = 0;
+				for(MavenProject reactorProject : reactorProjects)
+				{
+					outputDirectories.add(new File(reactorProject.getBuild().getOutputDirectory()).getAbsoluteFile());
+					for(File sourceRoot : getSourceRoots(reactorProject))
+					{
+						sourceRoots.add(sourceRoot);
+						sourceRootPaths.add(sourceRoot.getPath());
+					}
+					complianceLevel = Math.max(complianceLevel, getComplianceLevel(reactorProject));
+				}
+
+				List<String> classpath = resolveReactorClasspath(reactorProjects);
+				model = buildModel(key + "|classpath:" + classpath, sourceRoots, classpath, outputDirectories, complianceLevel);
+
+				SharedSpoonModel.put(topLevelProject, SharedSpoonModel.REACTOR_CONTEXT_KEY, key, model);
+				topLevelProject.setContextValue(REACTOR_SOURCE_ROOTS_CONTEXT_KEY, sourceRootPaths);
+			}
+
+			// source roots added after model was built, e.g. by other plugins, are not part of model
+
+			Set<String> sourceRootPaths = getContextSet(topLevelProject, REACTOR_SOURCE_ROOTS_CONTEXT_KEY);
+			for(File sourceRoot : getSourceRoots())
+			{
+				if((sourceRootPaths == null) || (! sourceRootPaths.contains(sourceRoot.getPath())))
+				{
+					getLog().info("source root " + sourceRoot + " is not part of spoon model of reactor, build model of " + project.getBasedir());
+					return null;
+				}
+			}
+
+			if(reused)
+			{
+				getLog().info("reuse spoon model of reactor for " + project.getBasedir());
+			}
+			report.setCount(GenerationReport.COUNT_MODEL_REUSED, reused ? 1 : 0);
+			reactorModelInUse = true;
+			return model;
+		}
+	}
+
+	private List<MavenProject> getReactorProjects()
+	{
+		List<MavenProject> reactorProjects = new ArrayList<>();
+		for(MavenProject reactorProject : session.getProjects())
+		{
+			if(! "pom".equals(reactorProject.getPackaging()))
+			{
+				reactorProjects.add(reactorProject);
+			}
+		}
+		return reactorProjects;
+	}
+
+	/**
+	 * Resolves compile classpath of projects for reactor model. Projects of reactor are part of reactor model and are excluded, 
+	 * unresolvable dependencies are tolerated. Dependencies of projects, which are not executed yet, are not resolved by maven.
+	 *
+	 * @param projects projects to resolve dependencies of
+	 * @return compile classpath without projects of reactor
+	 * @throws Exception
+	 */
+	private List<String> resolveReactorClasspath(List<MavenProject> projects) throws Exception
+	{
+		Set<String> classpath = new LinkedHashSet<>();
+		if(skipSpoonClasspath)
+		{
+			return new ArrayList<>(classpath);
+		}
+
+		Set<String> reactorArtifacts = new HashSet<>();
+		for(MavenProject reactorProject : session.getProjects())
+		{
+			reactorArtifacts.add(reactorProject.getGroupId() + ":" + reactorProject.getArtifactId());
+		}
+		DependencyFilter filter = (DependencyNode node, List<DependencyNode> parents) ->
+		{
+			if(node.getDependency() == null)
+			{
+				return true;
+			}
+			return isCompileDependency(node.getDependency(), reactorArtifacts);
+		};
+
+		for(MavenProject resolvedProject : projects)
+		{
+			DefaultDependencyResolutionRequest request = new DefaultDependencyResolutionRequest(resolvedProject, session.getRepositorySession());
+			request.setResolutionFilter(filter);
+
+			DependencyResolutionResult result = null;
+			try
+			{
+				result = dependenciesResolver.resolve(request);
+			}
+			catch (DependencyResolutionException e) 
+			{
+				getLog().warn("resolve dependencies of " + resolvedProject.getId() + " for spoon model of reactor failed: " + e.getMessage());
+				result = e.getResult();
+			}
+			if(result == null)
+			{
+				continue;
+			}
+
+			for(org.eclipse.aether.graph.Dependency dependency : result.getDependencies())
+			{
+				if(! isCompileDependency(dependency, reactorArtifacts))
+				{
+					continue;
+				}
+				File file = dependency.getArtifact().getFile();
+				if((file != null) && file.exists())
+				{
+					classpath.add(file.getAbsolutePath());
+				}
+			}
+		}
+		return new ArrayList<>(classpath);
+	}
+
+	private static boolean isCompileDependency(org.eclipse.aether.graph.Dependency dependency, Set<String> reactorArtifacts)
+	{
+		if(reactorArtifacts.contains(dependency.getArtifact().getGroupId() + ":" + dependency.getArtifact().getArtifactId()))
+		{
+			return false;
+		}
+		String scope = dependency.getScope();
+		return scope.isEmpty() || "compile".equals(scope) || "provided".equals(scope) || "system".equals(scope);
+	}
+
+	private String getReactorModelKey(List<MavenProject> reactorProjects) throws Exception
+	{
+		StringBuilder keyBuilder = new StringBuilder("reactor");
+
+		keyBuilder.append("|projects:");
+		for(MavenProject reactorProject : reactorProjects)
+		{
+			keyBuilder.append(reactorProject.getBasedir().getCanonicalPath() + ";");
+		}
+
+		SourceScope scope = getSourceScope();
+		if(! scope.isUnrestricted())
+		{
+			keyBuilder.append("|scope:" + scope);
+		}
+
+		if(spoonComplianceLevel > 0)
+		{
+			keyBuilder.append("|compliance:" + spoonComplianceLevel);
+		}
+		if(spoonComments)
+		{
+			keyBuilder.append("|comments");
+		}
+		if(skipSpoonClasspath)
+		{
+			keyBuilder.append("|skipclasspath");
+		}
+
+		if(prefilterSources)
+		{
+			keyBuilder.append("|prefiltered");
+		}
+
+		return keyBuilder.toString();
+	}
+}
@@ -0,0 +1,365 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.maven;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Annotation processor backend of BOW generation. Generates BOWs and BOW factories during compilation from element model of javac
+ * and writes them by {@link javax.annotation.processing.Filer}, so sources are not parsed a second time by Spoon.
+ *
+ * <p>Generated sources are equal to sources generated by goal generate-branchnode-to-object-wrapper, which remains available as fallback.
+ * Do not use both in same module. Options:
+ *
+ * <ul>
+ * <li>{@code sodeac.bow.header} first line of generated files</li>
+ * <li>{@code sodeac.bow.sharedFieldTemplates} generate BOWs, which read node fields from shared field factory (default false)</li>
+ * </ul>
+ */
+@SupportedAnnotationTypes({"org.sodeac.common.annotation.GenerateBow", "org.sodeac.common.annotation.GenerateBowFactory", "org.sodeac.common.annotation.BowMethod"})
+@SupportedOptions({BowAnnotationProcessor.OPTION_HEADER, BowAnnotationProcessor.OPTION_SHARED_FIELD_TEMPLATES})
+public class BowAnnotationProcessor extends AbstractProcessor
+{
+	public static final String OPTION_HEADER = "sodeac.bow.header";
+	public static final String OPTION_SHARED_FIELD_TEMPLATES = "sodeac.bow.sharedFieldTemplates";
+
+	private static final String DEFAULT_HEADER = "// auto-generated code - do not edit this file";
+
+	private Map<String,TypeElement> sourceClassIndex = new HashMap<>();
+	private Set<String> generatedClassIndex = new HashSet<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion()
+	{
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+	{
+		if(roundEnv.processingOver())
+		{
+			return false;
+		}
+
+		String header = processingEnv.getOptions().get(OPTION_HEADER);
+		BowRenderer renderer = new BowRenderer(header == null ? DEFAULT_HEADER : header, Boolean.parseBoolean(processingEnv.getOptions().get(OPTION_SHARED_FIELD_TEMPLATES)));
+
+		// Scan BowFactories and Bows
+
+		List<TypeElement> bowFactoryList = new ArrayList<>();
+		List<TypeElement> annotatedBowList = new ArrayList<>();
+
+		for(TypeElement javaClass : ElementFilter.typesIn(roundEnv.getRootElements()))
+		{
+			if(javaClass.getKind() != ElementKind.CLASS)
+			{
+				continue;
+			}
+			sourceClassIndex.put(javaClass.getQualifiedName().toString(), javaClass);
+
+			for(AnnotationMirror annotation : javaClass.getAnnotationMirrors())
+			{
+				String annotationType = ((TypeElement)annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+				if("org.sodeac.common.annotation.GenerateBowFactory".equals(annotationType))
+				{
+					bowFactoryList.add(javaClass);
+				}
+				else if("org.sodeac.common.annotation.GenerateBow".equals(annotationType))
+				{
+					annotatedBowList.add(javaClass);
+				}
+			}
+		}
+
+		Collections.sort(bowFactoryList, (c1, c2) -> c1.getQualifiedName().toString().compareTo(c2.getQualifiedName().toString()));
+
+		for(TypeElement javaClass : bowFactoryList)
+		{
+			write(javaClass, BowRenderer.getBOWFactoryName(getSimpleClassName(javaClass)), () -> renderer.generateBowFactory(describeType(javaClass)));
+		}
+		for(TypeElement javaClass : resolveHierarchy(annotatedBowList))
+		{
+			write(javaClass, BowRenderer.getBOWName(getSimpleClassName(javaClass)), () -> renderer.generateBow(describeType(javaClass)));
+		}
+
+		return false;
+	}
+
+	/**
+	 * Resolves super classes of annotated classes, which need a BOW too, and returns generation plan.
+	 * Super classes are located in plan before their sub classes, classes of same depth are ordered by name.
+	 *
+	 * @param annotatedBowList classes annotated by GenerateBow
+	 * @return classes to generate BOWs for
+	 */
+	private List<TypeElement> resolveHierarchy(List<TypeElement> annotatedBowList)
+	{
+		Map<String,TypeElement> planClassIndex = new HashMap<>();
+		Map<String,String> superClassIndex = new HashMap<>();
+
+		LinkedList<TypeElement> workQueue = new LinkedList<>();
+		for(TypeElement javaClass : annotatedBowList)
+		{
+			if(planClassIndex.put(javaClass.getQualifiedName().toString(), javaClass) == null)
+			{
+				workQueue.add(javaClass);
+			}
+		}
+
+		while(! workQueue.isEmpty())
+		{
+			TypeElement javaClass = workQueue.removeFirst();
+			if(javaClass.getSuperclass().getKind() != TypeKind.DECLARED)
+			{
+				continue;
+			}
+			String superClassName = getQualifiedName(javaClass.getSuperclass());
+			if("org.sodeac.common.typedtree.BranchNodeMetaModel".equals(superClassName))
+			{
+				continue;
+			}
+			if("org.sodeac.common.typedtree.TypedTreeMetaModel".equals(superClassName))
+			{
+				continue;
+			}
+			TypeElement superClass = sourceClassIndex.get(superClassName);
+			if(superClass == null)
+			{
+				continue;
+			}
+
+			superClassIndex.put(javaClass.getQualifiedName().toString(), superClassName);
+			if(planClassIndex.put(superClassName, superClass) == null)
+			{
+				workQueue.add(superClass);
+			}
+		}
+
+		Map<String,Integer> depthIndex = new HashMap<>();
+		for(String className : planClassIndex.keySet())
+		{
+			int depth = 0;
+			for(String superClassName = superClassIndex.get(className); superClassName != null; superClassName = superClassIndex.get(superClassName))
+			{
+				depth++;
+			}
+			depthIndex.put(className, depth);
+		}
+
+		List<TypeElement> generationPlan = new ArrayList<>(planClassIndex.values());
+		Collections.sort(generationPlan, (c1, c2) ->
+		{
+			int compare = Integer.compare(depthIndex.get(c1.getQualifiedName().toString()), depthIndex.get(c2.getQualifiedName().toString()));
+			return compare != 0 ? compare : c1.getQualifiedName().toString().compareTo(c2.getQualifiedName().toString());
+		});
+		return generationPlan;
+	}
+
+	private void write(TypeElement javaClass, String generatedClassName, Supplier<String> sourceRenderer)
+	{
+		String generatedQualifiedName = getPackageName(javaClass) + "." + generatedClassName;
+
+		// super classes of BOWs are resolved again in later rounds and compilations with sub classes only
+
+		if(! generatedClassIndex.add(generatedQualifiedName))
+		{
+			return;
+		}
+
+		try
+		{
+			JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(generatedQualifiedName, javaClass);
+			try(Writer writer = sourceFile.openWriter())
+			{
+				writer.write(sourceRenderer.get());
+			}
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Generate " + generatedQualifiedName);
+		}
+		catch (IOException | RuntimeException e)
+		{
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "error generate " + generatedQualifiedName + ": " + e, javaClass);
+		}
+	}
+
+	private BowTypeDescriptor describeType(TypeElement javaClass)
+	{
+		BowTypeDescriptor descriptor = new BowTypeDescriptor(javaClass.getQualifiedName().toString(), getPackageName(javaClass), getQualifiedName(javaClass.getSuperclass()));
+		describeAnnotations(javaClass.getAnnotationMirrors(), descriptor.getAnnotations());
+
+		for(VariableElement field : ElementFilter.fieldsIn(javaClass.getEnclosedElements()))
+		{
+			descriptor.getFields().add(new BowTypeDescriptor.Field(field.getSimpleName().toString(), describeTypeReference(field.asType())));
+		}
+
+		for(ExecutableElement method : ElementFilter.methodsIn(javaClass.getEnclosedElements()))
+		{
+			BowTypeDescriptor.Method methodDescriptor = new BowTypeDescriptor.Method
+			(
+				method.getSimpleName().toString(), describeTypeReference(method.getReturnType()), method.getModifiers().contains(Modifier.STATIC),
+				method.getModifiers().contains(Modifier.PUBLIC), method.getModifiers().contains(Modifier.PROTECTED)
+			);
+			describeAnnotations(method.getAnnotationMirrors(), methodDescriptor.getAnnotations());
+
+			int index = 0;
+			for(VariableElement parameter : method.getParameters())
+			{
+				boolean varArgs = method.isVarArgs() && (++index == method.getParameters().size());
+				BowTypeDescriptor.Parameter parameterDescriptor = new BowTypeDescriptor.Parameter(parameter.getSimpleName().toString(), describeTypeReference(parameter.asType()), varArgs);
+				describeAnnotations(parameter.getAnnotationMirrors(), parameterDescriptor.getAnnotations());
+				methodDescriptor.getParameters().add(parameterDescriptor);
+			}
+
+			// thrown types in order of qualified names, like Spoon model
+
+			for(TypeMirror throwable : method.getThrownTypes())
+			{
+				methodDescriptor.getThrownTypes().add(describeTypeReference(throwable));
+			}
+			Collections.sort(methodDescriptor.getThrownTypes(), (t1, t2) -> t1.getQualifiedName().compareTo(t2.getQualifiedName()));
+
+			descriptor.getMethods().add(methodDescriptor);
+		}
+
+		return descriptor;
+	}
+
+	private BowTypeDescriptor.TypeReference describeTypeReference(TypeMirror type)
+	{
+		if(type.getKind() == TypeKind.DECLARED)
+		{
+			TypeElement typeElement = (TypeElement)((DeclaredType)type).asElement();
+
+			List<BowTypeDescriptor.TypeReference> typeArguments = new ArrayList<>();
+			StringBuilder source = new StringBuilder(typeElement.getQualifiedName().toString());
+			for(TypeMirror typeArgument : ((DeclaredType)type).getTypeArguments())
+			{
+				BowTypeDescriptor.TypeReference typeArgumentReference = describeTypeReference(typeArgument);
+				source.append(typeArguments.isEmpty() ? "<" : ", ");
+				source.append(typeArgumentReference.toString());
+				typeArguments.add(typeArgumentReference);
+			}
+			if(! typeArguments.isEmpty())
+			{
+				source.append(">");
+			}
+
+			BowTypeDescriptor.TypeReference reference = new BowTypeDescriptor.TypeReference
+			(
+				typeElement.getQualifiedName().toString(), typeElement.getSimpleName().toString(),
+				processingEnv.getElementUtils().getPackageOf(typeElement).getQualifiedName().toString(), source.toString()
+			);
+			reference.getActualTypeArguments().addAll(typeArguments);
+			return reference;
+		}
+		if(type.getKind() == TypeKind.WILDCARD)
+		{
+			WildcardType wildcardType = (WildcardType)type;
+			String source = "?";
+			if(wildcardType.getExtendsBound() != null)
+			{
+				source += " extends " + describeTypeReference(wildcardType.getExtendsBound()).toString();
+			}
+			else if(wildcardType.getSuperBound() != null)
+			{
+				source += " super " + describeTypeReference(wildcardType.getSuperBound()).toString();
+			}
+			return new BowTypeDescriptor.TypeReference("?", "?", null, source);
+		}
+		if(type.getKind() == TypeKind.ARRAY)
+		{
+			BowTypeDescriptor.TypeReference componentReference = describeTypeReference(((ArrayType)type).getComponentType());
+			return new BowTypeDescriptor.TypeReference
+			(
+				componentReference.getQualifiedName() + "[]", componentReference.getSimpleName() + "[]", componentReference.getPackageName(), componentReference.toString() + "[]"
+			);
+		}
+
+		// primitive types, void and type variables
+
+		return new BowTypeDescriptor.TypeReference(type.toString(), type.toString(), null, type.toString());
+	}
+
+	private void describeAnnotations(List<? extends AnnotationMirror> annotations, Map<String,Map<String,String>> descriptor)
+	{
+		for(AnnotationMirror annotation : annotations)
+		{
+			Map<String,String> values = new LinkedHashMap<>();
+			for(Entry<? extends ExecutableElement, ? extends AnnotationValue> valEntry : annotation.getElementValues().entrySet())
+			{
+				Object value = valEntry.getValue().getValue();
+				if(value instanceof String)
+				{
+					value = "\"" + value + "\"";
+				}
+				else if(value instanceof VariableElement)
+				{
+					value = ((TypeElement)((VariableElement)value).getEnclosingElement()).getQualifiedName() + "." + ((VariableElement)value).getSimpleName();
+				}
+				values.put(valEntry.getKey().getSimpleName().toString(), String.valueOf(value));
+			}
+			descriptor.put(((TypeElement)annotation.getAnnotationType().asElement()).getQualifiedName().toString(), values);
+		}
+	}
+
+	private String getQualifiedName(TypeMirror type)
+	{
+		if(type.getKind() != TypeKind.DECLARED)
+		{
+			return null;
+		}
+		return ((TypeElement)((DeclaredType)type).asElement()).getQualifiedName().toString();
+	}
+
+	private String getPackageName(TypeElement javaClass)
+	{
+		return processingEnv.getElementUtils().getPackageOf(javaClass).getQualifiedName().toString();
+	}
+
+	private String getSimpleClassName(TypeElement javaClass)
+	{
+		return javaClass.getQualifiedName().toString().substring(getPackageName(javaClass).length() + 1);
+	}
+
+}
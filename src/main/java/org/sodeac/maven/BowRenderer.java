@@ -0,0 +1,1117 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.maven;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Renders source code of BOWs and BOW factories. Used by {@link GenerateBranchNodeToObjectWrapperMojo} and {@link BowAnnotationProcessor}.
+ * 
+ * <p>The renderer does not depend on Spoon or maven api, so that it can be used during annotation processing.
+ */
+public class BowRenderer
+{
+	/**
+	 * Constructor of renderer.
+	 * 
+	 * @param header first line of generated files
+	 * @param sharedFieldTemplates generate BOWs, which read node fields from shared field factory
+	 */
+	public BowRenderer(String header, boolean sharedFieldTemplates)
+	{
+		super();
+		this.header = header;
+		this.sharedFieldTemplates = sharedFieldTemplates;
+	}
+	
+	private String header = null;
+	private boolean sharedFieldTemplates;
+	
+	/**
+	 * Renders BOW factory of tree model class.
+	 * 
+	 * @param javaClass tree model class annotated by GenerateBowFactory
+	 * @return source code of BOW factory
+	 */
+	public String generateBowFactory(BowTypeDescriptor javaClass)
+	{
+		String superClassName = javaClass.getSuperClassName();
+		String generatedPackageName = javaClass.getPackageName();
+		String generatedClassName = getBOWFactoryName(javaClass.getSimpleName());
+		
+		StringBuilder classBuilder = new StringBuilder(this.header + "\n");
+		
+		classBuilder.append("package " + generatedPackageName + ";\n");
+		classBuilder.append("\n");
+		if("org.sodeac.common.typedtree.TypedTreeMetaModel".equals(superClassName))
+		{
+			classBuilder.append("public class " + generatedClassName + "\n");
+		}
+		else
+		{
+			classBuilder.append("public class " + generatedClassName + " extends " + getBOWFactoryName(superClassName) + "\n");
+		}
+		
+		classBuilder.append("{\n");
+		classBuilder.append("\t\n");
+		
+		for(BowTypeDescriptor.Field field : javaClass.getFields())
+		{
+			if(!"org.sodeac.common.typedtree.BranchNodeType".equals(field.getType().getQualifiedName()))
+			{
+				continue;
+			}
+			
+			BowTypeDescriptor.TypeReference reference = field.getType();
+			if(reference.getActualTypeArguments().size() != 2)
+			{
+				continue;
+			}
+			
+			if(! reference.getActualTypeArguments().get(0).getQualifiedName().equals(javaClass.getQualifiedName()))
+			{
+				continue;
+			}
+			
+			BowTypeDescriptor.TypeReference ref = reference.getActualTypeArguments().get(1);
+			
+			String typeQualifiedName = ref.getQualifiedName();
+			String typeName = ref.getSimpleName();
+			String typePackage = ref.getPackageName();
+			
+			classBuilder.append("\tpublic static " + typePackage + "." + getBOWName(typeName) + "<?> create" + 
+			  ( field.getSimpleName().length() == 1 ? 
+					field.getSimpleName().toUpperCase() : 
+					field.getSimpleName().substring(0, 1).toUpperCase()  + field.getSimpleName().substring(1)
+			  ) + "()\n");
+			
+			classBuilder.append("\t{\n");
+			classBuilder.append("\t\treturn new "  + typePackage + "." + getBOWName(typeName) + "(org.sodeac.common.typedtree.ModelRegistry.getTypedTreeMetaModel(" + javaClass.getQualifiedName() + ".class).createRootNode(" + javaClass.getQualifiedName() + "." + field.getSimpleName() + "),null);\n");
+			classBuilder.append("\t}\n");
+			classBuilder.append("\t\n");
+			
+		}
+		
+		for(BowTypeDescriptor.Method method : javaClass.getMethods())
+		{
+			if(!method.isStatic())
+			{
+				continue;
+			}
+			if(!(method.isPublic() || method.isProtected()))
+			{
+				continue;
+			}
+			boolean isBowMethod = false;
+			for(Entry<String,Map<String,String>> annotation : method.getAnnotations().entrySet())
+			{
+				if("org.sodeac.common.annotation.BowMethod".equals(annotation.getKey()))
+				{
+					isBowMethod = true;
+					
+					break;
+				}
+			}
+			
+			if(! isBowMethod)
+			{
+				continue;
+			}
+			
+			classBuilder.append(generateBowMethod(javaClass, method, "\t", true));
+			
+		}
+		
+		classBuilder.append("}\n");
+		
+		return classBuilder.toString();
+	}
+	
+	/**
+	 * Renders BOW of branch node model class.
+	 * 
+	 * @param javaClass branch node model class
+	 * @return source code of BOW
+	 */
+	public String generateBow(BowTypeDescriptor javaClass)
+	{
+		String superClassName = javaClass.getSuperClassName();
+		
+		String className = javaClass.getQualifiedName().substring(javaClass.getPackageName().length() + 1);
+		String packageName = javaClass.getPackageName();
+		
+		String generatedPackageName = javaClass.getPackageName();
+		String generatedClassName = getBOWName(javaClass.getSimpleName());
+		
+		String typeName = generatedClassName.substring(0, generatedClassName.length() -3);
+		
+		String factoriesFieldName = "FIELD_FACORIES_" + generatedPackageName.replace('.', '_') + "__" + generatedClassName;
+		String instanceFactoryFieldName = "fieldFactory_" + generatedPackageName.replace('.', '_') + "__" + generatedClassName;
+		String lastFactoryFieldName = "LAST_FIELD_FACTORY_" + generatedPackageName.replace('.', '_') + "__" + generatedClassName;
+		String fieldFactoryClassName = generatedClassName + ".FieldFactory_" + generatedPackageName.replace('.', '_') + "__" + generatedClassName;
+		String nodeFieldPrefix = sharedFieldTemplates ? "this." + instanceFactoryFieldName + "._nodeField_" : "this._nodeField_";
+		
+		boolean beanLikeSetters = false;
+		boolean buildAlias = false;
+		boolean primitiveAccessors = false;
+		for(Entry<String,Map<String,String>> annotation : javaClass.getAnnotations().entrySet())
+		{
+			if("org.sodeac.common.annotation.GenerateBow".equals(annotation.getKey()))
+			{
+				for(Entry<String,String> valEntry : annotation.getValue().entrySet())
+				{
+					if("beanLikeSetters".equals(valEntry.getKey()))
+					{
+						try
+						{
+							beanLikeSetters = Boolean.parseBoolean(valEntry.getValue().trim());
+						}
+						catch (Exception e) {}
+					}
+					else if("buildAlias".equals(valEntry.getKey()))
+					{
+						try
+						{
+							buildAlias = Boolean.parseBoolean(valEntry.getValue().trim());
+						}
+						catch (Exception e) {}
+					}
+					else if("primitiveAccessors".equals(valEntry.getKey()))
+					{
+						try
+						{
+							primitiveAccessors = Boolean.parseBoolean(valEntry.getValue().trim());
+						}
+						catch (Exception e) {}
+					}
+					else if("name".equals(valEntry.getKey()))
+					{
+						try
+						{
+							if((valEntry.getValue() != null) && (valEntry.getValue() != null) && (! valEntry.getValue().isEmpty()) && (! valEntry.getValue().equals("\"\"")))
+							{
+								typeName = parseAnnotationString(valEntry.getValue());
+							}
+						}
+						catch (Exception e) {}
+					}
+				}
+			}
+		}
+		
+		StringBuilder classBuilder = new StringBuilder(this.header + "\n");
+		
+		classBuilder.append("package " + generatedPackageName + ";\n");
+		classBuilder.append("\n");
+		if("org.sodeac.common.typedtree.BranchNodeMetaModel".equals(superClassName))
+		{
+			classBuilder.append("public class " + generatedClassName + "<P extends org.sodeac.common.typedtree.BranchNodeToObjectWrapper> extends org.sodeac.common.typedtree.BranchNodeToObjectWrapper\n");
+		}
+		else
+		{
+			classBuilder.append("public class " + generatedClassName + "<P extends org.sodeac.common.typedtree.BranchNodeToObjectWrapper> extends " + getBOWName(superClassName) + "<P>\n");
+		}
+		
+		classBuilder.append("{\n");
+		classBuilder.append("\n");
+		classBuilder.append("\tpublic " + generatedClassName + "(org.sodeac.common.typedtree.BranchNode<?,? extends " + javaClass.getQualifiedName() + "> branchNode, org.sodeac.common.typedtree.BranchNodeToObjectWrapper parent)\n");
+		classBuilder.append("\t{\n");
+		classBuilder.append("\t\tsuper(branchNode, parent);\n");
+		
+		classBuilder.append("\t\t\n");
+		
+		if(sharedFieldTemplates)
+		{
+			// field factory of last used model class is resolved without map lookup
+			
+			classBuilder.append("\t\torg.sodeac.common.typedtree.BranchNodeMetaModel __model = super.getModel();\n");
+			classBuilder.append("\t\t" + fieldFactoryClassName + " __fieldFactory = " + generatedClassName + "." + lastFactoryFieldName + ";\n");
+			classBuilder.append("\t\tif((__fieldFactory == null) || (__fieldFactory.getModel().getClass() != __model.getClass()))\n");
+			classBuilder.append("\t\t{\n");
+			classBuilder.append("\t\t\t__fieldFactory = " + generatedClassName + "." + factoriesFieldName + ".computeIfAbsent(__model.getClass(), c -> new " + fieldFactoryClassName + "(__model));\n");
+			classBuilder.append("\t\t\t" + generatedClassName + "." + lastFactoryFieldName + " = __fieldFactory;\n");
+			classBuilder.append("\t\t}\n");
+			classBuilder.append("\t\tthis." + instanceFactoryFieldName + " = __fieldFactory;\n");
+		}
+		else
+		{
+			classBuilder.append("\t\tthis." + instanceFactoryFieldName + " = " + generatedClassName + "." + factoriesFieldName + ".get(super.getModel().getClass());\n");
+			classBuilder.append("\t\tif(this." + instanceFactoryFieldName + " == null)\n");
+			classBuilder.append("\t\t{\n");
+			classBuilder.append("\t\t\torg.sodeac.common.typedtree.BranchNodeMetaModel __model = super.getModel();\n");
+			classBuilder.append("\t\t\tthis." + instanceFactoryFieldName + " = " + generatedClassName + "." + factoriesFieldName + ".computeIfAbsent(__model.getClass(), c -> new " + fieldFactoryClassName + "(__model));\n");
+			classBuilder.append("\t\t}\n");
+		}
+		classBuilder.append("\t\t\n");
+		
+		List<BowTypeDescriptor.Field> definedFields = new ArrayList<BowTypeDescriptor.Field>(); 
+		for(BowTypeDescriptor.Field field : javaClass.getFields())
+		{
+			if
+			(!(
+				"org.sodeac.common.typedtree.BranchNodeListType".equals(field.getType().getQualifiedName()) ||
+		        "org.sodeac.common.typedtree.LeafNodeType".equals(field.getType().getQualifiedName()) ||
+		        "org.sodeac.common.typedtree.BranchNodeType".equals(field.getType().getQualifiedName())
+		        ))
+			{
+				continue;
+			}
+			
+			BowTypeDescriptor.TypeReference reference = field.getType();
+			if(reference.getActualTypeArguments().size() != 2)
+			{
+				continue;
+			}
+			
+			if(! reference.getActualTypeArguments().get(0).getQualifiedName().equals(javaClass.getQualifiedName()))
+			{
+				continue;
+			}
+			definedFields.add(field);
+		}
+		
+		int fieldIndex = 0;
+		
+		if(sharedFieldTemplates)
+		{
+			// node fields are read from shared field factory
+		}
+		else if(definedFields.size() < 2)
+		{
+			for(BowTypeDescriptor.Field field : definedFields)
+			{
+				classBuilder.append("\t\tthis._nodeField_" + field.getSimpleName() + " = this." + instanceFactoryFieldName + ".getNodeFieldTemplates()[" + fieldIndex++ + "];\n");
+			}
+		}
+		else
+		{
+			classBuilder.append("\t\tNodeField[] nodeFieldTemplates =  this." + instanceFactoryFieldName + ".getNodeFieldTemplates();\n");
+			for(BowTypeDescriptor.Field field : definedFields)
+			{
+				classBuilder.append("\t\tthis._nodeField_" + field.getSimpleName() + " = nodeFieldTemplates[" + fieldIndex++ + "];\n");
+			}
+		}
+		classBuilder.append("\t\n");
+		
+		classBuilder.append("\t}\n");
+		
+		classBuilder.append("\n");
+		
+		classBuilder.append("\tprivate static final java.util.concurrent.ConcurrentMap<java.lang.Class," + generatedClassName + ".FieldFactory_" + generatedPackageName.replace('.', '_') + "__" + generatedClassName + "> " + factoriesFieldName +" = new java.util.concurrent.ConcurrentHashMap<>();\n");
+		if(sharedFieldTemplates)
+		{
+			classBuilder.append("\tprivate static volatile " + fieldFactoryClassName + " " + lastFactoryFieldName + " = null;\n");
+		}
+		//classBuilder.append("\tprivate static final java.lang.Class<" + javaClass.getQualifiedName() + "> CLASS_" + packageName.replace('.', '_') + "__" + className + " = " + javaClass.getQualifiedName() + ".class;\n");
+		
+		classBuilder.append("\n");
+		classBuilder.append("\tprivate " + generatedClassName + ".FieldFactory_" + generatedPackageName.replace('.', '_') + "__" + generatedClassName + " " + instanceFactoryFieldName + " = null;\n");
+		
+		classBuilder.append("\n");
+		
+		for(BowTypeDescriptor.Field field : sharedFieldTemplates ? Collections.<BowTypeDescriptor.Field>emptyList() : definedFields)
+		{
+			classBuilder.append("\tprivate NodeField _nodeField_" + field.getSimpleName() + " = null;\n");
+		}
+		
+		classBuilder.append("\n");
+		
+		classBuilder.append("\tpublic P getParent()\n");
+		classBuilder.append("\t{\n");
+		classBuilder.append("\t\treturn (P)super.__parent;\n");
+		classBuilder.append("\t}\n");
+		
+		if(buildAlias)
+		{
+			classBuilder.append("\n");
+			
+			classBuilder.append("\tpublic P build()\n");
+			classBuilder.append("\t{\n");
+			classBuilder.append("\t\treturn (P)super.__parent;\n");
+			classBuilder.append("\t}\n");
+		}
+		
+		classBuilder.append("\t\n");
+		
+		classBuilder.append("\tprotected void dispose()\n");
+		classBuilder.append("\t{\n");
+		classBuilder.append("\t\tsuper.dispose();\n");
+		classBuilder.append("\t\tthis." + instanceFactoryFieldName + " = null;\n");
+		for(BowTypeDescriptor.Field field : sharedFieldTemplates ? Collections.<BowTypeDescriptor.Field>emptyList() : definedFields)
+		{
+			classBuilder.append("\t\tthis._nodeField_" + field.getSimpleName() + " = null;\n");
+		}
+		classBuilder.append("\t}\n");
+		
+		classBuilder.append("\t\n");
+		
+		StringBuilder bowFactoryPart = new StringBuilder();
+		bowFactoryPart.append("\tprotected void defineNestedBowFactories(java.util.Map<String,java.util.function.BiFunction<org.sodeac.common.typedtree.BranchNode, org.sodeac.common.typedtree.BranchNodeToObjectWrapper, org.sodeac.common.typedtree.BranchNodeToObjectWrapper>> factories)\n");
+		bowFactoryPart.append("\t{\n");
+		
+		for(BowTypeDescriptor.Field field : definedFields)
+		{
+			BowTypeDescriptor.TypeReference reference = field.getType();
+			if("org.sodeac.common.typedtree.LeafNodeType".equals(field.getType().getQualifiedName()))
+			{
+				BowTypeDescriptor.TypeReference ref = reference.getActualTypeArguments().get(1);
+				String typeQualifiedName = ref.getQualifiedName();
+				
+				classBuilder.append("\tpublic " + typeQualifiedName + " " + ("java.lang.Boolean".equals(typeQualifiedName) ? "is" : "get") 
+						+ ( field.getSimpleName().length() == 1 ? 
+								field.getSimpleName().toUpperCase() : 
+								field.getSimpleName().substring(0, 1).toUpperCase()  + field.getSimpleName().substring(1)
+						  ) + 
+						"()\n");
+				classBuilder.append("\t{\n");
+				classBuilder.append("\t\treturn (" + typeQualifiedName + ") super.getLeafNodeValue(" + nodeFieldPrefix + field.getSimpleName() + ");\n");
+				classBuilder.append("\t}\n");
+				
+				classBuilder.append("\t\n");
+				
+				classBuilder.append("\tpublic " + (beanLikeSetters ?  "void" : (generatedClassName + "<P>") ) + " set" 
+						+ ( field.getSimpleName().length() == 1 ? 
+								field.getSimpleName().toUpperCase() : 
+								field.getSimpleName().substring(0, 1).toUpperCase()  + field.getSimpleName().substring(1)
+						  ) + 
+						"(" + typeQualifiedName + " " + field.getSimpleName() + ")\n");
+				classBuilder.append("\t{\n");
+				classBuilder.append("\t\tsuper.setLeafNodeValue(" + nodeFieldPrefix + field.getSimpleName() + ", " + field.getSimpleName() + ");\n");
+				if(! beanLikeSetters)
+				{
+					classBuilder.append("\t\treturn this;\n");
+				}
+				classBuilder.append("\t}\n");
+				
+				classBuilder.append("\t\n");
+				
+				String primitiveType = getPrimitiveType(typeQualifiedName);
+				if(primitiveAccessors && (primitiveType != null))
+				{
+					// primitive accessors: getter without parameter returns default value of primitive type, if leaf node value is null
+					
+					String getterName = ("java.lang.Boolean".equals(typeQualifiedName) ? "is" : "get") 
+							+ ( field.getSimpleName().length() == 1 ? 
+									field.getSimpleName().toUpperCase() : 
+									field.getSimpleName().substring(0, 1).toUpperCase()  + field.getSimpleName().substring(1)
+							  ) + 
+							"As" + primitiveType.substring(0, 1).toUpperCase() + primitiveType.substring(1);
+					
+					classBuilder.append("\tpublic " + primitiveType + " " + getterName + "()\n");
+					classBuilder.append("\t{\n");
+					classBuilder.append("\t\treturn " + getterName + "(" + getPrimitiveDefaultValue(primitiveType) + ");\n");
+					classBuilder.append("\t}\n");
+					
+					classBuilder.append("\t\n");
+					
+					classBuilder.append("\tpublic " + primitiveType + " " + getterName + "(" + primitiveType + " defaultValue)\n");
+					classBuilder.append("\t{\n");
+					classBuilder.append("\t\t" + typeQualifiedName + " value = (" + typeQualifiedName + ") super.getLeafNodeValue(" + nodeFieldPrefix + field.getSimpleName() + ");\n");
+					classBuilder.append("\t\treturn value == null ? defaultValue : value." + primitiveType + "Value();\n");
+					classBuilder.append("\t}\n");
+					
+					classBuilder.append("\t\n");
+					
+					classBuilder.append("\tpublic " + (beanLikeSetters ?  "void" : (generatedClassName + "<P>") ) + " set" 
+							+ ( field.getSimpleName().length() == 1 ? 
+									field.getSimpleName().toUpperCase() : 
+									field.getSimpleName().substring(0, 1).toUpperCase()  + field.getSimpleName().substring(1)
+							  ) + 
+							"(" + primitiveType + " " + field.getSimpleName() + ")\n");
+					classBuilder.append("\t{\n");
+					classBuilder.append("\t\tsuper.setLeafNodeValue(" + nodeFieldPrefix + field.getSimpleName() + ", " + typeQualifiedName + ".valueOf(" + field.getSimpleName() + "));\n");
+					if(! beanLikeSetters)
+					{
+						classBuilder.append("\t\treturn this;\n");
+					}
+					classBuilder.append("\t}\n");
+					
+					classBuilder.append("\t\n");
+				}
+			}
+			else if("org.sodeac.common.typedtree.BranchNodeType".equals(field.getType().getQualifiedName()))
+			{
+				BowTypeDescriptor.TypeReference ref = reference.getActualTypeArguments().get(1);
+				String typeQualifiedName = ref.getQualifiedName();
+				
+				classBuilder.append("\tpublic " + getBOWName(typeQualifiedName) + "<" + getBOWName(javaClass.getQualifiedName()) + "<P>> get" 
+						+ ( field.getSimpleName().length() == 1 ? 
+								field.getSimpleName().toUpperCase() : 
+								field.getSimpleName().substring(0, 1).toUpperCase()  + field.getSimpleName().substring(1)
+						  ) + 
+						"()\n");
+				classBuilder.append("\t{\n");
+				classBuilder.append("\t\torg.sodeac.common.typedtree.BranchNode wrapped = super.getBranchNode(" + nodeFieldPrefix + field.getSimpleName() + ");\n");
+				classBuilder.append("\t\tif(wrapped == null)\n");
+				classBuilder.append("\t\t{\n");
+				classBuilder.append("\t\t\treturn null;\n");
+				classBuilder.append("\t\t}\n");
+				classBuilder.append("\t\treturn (" + getBOWName(typeQualifiedName) + ") wrapped.getBow();\n");
+				classBuilder.append("\t}\n");
+				
+				classBuilder.append("\t\n");
+				
+				classBuilder.append("\tpublic " + getBOWName(typeQualifiedName) + "<" + getBOWName(javaClass.getQualifiedName()) + "<P>> create" 
+						+ ( field.getSimpleName().length() == 1 ? 
+								field.getSimpleName().toUpperCase() : 
+								field.getSimpleName().substring(0, 1).toUpperCase()  + field.getSimpleName().substring(1)
+						  ) + 
+						"()\n");
+				classBuilder.append("\t{\n");
+				classBuilder.append("\t\treturn (" + getBOWName(typeQualifiedName) + ") super.createBranchNode(" + nodeFieldPrefix + field.getSimpleName() + ").getBow();\n");
+				classBuilder.append("\t}\n");
+				
+				classBuilder.append("\t\n");
+			}
+			else if("org.sodeac.common.typedtree.BranchNodeListType".equals(field.getType().getQualifiedName()))
+			{
+				BowTypeDescriptor.TypeReference ref = reference.getActualTypeArguments().get(1);
+				String typeQualifiedName = ref.getQualifiedName();
+				
+				classBuilder.append("\tpublic " + getBOWName(typeQualifiedName) + "<" + getBOWName(javaClass.getQualifiedName()) + "<P>> createOneOf" 
+						+ ( field.getSimpleName().length() == 1 ? 
+								field.getSimpleName().toUpperCase() : 
+								field.getSimpleName().substring(0, 1).toUpperCase()  + field.getSimpleName().substring(1)
+						  ) + 
+						"()\n");
+				classBuilder.append("\t{\n");
+				classBuilder.append("\t\treturn (" + getBOWName(typeQualifiedName) + ") super.createBranchNodeItem(" + nodeFieldPrefix + field.getSimpleName() + ").getBow();\n");
+				classBuilder.append("\t}\n");
+				
+				classBuilder.append("\t\n");
+				
+				classBuilder.append("\tpublic boolean removeFrom" 
+						+ ( field.getSimpleName().length() == 1 ? 
+								field.getSimpleName().toUpperCase() : 
+								field.getSimpleName().substring(0, 1).toUpperCase()  + field.getSimpleName().substring(1)
+						  ) + 
+						"("+ getBOWName(typeQualifiedName) + "<" + getBOWName(javaClass.getQualifiedName()) +"<P>> nestedBow)\n");
+				classBuilder.append("\t{\n");
+				classBuilder.append("\t\treturn super.removeBranchNodeItem(" + nodeFieldPrefix + field.getSimpleName() + ", nestedBow);\n");
+				classBuilder.append("\t}\n");
+				
+				classBuilder.append("\t\n");
+				
+				classBuilder.append("\tpublic java.util.List<"+ getBOWName(typeQualifiedName) + "<" + getBOWName(javaClass.getQualifiedName()) + "<P>>> getUnmodifiableListOf" 
+						+ ( field.getSimpleName().length() == 1 ? 
+								field.getSimpleName().toUpperCase() : 
+								field.getSimpleName().substring(0, 1).toUpperCase()  + field.getSimpleName().substring(1)
+						  ) + 
+						"()\n");
+				classBuilder.append("\t{\n");
+				classBuilder.append("\t\treturn (java.util.List)super.getBowList(" + nodeFieldPrefix + field.getSimpleName() + ");\n");
+				classBuilder.append("\t}\n");
+				
+				classBuilder.append("\t\n");
+				
+				classBuilder.append("\tpublic java.util.stream.Stream<"+ getBOWName(typeQualifiedName) + "<" + getBOWName(javaClass.getQualifiedName()) + "<P>>> getStreamOf" 
+						+ ( field.getSimpleName().length() == 1 ? 
+								field.getSimpleName().toUpperCase() : 
+								field.getSimpleName().substring(0, 1).toUpperCase()  + field.getSimpleName().substring(1)
+						  ) + 
+						"()\n");
+				classBuilder.append("\t{\n");
+				classBuilder.append("\t\treturn (java.util.stream.Stream)super.getBowStream(" + nodeFieldPrefix + field.getSimpleName() + ");\n");
+				classBuilder.append("\t}\n");
+				
+				classBuilder.append("\t\n");
+			}
+			
+			if("org.sodeac.common.typedtree.BranchNodeType".equals(field.getType().getQualifiedName()) || "org.sodeac.common.typedtree.BranchNodeListType".equals(field.getType().getQualifiedName()))
+			{
+				BowTypeDescriptor.TypeReference ref = reference.getActualTypeArguments().get(1);
+				String typeQualifiedName = ref.getQualifiedName();
+				
+				bowFactoryPart.append("\t\tfactories.put(\"" + field.getSimpleName() + "\", (n,p) -> new  " + getBOWName(typeQualifiedName) + "(n, p));\n");
+			}
+		}
+		
+		bowFactoryPart.append("\t}\n");
+		
+		classBuilder.append("\t\n");
+		
+		for(BowTypeDescriptor.Method method : javaClass.getMethods())
+		{
+			if(!method.isStatic())
+			{
+				continue;
+			}
+			if(!(method.isPublic() || method.isProtected()))
+			{
+				continue;
+			}
+			boolean isBowMethod = false;
+			for(Entry<String,Map<String,String>> annotation : method.getAnnotations().entrySet())
+			{
+				if("org.sodeac.common.annotation.BowMethod".equals(annotation.getKey()))
+				{
+					isBowMethod = true;
+					
+					break;
+				}
+			}
+			
+			if(! isBowMethod)
+			{
+				continue;
+			}
+			
+			classBuilder.append(generateBowMethod(javaClass, method, "\t", false));
+			
+			classBuilder.append("\t\n");
+			
+		}
+		
+		classBuilder.append("\t\n");
+		classBuilder.append("\tprotected org.sodeac.common.typedtree.BranchNodeToObjectWrapper createNestedBow(int nodeTypeIndex, org.sodeac.common.typedtree.INodeType nodeType, org.sodeac.common.typedtree.BranchNode branchNode)\n");
+		classBuilder.append("\t{\n");
+		classBuilder.append("\t\tif(branchNode.getParentNode().getBow() != this)\n");
+		classBuilder.append("\t\t{\n");
+		classBuilder.append("\t\t\tthrow new java.lang.IllegalStateException(\"parent bow is wrong\");\n");
+		classBuilder.append("\t\t}\n");
+		classBuilder.append("\t\torg.sodeac.common.typedtree.BranchNodeToObjectWrapper newstedBow = this." + instanceFactoryFieldName + ".createNestedBow(nodeTypeIndex, nodeType, branchNode);\n");
+		classBuilder.append("\t\tif(newstedBow == null)\n");
+		classBuilder.append("\t\t{\n");
+		classBuilder.append("\t\t\treturn super.createNestedBow(nodeTypeIndex, nodeType, branchNode);\n");
+		classBuilder.append("\t\t}\n");
+		classBuilder.append("\t\treturn newstedBow;\n");
+		classBuilder.append("\t}\n");
+		
+		classBuilder.append("\t\n");
+		
+		if(! "org.sodeac.common.typedtree.BranchNodeMetaModel".equals(superClassName))
+		{
+			classBuilder.append("\tpublic " + getBOWName(javaClass.getQualifiedName()) + "<" + getBOWName(javaClass.getQualifiedName()) + "<P>> backupType" + typeName.substring(0, 1).toUpperCase()  + typeName.substring(1) + "()\n");
+			classBuilder.append("\t{\n");
+			classBuilder.append("\t\treturn (" + getBOWName(javaClass.getQualifiedName()) + ") this;\n");
+			classBuilder.append("\t}\n");
+		}
+		
+		classBuilder.append("\tpublic P restoreType()\n");
+		classBuilder.append("\t{\n");
+		classBuilder.append("\t\treturn (P)this;\n");
+		classBuilder.append("\t}\n");
+		
+		classBuilder.append("\t\n");
+		
+		classBuilder.append("\tpublic " + generatedClassName + "<P> copyFrom(" + generatedClassName + "<?> bow)\n");
+		classBuilder.append("\t{\n");
+		classBuilder.append("\t\tsuper.getWrappedBranchNode().copyFrom(bow.getWrappedBranchNode());\n");
+		classBuilder.append("\t\treturn this;\n");
+		classBuilder.append("\t}\n");
+		
+		classBuilder.append("\t\n");
+		
+		/*classBuilder.append("\tpublic " + generatedClassName + "<P> applyToConsumer(java.util.function.Consumer<" + generatedClassName + "<?>> consumer)\n");
+		classBuilder.append("\t{\n");
+		classBuilder.append("\t\tconsumer.accept(this);\n");
+		classBuilder.append("\t\treturn this;\n");
+		classBuilder.append("\t}\n");
+		
+		classBuilder.append("\t\n");*/
+		
+		classBuilder.append("\tprivate static class FieldFactory_" + generatedPackageName.replace('.', '_') + "__" + generatedClassName + " \n");
+		classBuilder.append("\t{\n");
+		classBuilder.append("\t\tprivate FieldFactory_" + generatedPackageName.replace('.', '_') + "__" + generatedClassName + "(org.sodeac.common.typedtree.BranchNodeMetaModel model)\n");
+		classBuilder.append("\t\t{\n");
+		classBuilder.append("\t\t\tsuper();\n");
+		classBuilder.append("\t\t\tthis.model = model;\n");
+		classBuilder.append("\t\t\tthis.nodeFieldTemplates = new NodeField[" + definedFields.size() + "];\n");
+		classBuilder.append("\t\t\t\n");
+		
+		int index = 0;
+		for(BowTypeDescriptor.Field field : definedFields)
+		{
+			classBuilder.append("\t\t\tthis.nodeFieldTemplates[" + index++ +"] = new NodeField(model.getNodeTypeIndexByClass().get("+ javaClass.getQualifiedName() + "." + field.getSimpleName() +")," + javaClass.getQualifiedName() + "." + field.getSimpleName() + ");\n");
+		}
+		
+		if(sharedFieldTemplates)
+		{
+			classBuilder.append("\t\t\t\n");
+			index = 0;
+			for(BowTypeDescriptor.Field field : definedFields)
+			{
+				classBuilder.append("\t\t\tthis._nodeField_" + field.getSimpleName() + " = this.nodeFieldTemplates[" + index++ + "];\n");
+			}
+		}
+		
+		classBuilder.append("\t\t\t\n");
+		
+		// dispatch table: node type index of model => case of nested bow, 0 for node types without nested bow
+		
+		classBuilder.append("\t\t\tthis.nestedBowDispatchTable = new int[model.getNodeTypeList().size()];\n");
+		
+		StringBuilder dispatchBuilder = new StringBuilder();
+		int dispatchCase = 0;
+		index = 0;
+		for(BowTypeDescriptor.Field field : definedFields)
+		{
+			int i = index++;
+			BowTypeDescriptor.TypeReference reference = field.getType();
+			if("org.sodeac.common.typedtree.LeafNodeType".equals(field.getType().getQualifiedName()))
+			{
+				continue;
+			}
+			BowTypeDescriptor.TypeReference ref = reference.getActualTypeArguments().get(1);
+			String typeQualifiedName = ref.getQualifiedName();
+			dispatchCase++;
+			
+			classBuilder.append("\t\t\tthis.nestedBowDispatchTable[this.nodeFieldTemplates[" + i + "].getNodeTypeIndex()] = " + dispatchCase + ";\n");
+			
+			dispatchBuilder.append("\t\t\t\tcase " + dispatchCase + ":\n");
+			dispatchBuilder.append("\t\t\t\t\tif(nodeType != " + javaClass.getQualifiedName() + "." + field.getSimpleName() + ")\n");
+			dispatchBuilder.append("\t\t\t\t\t{\n");
+			dispatchBuilder.append("\t\t\t\t\t\tthrow new java.lang.IllegalStateException(\"index of nested bean is wrong\");\n");
+			dispatchBuilder.append("\t\t\t\t\t}\n");
+			dispatchBuilder.append("\t\t\t\t\treturn new " + getBOWName(typeQualifiedName) + "(branchNode, branchNode.getParentNode().getBow());\n");
+		}
+		classBuilder.append("\t\t\t\n");
+		
+		classBuilder.append("\t\t}\n");
+		
+		classBuilder.append("\t\t\n");
+		classBuilder.append("\t\tprivate org.sodeac.common.typedtree.BranchNodeMetaModel model = null;\n");
+		classBuilder.append("\t\tprivate NodeField[] nodeFieldTemplates = null;\n");
+		classBuilder.append("\t\tprivate int[] nestedBowDispatchTable = null;\n");
+		for(BowTypeDescriptor.Field field : sharedFieldTemplates ? definedFields : Collections.<BowTypeDescriptor.Field>emptyList())
+		{
+			classBuilder.append("\t\tprivate final NodeField _nodeField_" + field.getSimpleName() + ";\n");
+		}
+		classBuilder.append("\t\t\n");
+		classBuilder.append("\t\n");
+		classBuilder.append("\t\tprivate org.sodeac.common.typedtree.BranchNodeToObjectWrapper createNestedBow(int nodeTypeIndex, org.sodeac.common.typedtree.INodeType nodeType, org.sodeac.common.typedtree.BranchNode branchNode)\n");
+		classBuilder.append("\t\t{\n");
+		if(dispatchCase == 0)
+		{
+			classBuilder.append("\t\t\treturn null;\n");
+		}
+		else
+		{
+			classBuilder.append("\t\t\tint dispatchCase = this.nestedBowDispatchTable[nodeTypeIndex];\n");
+			classBuilder.append("\t\t\tif(dispatchCase == 0)\n");
+			classBuilder.append("\t\t\t{\n");
+			classBuilder.append("\t\t\t\treturn null;\n");
+			classBuilder.append("\t\t\t}\n");
+			classBuilder.append("\t\t\tif(branchNode.getNodeType() != nodeType)\n");
+			classBuilder.append("\t\t\t{\n");
+			classBuilder.append("\t\t\t\tthrow new java.lang.IllegalStateException(\"mismatch between nodetype and node\");\n");
+			classBuilder.append("\t\t\t}\n");
+			classBuilder.append("\t\t\tswitch (dispatchCase)\n");
+			classBuilder.append("\t\t\t{\n");
+			classBuilder.append(dispatchBuilder);
+			classBuilder.append("\t\t\t\tdefault:\n");
+			classBuilder.append("\t\t\t\t\treturn null;\n");
+			classBuilder.append("\t\t\t}\n");
+		}
+		classBuilder.append("\t\t}\n");
+		classBuilder.append("\t\n");
+		classBuilder.append("\t\tprivate org.sodeac.common.typedtree.BranchNodeMetaModel getModel()\n");
+		classBuilder.append("\t\t{\n");
+		classBuilder.append("\t\t\treturn model;\n");
+		classBuilder.append("\t\t}\n");
+		classBuilder.append("\t\t\n");
+		classBuilder.append("\t\tprivate NodeField[] getNodeFieldTemplates()\n");
+		classBuilder.append("\t\t{\n");
+		classBuilder.append("\t\t\treturn nodeFieldTemplates;\n");
+		classBuilder.append("\t\t}\n");
+		classBuilder.append("\t\t\n");
+		classBuilder.append("\t}\n");
+		classBuilder.append("}\n");
+		
+		return classBuilder.toString();
+	}
+	
+	public static String getBOWName(String className)
+	{
+		if(className.endsWith("NodeType") && className.length() > "NodeType".length())
+		{
+			return className.substring(0, className.length() - "NodeType".length()) + "Bow";
+		}
+		if(className.endsWith("Type") && className.length() > "Type".length())
+		{
+			return className.substring(0, className.length() - "Type".length()) + "Bow";
+		}
+		return className + "Bow";
+	}
+	
+	private static String getPrimitiveType(String className)
+	{
+		switch (className)
+		{
+			case "java.lang.Boolean": return "boolean";
+			case "java.lang.Byte": return "byte";
+			case "java.lang.Character": return "char";
+			case "java.lang.Short": return "short";
+			case "java.lang.Integer": return "int";
+			case "java.lang.Long": return "long";
+			case "java.lang.Float": return "float";
+			case "java.lang.Double": return "double";
+			default: return null;
+		}
+	}
+	
+	private static String getPrimitiveDefaultValue(String primitiveType)
+	{
+		switch (primitiveType)
+		{
+			case "boolean": return "false";
+			case "char": return "'\\0'";
+			case "float": return "0f";
+			case "double": return "0d";
+			case "long": return "0L";
+			case "byte": return "(byte)0";
+			case "short": return "(short)0";
+			default: return "0";
+		}
+	}
+	
+	public static String getBOWFactoryName(String className)
+	{
+		if(className.endsWith("TreeMetaModel") && className.length() > "TreeMetaModel".length())
+		{
+			return className.substring(0, className.length() - "TreeMetaModel".length()) + "BowFactory";
+		}
+		if(className.endsWith("MetaModel") && className.length() > "MetaModel".length())
+		{
+			return className.substring(0, className.length() - "MetaModel".length()) + "BowFactory";
+		}
+		if(className.endsWith("TreeModel") && className.length() > "TreeModel".length())
+		{
+			return className.substring(0, className.length() - "TreeModel".length()) + "BowFactory";
+		}
+		if(className.endsWith("Model") && className.length() > "Model".length())
+		{
+			return className.substring(0, className.length() - "Model".length()) + "BowFactory";
+		}
+		return className + "BowFactory";
+	}
+	
+	private static String parseAnnotationString(String value)
+	{
+		if(value == null)
+		{
+			return value;
+		}
+		if(value.isEmpty())
+		{
+			return value;
+		}
+		value = value.trim();
+		if((value.length() >= 2) && value.startsWith("\"") && value.endsWith("\""))
+		{
+			return value.substring(1, value.length() -1);
+		}
+		return value;
+	}
+	
+	private String generateBowMethod(BowTypeDescriptor javaClass, BowTypeDescriptor.Method method, String rowPrefix, boolean isFactory)
+	{
+		boolean keepStatic = isFactory;
+		boolean convertReturnValueToBow = false;
+		boolean createBowFromReturnValue = false;
+		boolean returnSelf = false;
+		boolean undefinedParentType = isFactory;
+		boolean nestedBow = false;
+		
+		String returnValueExpression = method.getType().toString();
+		String methodeName = method.getSimpleName();
+		
+		
+		StringBuilder functionBuilder = new StringBuilder();
+		for(Entry<String,Map<String,String>> annotation : method.getAnnotations().entrySet())
+		{
+			if("org.sodeac.common.annotation.BowMethod".equals(annotation.getKey()))
+			{
+				
+				for(Entry<String,String> valEntry : annotation.getValue().entrySet())
+				{
+					if("convertReturnValueToBow".equals(valEntry.getKey()))
+					{
+						try
+						{
+							convertReturnValueToBow = Boolean.parseBoolean(valEntry.getValue().trim());
+						}
+						catch (Exception e) {}
+					}
+					else if ("createBowFromReturnValue".equals(valEntry.getKey()))
+					{
+						try
+						{
+							createBowFromReturnValue = Boolean.parseBoolean(valEntry.getValue().trim());
+						}
+						catch (Exception e) {}
+					}
+					else if("keepStatic".equals(valEntry.getKey()))
+					{
+						try
+						{
+							keepStatic = Boolean.parseBoolean(valEntry.getValue().trim());
+						}
+						catch (Exception e) {}
+					}
+					else if("name".equals(valEntry.getKey()))
+					{
+						try
+						{
+							methodeName = parseAnnotationString(valEntry.getValue());
+						}
+						catch (Exception e) {}
+					}
+					else if("returnBowMode".equals(valEntry.getKey()))
+					{
+						try
+						{
+							if("org.sodeac.common.annotation.BowMethod.ReturnBowMode.DEFAULT".equals(valEntry.getValue()))
+							{
+								
+							}
+							else if("org.sodeac.common.annotation.BowMethod.ReturnBowMode.SELF".equals(valEntry.getValue()))
+							{
+								returnSelf = true;
+							}
+							else if("org.sodeac.common.annotation.BowMethod.ReturnBowMode.UNDEFINED_PARENT_TYPE".equals(valEntry.getValue()))
+							{
+								undefinedParentType = true;
+							}
+							else if("org.sodeac.common.annotation.BowMethod.ReturnBowMode.NESTED_BOW".equals(valEntry.getValue()))
+							{
+								nestedBow = true;
+							}
+						}
+						catch (Exception e) {}
+					}
+				}
+			}
+		}
+		
+		if(convertReturnValueToBow)
+		{
+			returnValueExpression = returnSelf ? getBOWName(javaClass.getQualifiedName()) + "<P>" : branchNodeToBow(method.getType(), nestedBow, undefinedParentType, false);
+		}
+		
+		List<String> parameterExpressions = new ArrayList<>();
+		List<String> invokeParameterNames = new ArrayList<>();
+		List<String> thrownExpressions = new ArrayList<>();
+		
+		StringBuilder parameterConverts = new StringBuilder();
+		
+		int index = 0;
+		for(BowTypeDescriptor.Parameter parameter : method.getParameters())
+		{
+			try
+			{
+				boolean self = false;
+				boolean convertToBow = false;
+				String parameterName = parameter.getSimpleName();
+				
+				boolean automaticConsumerNewBowByReturnType = false;
+				
+				for(Entry<String,Map<String,String>> fieldAnnotation : parameter.getAnnotations().entrySet())
+				{
+					if("org.sodeac.common.annotation.BowParameter".equals(fieldAnnotation.getKey()))
+					{
+						for(Entry<String,String> valEntry : fieldAnnotation.getValue().entrySet())
+						{
+							if("self".equals(valEntry.getKey()))
+							{
+								try
+								{
+									self = Boolean.parseBoolean(valEntry.getValue().trim());
+								}
+								catch (Exception e) {}
+							}
+							else if("convertToBow".equals(valEntry.getKey()))
+							{
+								try
+								{
+									convertToBow = Boolean.parseBoolean(valEntry.getValue().trim());
+								}
+								catch (Exception e) {}
+							}
+							else if("name".equals(valEntry.getKey()))
+							{
+								try
+								{
+									parameterName = parseAnnotationString(valEntry.getValue());
+									
+									if(parameterName.isEmpty())
+									{
+										parameterName = parameter.getSimpleName();
+									}
+								}
+								catch (Exception e) {}
+							}
+							else if("automaticConsumerMode".equals(valEntry.getKey()))
+							{
+								try
+								{
+									if("org.sodeac.common.annotation.BowParameter.AutomaticConsumer.NONE".equals(valEntry.getValue()))
+									{
+										
+									}
+									else if("org.sodeac.common.annotation.BowParameter.AutomaticConsumer.NEW_BOW_BY_RETURNTYPE".equals(valEntry.getValue()))
+									{
+										automaticConsumerNewBowByReturnType = true;
+									}
+								}
+								catch (Exception e) {}
+							}
+						}
+					}
+					
+				}
+				
+				
+				
+				if(automaticConsumerNewBowByReturnType)
+				{
+					parameterConverts.append(rowPrefix + "\tjava.util.function.Consumer<" + method.getType().toString() + "> __consumer_" + index + " = n -> new " + branchNodeToBow(method.getType(), nestedBow, undefinedParentType,true) + "(n, null);\n");
+					invokeParameterNames.add("__consumer_" + index);
+				}
+				else if(self)
+				{
+					invokeParameterNames.add("super.getWrappedBranchNode()");
+				}
+				else if(convertToBow)
+				{
+					parameterExpressions.add(branchNodeToBow(parameter.getType(), false,false, false) + " " + parameterName);
+					parameterConverts.append(rowPrefix + "\t" + parameter.getType().getQualifiedName() + " __parameterConverted_" + index + " = " + parameterName + " == null ? null : " + parameterName + ".getWrappedBranchNode();\n");
+					invokeParameterNames.add("__parameterConverted_" + index);
+				}
+				else
+				{
+					if(parameter.isVarArgs() && parameter.getType().toString().endsWith("[]"))
+					{
+						parameterExpressions.add(parameter.getType().toString().substring(0, parameter.getType().toString().length() - 2) + "... " + parameterName);
+					}
+					else
+					{
+						parameterExpressions.add(parameter.getType().toString() + " " + parameterName);
+					}
+					invokeParameterNames.add(parameterName);
+				}
+				
+			}
+			finally 
+			{
+				index++;
+			}
+		}
+		for(BowTypeDescriptor.TypeReference throwable : method.getThrownTypes())
+		{
+			thrownExpressions.add(throwable.getQualifiedName());
+		}
+		
+		functionBuilder.append(rowPrefix + "public " + (keepStatic ? "static " : ""));
+		functionBuilder.append(returnValueExpression + " ");
+		functionBuilder.append(methodeName + "(");
+		
+		for(int i = 0; i < parameterExpressions.size(); i++)
+		{
+			functionBuilder.append(i > 0 ? ", " : "");
+			functionBuilder.append(parameterExpressions.get(i));
+		}
+		functionBuilder.append(") ");
+		for(int i = 0; i < thrownExpressions.size(); i++)
+		{
+			functionBuilder.append(i > 0 ? ", " : " throws ");
+			functionBuilder.append(thrownExpressions.get(i));
+		}
+		functionBuilder.append("\n");
+		
+		functionBuilder.append(rowPrefix + "{\n");
+		functionBuilder.append(parameterConverts);
+		functionBuilder.append(rowPrefix + "\t");
+		if((! "void".equals(returnValueExpression)) && (! returnSelf))
+		{
+			functionBuilder.append( method.getType().toString() + " __return_Value_ = ");
+		}
+		
+		functionBuilder.append(javaClass.getQualifiedName() + "." + method.getSimpleName() + "(");
+		for(int i = 0; i < invokeParameterNames.size(); i++)
+		{
+			functionBuilder.append(i > 0 ? ", " : "");
+			functionBuilder.append(invokeParameterNames.get(i));
+		}
+		functionBuilder.append(");\n");
+		
+		if(returnSelf)
+		{
+			functionBuilder.append(rowPrefix + "\treturn this;\n");
+		}
+		else if(! "void".equals(returnValueExpression))
+		{
+			if(createBowFromReturnValue)
+			{
+				functionBuilder.append(rowPrefix + "\tif(__return_Value_ != null){ new " + branchNodeToBow(method.getType(), nestedBow, undefinedParentType,true) + "(__return_Value_, null);}\n");
+			}
+			if(convertReturnValueToBow)
+			{
+				functionBuilder.append(rowPrefix + "\treturn (" + returnValueExpression + ")(__return_Value_ == null ? null : __return_Value_.getBow());\n");
+			}
+			else
+			{
+				functionBuilder.append(rowPrefix + "\treturn __return_Value_");
+			}
+		}
+		
+		functionBuilder.append(rowPrefix + "}\n");
+		
+		return functionBuilder.toString();
+	}
+	
+	private String branchNodeToBow(BowTypeDescriptor.TypeReference reference, boolean nestedBow, boolean undefinedParentType, boolean noParentType)
+	{
+		String bowExpression = "org.sodeac.common.typedtree.BranchNodeToObjectWrapper";
+		if(reference.getActualTypeArguments().size() == 2)
+		{
+			bowExpression = getBOWName(reference.getActualTypeArguments().get(1).getQualifiedName());
+			
+			if(noParentType)
+			{
+				return bowExpression;
+			}
+			if(nestedBow)
+			{
+				if("?".equals(reference.getActualTypeArguments().get(0).getQualifiedName()))
+				{
+					bowExpression += "<?>";
+				}
+				else
+				{
+					bowExpression += "<" + getBOWName(reference.getActualTypeArguments().get(0).getQualifiedName()) + "<P>>";
+				}
+			}
+			else if(undefinedParentType)
+			{
+				bowExpression += "<?>";
+			}
+			else
+			{
+				if("?".equals(reference.getActualTypeArguments().get(0).getQualifiedName()))
+				{
+					bowExpression += "<?>";
+				}
+				else
+				{
+					bowExpression += "<" + getBOWName(reference.getActualTypeArguments().get(0).getQualifiedName()) + ">";
+				}
+			}
+		}
+		
+		return bowExpression;
+	}
+
+}
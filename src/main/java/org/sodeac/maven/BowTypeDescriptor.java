@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.maven;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Declarations of a model class required to generate BOW or BOW factory, independent of source model (Spoon or annotation processing).
+ *
+ * <p>Annotations are mapped by qualified name of annotation type to explicitly specified values. Values are in source notation:
+ * strings are quoted, enum constants are qualified by enum type, e.g. {@code org.sodeac.common.annotation.BowMethod.ReturnBowMode.SELF}.
+ * Fields and methods are in order of declaration.
+ */
+public class BowTypeDescriptor
+{
+	public BowTypeDescriptor(String qualifiedName, String packageName, String superClassName)
+	{
+		super();
+		this.qualifiedName = qualifiedName;
+		this.packageName = packageName;
+		this.superClassName = superClassName;
+	}
+
+	private String qualifiedName = null;
+	private String packageName = null;
+	private String superClassName = null;
+	private Map<String,Map<String,String>> annotations = new LinkedHashMap<>();
+	private List<Field> fields = new ArrayList<>();
+	private List<Method> methods = new ArrayList<>();
+
+	public String getQualifiedName()
+	{
+		return qualifiedName;
+	}
+	public String getPackageName()
+	{
+		return packageName;
+	}
+	public String getSimpleName()
+	{
+		return qualifiedName.substring(packageName.length() + 1);
+	}
+	public String getSuperClassName()
+	{
+		return superClassName;
+	}
+	public Map<String, Map<String, String>> getAnnotations()
+	{
+		return annotations;
+	}
+	public List<Field> getFields()
+	{
+		return fields;
+	}
+	public List<Method> getMethods()
+	{
+		return methods;
+	}
+
+	/**
+	 * Reference to type. Wildcards have qualified name {@code ?}.
+	 */
+	public static class TypeReference
+	{
+		public TypeReference(String qualifiedName, String simpleName, String packageName, String source)
+		{
+			super();
+			this.qualifiedName = qualifiedName;
+			this.simpleName = simpleName;
+			this.packageName = packageName;
+			this.source = source;
+		}
+
+		private String qualifiedName = null;
+		private String simpleName = null;
+		private String packageName = null;
+		private String source = null;
+		private List<TypeReference> actualTypeArguments = new ArrayList<>();
+
+		public String getQualifiedName()
+		{
+			return qualifiedName;
+		}
+		public String getSimpleName()
+		{
+			return simpleName;
+		}
+		public String getPackageName()
+		{
+			return packageName;
+		}
+		public List<TypeReference> getActualTypeArguments()
+		{
+			return actualTypeArguments;
+		}
+
+		/**
+		 * Returns type in source notation with qualified names and type arguments, e.g. {@code java.util.List<java.lang.String>}.
+		 */
+		@Override
+		public String toString()
+		{
+			return source;
+		}
+	}
+
+	public static class Field
+	{
+		public Field(String simpleName, TypeReference type)
+		{
+			super();
+			this.simpleName = simpleName;
+			this.type = type;
+		}
+
+		private String simpleName = null;
+		private TypeReference type = null;
+
+		public String getSimpleName()
+		{
+			return simpleName;
+		}
+		public TypeReference getType()
+		{
+			return type;
+		}
+	}
+
+	public static class Method
+	{
+		public Method(String simpleName, TypeReference type, boolean isStatic, boolean isPublic, boolean isProtected)
+		{
+			super();
+			this.simpleName = simpleName;
+			this.type = type;
+			this.isStatic = isStatic;
+			this.isPublic = isPublic;
+			this.isProtected = isProtected;
+		}
+
+		private String simpleName = null;
+		private TypeReference type = null;
+		private boolean isStatic;
+		private boolean isPublic;
+		private boolean isProtected;
+		private Map<String,Map<String,String>> annotations = new LinkedHashMap<>();
+		private List<Parameter> parameters = new ArrayList<>();
+		private List<TypeReference> thrownTypes = new ArrayList<>();
+
+		public String getSimpleName()
+		{
+			return simpleName;
+		}
+		public TypeReference getType()
+		{
+			return type;
+		}
+		public boolean isStatic()
+		{
+			return isStatic;
+		}
+		public boolean isPublic()
+		{
+			return isPublic;
+		}
+		public boolean isProtected()
+		{
+			return isProtected;
+		}
+		public Map<String, Map<String, String>> getAnnotations()
+		{
+			return annotations;
+		}
+		public List<Parameter> getParameters()
+		{
+			return parameters;
+		}
+		public List<TypeReference> getThrownTypes()
+		{
+			return thrownTypes;
+		}
+	}
+
+	public static class Parameter
+	{
+		public Parameter(String simpleName, TypeReference type, boolean varArgs)
+		{
+			super();
+			this.simpleName = simpleName;
+			this.type = type;
+			this.varArgs = varArgs;
+		}
+
+		private String simpleName = null;
+		private TypeReference type = null;
+		private boolean varArgs;
+		private Map<String,Map<String,String>> annotations = new LinkedHashMap<>();
+
+		public String getSimpleName()
+		{
+			return simpleName;
+		}
+		public TypeReference getType()
+		{
+			return type;
+		}
+		public boolean isVarArgs()
+		{
+			return varArgs;
+		}
+		public Map<String, Map<String, String>> getAnnotations()
+		{
+			return annotations;
+		}
+	}
+}
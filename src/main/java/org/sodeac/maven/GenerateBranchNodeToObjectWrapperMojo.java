@@ -12,68 +12,134 @@
 package org.sodeac.maven;
 
 
+import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
 
-import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.apache.maven.project.MavenProject;
 
-import spoon.MavenLauncher;
 import spoon.reflect.CtModel;
 import spoon.reflect.code.CtExpression;
 import spoon.reflect.declaration.CtAnnotation;
 import spoon.reflect.declaration.CtClass;
-import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtField;
 import spoon.reflect.declaration.CtMethod;
 import spoon.reflect.declaration.CtParameter;
 import spoon.reflect.declaration.CtType;
-import spoon.reflect.reference.CtPackageReference;
+import spoon.reflect.declaration.CtTypeMember;
+import spoon.reflect.declaration.CtTypeParameter;
 import spoon.reflect.reference.CtTypeReference;
 
 
 // mvn org.sodeac:org.sodeac.mvn.plugin:generate-branchnode-to-object-wrapper
 
-@Mojo(name = "generate-branchnode-to-object-wrapper", defaultPhase = LifecyclePhase.GENERATE_SOURCES)
-public class GenerateBranchNodeToObjectWrapperMojo extends AbstractMojo
+@Mojo(name = "generate-branchnode-to-object-wrapper", defaultPhase = LifecyclePhase.GENERATE_SOURCES, requiresDependencyResolution = ResolutionScope.COMPILE)
+public class GenerateBranchNodeToObjectWrapperMojo extends AbstractSpoonModelMojo
 {
+	private static final String GOAL = "generate-branchnode-to-object-wrapper";
+	
 	@Parameter(property = "outputdir", defaultValue = "${basedir}/src/generated")
 	private String outputdir;
 	
 	@Parameter(property = "header", defaultValue = "// auto-generated code - do not edit this file")
 	private String header;
- 
-	@Parameter(property = "project", readonly = true)
-	private MavenProject project;
+	
+	/**
+	 * Generate BOWs, which read node fields from field factory shared by all BOWs of same type and model, instead of copying node fields into each instance.
+	 */
+	@Parameter(property = "bow-shared-field-templates", defaultValue = "false")
+	private boolean sharedFieldTemplates;
+	
+	@Parameter(property = "incremental", defaultValue = "false")
+	private boolean incremental;
+	
+	@Parameter(property = "bow-state-file", defaultValue = "${project.build.directory}/sodeac/bow-generation.state")
+	private String stateFile;
 	
 
+	/**
+	 * Configures mojo for executions without maven.
+	 */
+	@Override
+	void configureStandalone(MavenProject project, File outputDirectory)
+	{
+		super.configureStandalone(project, outputDirectory);
+		this.outputdir = outputDirectory.getPath();
+		this.header = "// auto-generated code - do not edit this file";
+		this.stateFile = new File(project.getBuild().getDirectory(), "sodeac/bow-generation.state").getPath();
+	}
+	
 	public void execute() throws MojoExecutionException, MojoFailureException
 	{
+		long executionStart = System.nanoTime();
+		
 		File sourceRoot = new File(outputdir);
 		
 		Set<String> sourceClassIndex = new HashSet<>();
 		
 		try
 		{
-			MavenLauncher launcher = new MavenLauncher(project.getBasedir().getCanonicalPath(), MavenLauncher.SOURCE_TYPE.APP_SOURCE);
-			launcher.buildModel();
-			CtModel model = launcher.getModel();
+			GeneratedFileWriter fileWriter = new GeneratedFileWriter();
+			
+			GenerationCache cache = openGenerationCache(GOAL, getProjectRelativePath(outputdir) + "|" + header + "|" + sharedFieldTemplates);
+			List<File> restoredFiles = cache == null ? null : cache.restore(sourceRoot, fileWriter);
+			if(restoredFiles != null)
+			{
+				int removedCount = removeStaleOutputs(getStaleOutputs(sourceRoot, new HashSet<>(restoredFiles)));
+				getLog().info("restore " + restoredFiles.size() + " BOW files from generation cache " + cache.getKey() + ", " + removedCount + " stale files removed");
+				
+				report.setCount(GenerationReport.COUNT_CACHE_HIT, 1);
+				report.setCount(GenerationReport.COUNT_FILES_WRITTEN, fileWriter.getWrittenCount());
+				report.setCount(GenerationReport.COUNT_FILES_UNCHANGED, fileWriter.getSkippedCount());
+				report.setCount(GenerationReport.COUNT_FILES_REMOVED, removedCount);
+				report.endPhase(GenerationReport.PHASE_TOTAL, executionStart);
+				publishReport(GOAL);
+				
+				addGeneratedSourceRoot(sourceRoot);
+				return;
+			}
 			
-			// Generate BowFactories
+			CtModel model = getModel();
 			
-			for(CtType<?> s : model.getAllTypes()) 
+			GenerationState state = null;
+			if(incremental)
 			{
+				state = GenerationState.load(new File(stateFile), pluginVersion + "|" + sourceRoot.getAbsolutePath() + "|" + header + "|" + sharedFieldTemplates);
+			}
+			
+			// Scan BowFactories and Bows
+			
+			long phaseStart = System.nanoTime();
+			
+			List<CtClass> bowFactoryList = new ArrayList<>();
+			List<CtClass> annotatedBowList = new ArrayList<>();
+			
+			for(CtType<?> s : getProjectTypes(model)) 
+			{
+				report.addCount(GenerationReport.COUNT_TYPES_SCANNED, 1);
+				
 				if(! (s instanceof CtClass))
 				{
 					continue;
@@ -81,1075 +147,428 @@ public class GenerateBranchNodeToObjectWrapperMojo extends AbstractMojo
 				CtClass javaClass = (CtClass)s;
 				sourceClassIndex.add(javaClass.getQualifiedName());
 				
-				boolean hasToGenerateObjectWrapper = false;
-				
 				for(CtAnnotation<? extends Annotation> annotation : javaClass.getAnnotations())
 				{
 					if("org.sodeac.common.annotation.GenerateBowFactory".equals(annotation.getAnnotationType().getQualifiedName()))
 					{
-						hasToGenerateObjectWrapper = true;
-						
-						break;
-					}
-				}
-				if(! hasToGenerateObjectWrapper)
-				{
-					continue;
-				}
-				
-				CtClass superClass = (CtClass)javaClass.getSuperclass().getTypeDeclaration();
-				String generatedPackageName = getPackageName(javaClass);
-				String generatedClassName = getBOWFactoryName(getSimpleClassName(javaClass));
-				
-				StringBuilder classBuilder = new StringBuilder(this.header + "\n");
-				
-				classBuilder.append("package " + generatedPackageName + ";\n");
-				classBuilder.append("\n");
-				if("org.sodeac.common.typedtree.TypedTreeMetaModel".equals(superClass.getQualifiedName()))
-				{
-					classBuilder.append("public class " + generatedClassName + "\n");
-				}
-				else
-				{
-					classBuilder.append("public class " + generatedClassName + " extends " + getBOWFactoryName(superClass.getQualifiedName()) + "\n");
-				}
-				
-				classBuilder.append("{\n");
-				classBuilder.append("\t\n");
-				
-				for(CtField field : (List<CtField>)javaClass.getFields())
-				{
-					if(!"org.sodeac.common.typedtree.BranchNodeType".equals(field.getType().getQualifiedName()))
-					{
-						continue;
-					}
-					
-					CtTypeReference reference = (CtTypeReference)field.getType();
-					if(reference.getActualTypeArguments().size() != 2)
-					{
-						continue;
-					}
-					
-					if(! reference.getActualTypeArguments().get(0).getQualifiedName().equals(javaClass.getQualifiedName()))
-					{
-						continue;
-					}
-					
-					CtTypeReference ref = reference.getActualTypeArguments().get(1);
-					
-					String typeQualifiedName = ref.getQualifiedName();
-					String typeName = null;
-					String typePackage = null;
-					for(CtElement element : ref.asIterable())
-					{
-						if(element instanceof CtTypeReference)
-						{
-							typeName = ((CtTypeReference)element).getSimpleName();
-						}
-						if(element instanceof CtPackageReference)
-						{
-							typePackage = ((CtPackageReference)element).getQualifiedName();
-						}
-					}
-					
-					classBuilder.append("\tpublic static " + typePackage + "." + getBOWName(typeName) + "<?> create" + 
-					  ( field.getSimpleName().length() == 1 ? 
-							field.getSimpleName().toUpperCase() : 
-							field.getSimpleName().substring(0, 1).toUpperCase()  + field.getSimpleName().substring(1)
-					  ) + "()\n");
-					
-					classBuilder.append("\t{\n");
-					classBuilder.append("\t\treturn new "  + typePackage + "." + getBOWName(typeName) + "(org.sodeac.common.typedtree.ModelRegistry.getTypedTreeMetaModel(" + javaClass.getQualifiedName() + ".class).createRootNode(" + javaClass.getQualifiedName() + "." + field.getSimpleName() + "),null);\n");
-					classBuilder.append("\t}\n");
-					classBuilder.append("\t\n");
-					
-				}
-				
-				for(CtMethod method : (Set<CtMethod>)javaClass.getMethods())
-				{
-					if(!method.isStatic())
-					{
-						continue;
-					}
-					if(!(method.isPublic() || method.isProtected()))
-					{
-						continue;
-					}
-					boolean isBowMethod = false;
-					for(CtAnnotation<? extends Annotation> annotation : method.getAnnotations())
-					{
-						if("org.sodeac.common.annotation.BowMethod".equals(annotation.getAnnotationType().getQualifiedName()))
-						{
-							isBowMethod = true;
-							
-							break;
-						}
+						bowFactoryList.add(javaClass);
 					}
-					
-					if(! isBowMethod)
+					else if("org.sodeac.common.annotation.GenerateBow".equals(annotation.getAnnotationType().getQualifiedName()))
 					{
-						continue;
+						annotatedBowList.add(javaClass);
 					}
-					
-					classBuilder.append(generateBowMethod(javaClass, method, "\t", true));
-					
-				}
-				
-				classBuilder.append("}\n");
-				
-				System.out.println("Generate BOW Factory " + generatedPackageName  + "." + generatedClassName);
-				
-				File outputDirFile = new File(sourceRoot,generatedPackageName.replace('.', '/'));
-				if(!outputDirFile.exists())
-				{
-					outputDirFile.mkdirs();
-				}
-				File outputFile = new File(outputDirFile,generatedClassName +".java");
-				FileOutputStream fos = new FileOutputStream(outputFile);
-				try
-				{
-					fos.write(classBuilder.toString().getBytes());
-				}
-				finally 
-				{
-					fos.close();
 				}
 			}
 			
-			// Generate Bows
+			report.endPhase(GenerationReport.PHASE_SCAN, phaseStart);
+			phaseStart = System.nanoTime();
+			
+			List<CtClass> toGenerateList = resolveHierarchy(annotatedBowList, sourceClassIndex);
+			
+			report.endPhase(GenerationReport.PHASE_HIERARCHY, phaseStart);
 			
-			Set<CtClass> toGenerateSet = new HashSet<>();
+			// process classes in order of class names (bows in order of generation plan), independent of order of model
 			
-			for(CtType<?> s : model.getAllTypes()) 
+			Collections.sort(bowFactoryList, (c1, c2) -> c1.getQualifiedName().compareTo(c2.getQualifiedName()));
+			
+			// skip up to date outputs in incremental mode
+			
+			Map<String,List<CtType<?>>> referenceIndex = new HashMap<>();
+			List<CtClass> bowFactoryRenderList = new ArrayList<>();
+			for(CtClass javaClass : bowFactoryList)
 			{
-				if(! (s instanceof CtClass))
+				if(isUpToDate(javaClass, getBOWFactoryOutputFile(sourceRoot, javaClass), "BowFactory", state, referenceIndex))
 				{
 					continue;
 				}
-				CtClass javaClass = (CtClass)s;
-				
-				boolean hasToGenerateObjectWrapper = false;
-				
-				for(CtAnnotation<? extends Annotation> annotation : javaClass.getAnnotations())
-				{
-					if("org.sodeac.common.annotation.GenerateBow".equals(annotation.getAnnotationType().getQualifiedName()))
-					{
-						hasToGenerateObjectWrapper = true;
-						
-						break;
-					}
-				}
-				if(! hasToGenerateObjectWrapper)
+				bowFactoryRenderList.add(javaClass);
+			}
+			
+			List<CtClass> toRenderList = new ArrayList<>();
+			for(CtClass javaClass : toGenerateList)
+			{
+				if(isUpToDate(javaClass, getBOWOutputFile(sourceRoot, javaClass), "Bow", state, referenceIndex))
 				{
 					continue;
 				}
-				
-				toGenerateSet.add(javaClass);
-
+				toRenderList.add(javaClass);
 			}
 			
-			boolean checkMore = true;
-			while(checkMore)
+			// spoon model is not thread safe, describe types one after another and render and write descriptors in parallel, log in order of class names
+			
+			BowRenderer renderer = new BowRenderer(header, sharedFieldTemplates);
+			
+			phaseStart = System.nanoTime();
+			List<Callable<String>> renderTaskList = new ArrayList<>();
+			for(CtClass javaClass : bowFactoryRenderList)
 			{
-				checkMore = false;
-				for(CtClass javaClass : toGenerateSet)
-				{
-					if(javaClass.getSuperclass().getTypeDeclaration() instanceof  CtClass)
-					{
-						CtClass superClass = (CtClass)javaClass.getSuperclass().getTypeDeclaration();
-						if("org.sodeac.common.typedtree.BranchNodeMetaModel".equals(superClass.getQualifiedName()))
-						{
-							continue;
-						}
-						if("org.sodeac.common.typedtree.TypedTreeMetaModel".equals(superClass.getQualifiedName()))
-						{
-							continue;
-						}
-						
-						if(! sourceClassIndex.contains(superClass.getQualifiedName()))
-						{
-							continue;
-						}
-						
-						if(toGenerateSet.contains(superClass))
-						{
-							continue;
-						}
-						checkMore = true;
-						toGenerateSet.add(superClass);
-						System.out.println("B--- " + javaClass.getQualifiedName() + " " + javaClass.isImplicit());
-					}
-				}
+				BowTypeDescriptor descriptor = describeType(javaClass);
+				File outputFile = getBOWFactoryOutputFile(sourceRoot, javaClass);
+				String message = "Generate BOW Factory " + getPackageName(javaClass)  + "." + BowRenderer.getBOWFactoryName(getSimpleClassName(javaClass));
+				renderTaskList.add(() -> 
+				{
+					renderAndWrite(renderer, descriptor, true, outputFile, fileWriter);
+					return message;
+				});
 			}
+			for(CtClass javaClass : toRenderList)
+			{
+				BowTypeDescriptor descriptor = describeType(javaClass);
+				File outputFile = getBOWOutputFile(sourceRoot, javaClass);
+				String message = "Generate BOW " + getPackageName(javaClass)  + "." + BowRenderer.getBOWName(getSimpleClassName(javaClass));
+				renderTaskList.add(() -> 
+				{
+					renderAndWrite(renderer, descriptor, false, outputFile, fileWriter);
+					return message;
+				});
+			}
+			report.endPhase(GenerationReport.PHASE_RENDER, phaseStart);
 			
-			for(CtClass javaClass : toGenerateSet)
+			for(String message : GenerationWorkerPool.invokeAll(renderTaskList, getThreadCount()))
 			{
-				CtClass superClass = (CtClass)javaClass.getSuperclass().getTypeDeclaration();
-				
-				String className = javaClass.getQualifiedName().substring(javaClass.getPackage().getQualifiedName().length() + 1);
-				String packageName = javaClass.getPackage().getQualifiedName();
-				
-				String generatedPackageName = getPackageName(javaClass);
-				String generatedClassName = getBOWName(getSimpleClassName(javaClass));
-				
-				String typeName = generatedClassName.substring(0, generatedClassName.length() -3);
-				
-				String factoriesFieldName = "FIELD_FACORIES_" + generatedPackageName.replace('.', '_') + "__" + generatedClassName;
-				String instanceFactoryFieldName = "fieldFactory_" + generatedPackageName.replace('.', '_') + "__" + generatedClassName;
-				
-				boolean beanLikeSetters = false;
-				boolean buildAlias = false;
-				for(CtAnnotation<? extends Annotation> annotation : javaClass.getAnnotations())
-				{
-					if("org.sodeac.common.annotation.GenerateBow".equals(annotation.getAnnotationType().getQualifiedName()))
-					{
-						for(Entry<String,CtExpression> valEntry : annotation.getValues().entrySet())
-						{
-							if("beanLikeSetters".equals(valEntry.getKey()))
-							{
-								try
-								{
-									beanLikeSetters = Boolean.parseBoolean(valEntry.getValue().toString().trim());
-								}
-								catch (Exception e) {}
-							}
-							else if("buildAlias".equals(valEntry.getKey()))
-							{
-								try
-								{
-									buildAlias = Boolean.parseBoolean(valEntry.getValue().toString().trim());
-								}
-								catch (Exception e) {}
-							}
-							else if("name".equals(valEntry.getKey()))
-							{
-								try
-								{
-									if((valEntry.getValue() != null) && (valEntry.getValue().toString() != null) && (! valEntry.getValue().toString().isEmpty()) && (! valEntry.getValue().toString().equals("\"\"")))
-									{
-										typeName = parseAnnotationString(valEntry.getValue().toString());
-									}
-								}
-								catch (Exception e) {}
-							}
-						}
-					}
-				}
-				
-				StringBuilder classBuilder = new StringBuilder(this.header + "\n");
-				
-				classBuilder.append("package " + generatedPackageName + ";\n");
-				classBuilder.append("\n");
-				if("org.sodeac.common.typedtree.BranchNodeMetaModel".equals(superClass.getQualifiedName()))
-				{
-					classBuilder.append("public class " + generatedClassName + "<P extends org.sodeac.common.typedtree.BranchNodeToObjectWrapper> extends org.sodeac.common.typedtree.BranchNodeToObjectWrapper\n");
-				}
-				else
-				{
-					classBuilder.append("public class " + generatedClassName + "<P extends org.sodeac.common.typedtree.BranchNodeToObjectWrapper> extends " + getBOWName(superClass.getQualifiedName()) + "<P>\n");
-				}
-				
-				classBuilder.append("{\n");
-				classBuilder.append("\n");
-				classBuilder.append("\tpublic " + generatedClassName + "(org.sodeac.common.typedtree.BranchNode<?,? extends " + javaClass.getQualifiedName() + "> branchNode, org.sodeac.common.typedtree.BranchNodeToObjectWrapper parent)\n");
-				classBuilder.append("\t{\n");
-				classBuilder.append("\t\tsuper(branchNode, parent);\n");
-				
-				classBuilder.append("\t\t\n");
-				
-				classBuilder.append("\t\tthis." + instanceFactoryFieldName + " = " + generatedClassName + "." + factoriesFieldName + ".get(super.getModel().getClass());\n");
-				classBuilder.append("\t\tif(this." + instanceFactoryFieldName + " == null)\n");
-				classBuilder.append("\t\t{\n");
-				classBuilder.append("\t\t\tthis." + instanceFactoryFieldName + " = new " + generatedClassName + ".FieldFactory_" + generatedPackageName.replace('.', '_') + "__" + generatedClassName + "(super.getModel());\n");
-				classBuilder.append("\t\t\t" + generatedClassName + "." + factoriesFieldName + ".put(super.getModel().getClass(),this."+ instanceFactoryFieldName + ");\n");
-				classBuilder.append("\t\t}\n");
-				classBuilder.append("\t\t\n");
-				
-				List<CtField> definedFields = new ArrayList<CtField>(); 
-				for(CtField field : (List<CtField>)javaClass.getFields())
-				{
-					if
-					(!(
-						"org.sodeac.common.typedtree.BranchNodeListType".equals(field.getType().getQualifiedName()) ||
-				        "org.sodeac.common.typedtree.LeafNodeType".equals(field.getType().getQualifiedName()) ||
-				        "org.sodeac.common.typedtree.BranchNodeType".equals(field.getType().getQualifiedName())
-			        ))
-					{
-						continue;
-					}
-					
-					CtTypeReference reference = (CtTypeReference)field.getType();
-					if(reference.getActualTypeArguments().size() != 2)
-					{
-						continue;
-					}
-					
-					if(! reference.getActualTypeArguments().get(0).getQualifiedName().equals(javaClass.getQualifiedName()))
-					{
-						continue;
-					}
-					definedFields.add(field);
-				}
-				
-				int fieldIndex = 0;
-				
-				if(definedFields.size() < 2)
-				{
-					for(CtField field : definedFields)
-					{
-						classBuilder.append("\t\tthis._nodeField_" + field.getSimpleName() + " = this." + instanceFactoryFieldName + ".getNodeFieldTemplates()[" + fieldIndex++ + "];\n");
-					}
-				}
-				else
-				{
-					classBuilder.append("\t\tNodeField[] nodeFieldTemplates =  this." + instanceFactoryFieldName + ".getNodeFieldTemplates();\n");
-					for(CtField field : definedFields)
-					{
-						classBuilder.append("\t\tthis._nodeField_" + field.getSimpleName() + " = nodeFieldTemplates[" + fieldIndex++ + "];\n");
-					}
-				}
-				classBuilder.append("\t\n");
-				
-				classBuilder.append("\t}\n");
-				
-				classBuilder.append("\n");
-				
-				classBuilder.append("\tprivate static final java.util.Map<java.lang.Class," + generatedClassName + ".FieldFactory_" + generatedPackageName.replace('.', '_') + "__" + generatedClassName + "> " + factoriesFieldName +" = java.util.Collections.synchronizedMap(new java.util.HashMap<>());\n");
-				//classBuilder.append("\tprivate static final java.lang.Class<" + javaClass.getQualifiedName() + "> CLASS_" + packageName.replace('.', '_') + "__" + className + " = " + javaClass.getQualifiedName() + ".class;\n");
-				
-				classBuilder.append("\n");
-				classBuilder.append("\tprivate " + generatedClassName + ".FieldFactory_" + generatedPackageName.replace('.', '_') + "__" + generatedClassName + " " + instanceFactoryFieldName + " = null;\n");
-				
-				classBuilder.append("\n");
-				
-				for(CtField field : definedFields)
-				{
-					classBuilder.append("\tprivate NodeField _nodeField_" + field.getSimpleName() + " = null;\n");
-				}
-				
-				classBuilder.append("\n");
-				
-				classBuilder.append("\tpublic P getParent()\n");
-				classBuilder.append("\t{\n");
-				classBuilder.append("\t\treturn (P)super.__parent;\n");
-				classBuilder.append("\t}\n");
-				
-				if(buildAlias)
-				{
-					classBuilder.append("\n");
-					
-					classBuilder.append("\tpublic P build()\n");
-					classBuilder.append("\t{\n");
-					classBuilder.append("\t\treturn (P)super.__parent;\n");
-					classBuilder.append("\t}\n");
-				}
-				
-				classBuilder.append("\t\n");
-				
-				classBuilder.append("\tprotected void dispose()\n");
-				classBuilder.append("\t{\n");
-				classBuilder.append("\t\tsuper.dispose();\n");
-				classBuilder.append("\t\tthis." + instanceFactoryFieldName + " = null;\n");
-				for(CtField field : definedFields)
-				{
-					classBuilder.append("\t\tthis._nodeField_" + field.getSimpleName() + " = null;\n");
-				}
-				classBuilder.append("\t}\n");
-				
-				classBuilder.append("\t\n");
-				
-				StringBuilder bowFactoryPart = new StringBuilder();
-				bowFactoryPart.append("\tprotected void defineNestedBowFactories(java.util.Map<String,java.util.function.BiFunction<org.sodeac.common.typedtree.BranchNode, org.sodeac.common.typedtree.BranchNodeToObjectWrapper, org.sodeac.common.typedtree.BranchNodeToObjectWrapper>> factories)\n");
-				bowFactoryPart.append("\t{\n");
-				
-				for(CtField field : definedFields)
-				{
-					CtTypeReference reference = (CtTypeReference)field.getType();
-					if("org.sodeac.common.typedtree.LeafNodeType".equals(field.getType().getQualifiedName()))
-					{
-						CtTypeReference ref = reference.getActualTypeArguments().get(1);
-						String typeQualifiedName = ref.getQualifiedName();
-						
-						classBuilder.append("\tpublic " + typeQualifiedName + " " + ("java.lang.Boolean".equals(typeQualifiedName) ? "is" : "get") 
-								+ ( field.getSimpleName().length() == 1 ? 
-										field.getSimpleName().toUpperCase() : 
-										field.getSimpleName().substring(0, 1).toUpperCase()  + field.getSimpleName().substring(1)
-								  ) + 
-								"()\n");
-						classBuilder.append("\t{\n");
-						classBuilder.append("\t\treturn (" + typeQualifiedName + ") super.getLeafNodeValue(this._nodeField_" + field.getSimpleName() + ");\n");
-						classBuilder.append("\t}\n");
-						
-						classBuilder.append("\t\n");
-						
-						classBuilder.append("\tpublic " + (beanLikeSetters ?  "void" : (generatedClassName + "<P>") ) + " set" 
-								+ ( field.getSimpleName().length() == 1 ? 
-										field.getSimpleName().toUpperCase() : 
-										field.getSimpleName().substring(0, 1).toUpperCase()  + field.getSimpleName().substring(1)
-								  ) + 
-								"(" + typeQualifiedName + " " + field.getSimpleName() + ")\n");
-						classBuilder.append("\t{\n");
-						classBuilder.append("\t\tsuper.setLeafNodeValue(this._nodeField_" + field.getSimpleName() + ", " + field.getSimpleName() + ");\n");
-						if(! beanLikeSetters)
-						{
-							classBuilder.append("\t\treturn this;\n");
-						}
-						classBuilder.append("\t}\n");
-						
-						classBuilder.append("\t\n");
-						
-					}
-					else if("org.sodeac.common.typedtree.BranchNodeType".equals(field.getType().getQualifiedName()))
-					{
-						CtTypeReference ref = reference.getActualTypeArguments().get(1);
-						String typeQualifiedName = ref.getQualifiedName();
-						
-						classBuilder.append("\tpublic " + getBOWName(typeQualifiedName) + "<" + getBOWName(javaClass.getQualifiedName()) + "<P>> get" 
-								+ ( field.getSimpleName().length() == 1 ? 
-										field.getSimpleName().toUpperCase() : 
-										field.getSimpleName().substring(0, 1).toUpperCase()  + field.getSimpleName().substring(1)
-								  ) + 
-								"()\n");
-						classBuilder.append("\t{\n");
-						classBuilder.append("\t\torg.sodeac.common.typedtree.BranchNode wrapped = super.getBranchNode(this._nodeField_" + field.getSimpleName() + ");\n");
-						classBuilder.append("\t\tif(wrapped == null)\n");
-						classBuilder.append("\t\t{\n");
-						classBuilder.append("\t\t\treturn null;\n");
-						classBuilder.append("\t\t}\n");
-						classBuilder.append("\t\treturn (" + getBOWName(typeQualifiedName) + ") wrapped.getBow();\n");
-						classBuilder.append("\t}\n");
-						
-						classBuilder.append("\t\n");
-						
-						classBuilder.append("\tpublic " + getBOWName(typeQualifiedName) + "<" + getBOWName(javaClass.getQualifiedName()) + "<P>> create" 
-								+ ( field.getSimpleName().length() == 1 ? 
-										field.getSimpleName().toUpperCase() : 
-										field.getSimpleName().substring(0, 1).toUpperCase()  + field.getSimpleName().substring(1)
-								  ) + 
-								"()\n");
-						classBuilder.append("\t{\n");
-						classBuilder.append("\t\treturn (" + getBOWName(typeQualifiedName) + ") super.createBranchNode(this._nodeField_" + field.getSimpleName() + ").getBow();\n");
-						classBuilder.append("\t}\n");
-						
-						classBuilder.append("\t\n");
-					}
-					else if("org.sodeac.common.typedtree.BranchNodeListType".equals(field.getType().getQualifiedName()))
-					{
-						CtTypeReference ref = reference.getActualTypeArguments().get(1);
-						String typeQualifiedName = ref.getQualifiedName();
-						
-						classBuilder.append("\tpublic " + getBOWName(typeQualifiedName) + "<" + getBOWName(javaClass.getQualifiedName()) + "<P>> createOneOf" 
-								+ ( field.getSimpleName().length() == 1 ? 
-										field.getSimpleName().toUpperCase() : 
-										field.getSimpleName().substring(0, 1).toUpperCase()  + field.getSimpleName().substring(1)
-								  ) + 
-								"()\n");
-						classBuilder.append("\t{\n");
-						classBuilder.append("\t\treturn (" + getBOWName(typeQualifiedName) + ") super.createBranchNodeItem(this._nodeField_" + field.getSimpleName() + ").getBow();\n");
-						classBuilder.append("\t}\n");
-						
-						classBuilder.append("\t\n");
-						
-						classBuilder.append("\tpublic boolean removeFrom" 
-								+ ( field.getSimpleName().length() == 1 ? 
-										field.getSimpleName().toUpperCase() : 
-										field.getSimpleName().substring(0, 1).toUpperCase()  + field.getSimpleName().substring(1)
-								  ) + 
-								"("+ getBOWName(typeQualifiedName) + "<" + getBOWName(javaClass.getQualifiedName()) +"<P>> nestedBow)\n");
-						classBuilder.append("\t{\n");
-						classBuilder.append("\t\treturn super.removeBranchNodeItem(this._nodeField_" + field.getSimpleName() + ", nestedBow);\n");
-						classBuilder.append("\t}\n");
-						
-						classBuilder.append("\t\n");
-						
-						classBuilder.append("\tpublic java.util.List<"+ getBOWName(typeQualifiedName) + "<" + getBOWName(javaClass.getQualifiedName()) + "<P>>> getUnmodifiableListOf" 
-								+ ( field.getSimpleName().length() == 1 ? 
-										field.getSimpleName().toUpperCase() : 
-										field.getSimpleName().substring(0, 1).toUpperCase()  + field.getSimpleName().substring(1)
-								  ) + 
-								"()\n");
-						classBuilder.append("\t{\n");
-						classBuilder.append("\t\treturn (java.util.List)super.getBowList(this._nodeField_" + field.getSimpleName() + ");\n");
-						classBuilder.append("\t}\n");
-						
-						classBuilder.append("\t\n");
-						
-						classBuilder.append("\tpublic java.util.stream.Stream<"+ getBOWName(typeQualifiedName) + "<" + getBOWName(javaClass.getQualifiedName()) + "<P>>> getStreamOf" 
-								+ ( field.getSimpleName().length() == 1 ? 
-										field.getSimpleName().toUpperCase() : 
-										field.getSimpleName().substring(0, 1).toUpperCase()  + field.getSimpleName().substring(1)
-								  ) + 
-								"()\n");
-						classBuilder.append("\t{\n");
-						classBuilder.append("\t\treturn (java.util.stream.Stream)super.getBowStream(this._nodeField_" + field.getSimpleName() + ");\n");
-						classBuilder.append("\t}\n");
-						
-						classBuilder.append("\t\n");
-					}
-					
-					if("org.sodeac.common.typedtree.BranchNodeType".equals(field.getType().getQualifiedName()) || "org.sodeac.common.typedtree.BranchNodeListType".equals(field.getType().getQualifiedName()))
-					{
-						CtTypeReference ref = reference.getActualTypeArguments().get(1);
-						String typeQualifiedName = ref.getQualifiedName();
-						
-						bowFactoryPart.append("\t\tfactories.put(\"" + field.getSimpleName() + "\", (n,p) -> new  " + getBOWName(typeQualifiedName) + "(n, p));\n");
-					}
-				}
-				
-				bowFactoryPart.append("\t}\n");
-				
-				classBuilder.append("\t\n");
-				
-				for(CtMethod method : (Set<CtMethod>)javaClass.getMethods())
-				{
-					if(!method.isStatic())
-					{
-						continue;
-					}
-					if(!(method.isPublic() || method.isProtected()))
-					{
-						continue;
-					}
-					boolean isBowMethod = false;
-					for(CtAnnotation<? extends Annotation> annotation : method.getAnnotations())
-					{
-						if("org.sodeac.common.annotation.BowMethod".equals(annotation.getAnnotationType().getQualifiedName()))
-						{
-							isBowMethod = true;
-							
-							break;
-						}
-					}
-					
-					if(! isBowMethod)
-					{
-						continue;
-					}
-					
-					classBuilder.append(generateBowMethod(javaClass, method, "\t", false));
-					
-					classBuilder.append("\t\n");
-					
-				}
-				
-				classBuilder.append("\t\n");
-				classBuilder.append("\tprotected org.sodeac.common.typedtree.BranchNodeToObjectWrapper createNestedBow(int nodeTypeIndex, org.sodeac.common.typedtree.INodeType nodeType, org.sodeac.common.typedtree.BranchNode branchNode)\n");
-				classBuilder.append("\t{\n");
-				classBuilder.append("\t\tif(branchNode.getParentNode().getBow() != this)\n");
-				classBuilder.append("\t\t{\n");
-				classBuilder.append("\t\t\tthrow new java.lang.IllegalStateException(\"parent bow is wrong\");\n");
-				classBuilder.append("\t\t}\n");
-				classBuilder.append("\t\torg.sodeac.common.typedtree.BranchNodeToObjectWrapper newstedBow = this." + instanceFactoryFieldName + ".createNestedBow(nodeTypeIndex, nodeType, branchNode);\n");
-				classBuilder.append("\t\tif(newstedBow == null)\n");
-				classBuilder.append("\t\t{\n");
-				classBuilder.append("\t\t\treturn super.createNestedBow(nodeTypeIndex, nodeType, branchNode);\n");
-				classBuilder.append("\t\t}\n");
-				classBuilder.append("\t\treturn newstedBow;\n");
-				classBuilder.append("\t}\n");
-				
-				classBuilder.append("\t\n");
-				
-				if(! "org.sodeac.common.typedtree.BranchNodeMetaModel".equals(superClass.getQualifiedName()))
-				{
-					classBuilder.append("\tpublic " + getBOWName(javaClass.getQualifiedName()) + "<" + getBOWName(javaClass.getQualifiedName()) + "<P>> backupType" + typeName.substring(0, 1).toUpperCase()  + typeName.substring(1) + "()\n");
-					classBuilder.append("\t{\n");
-					classBuilder.append("\t\treturn (" + getBOWName(javaClass.getQualifiedName()) + ") this;\n");
-					classBuilder.append("\t}\n");
-				}
-				
-				classBuilder.append("\tpublic P restoreType()\n");
-				classBuilder.append("\t{\n");
-				classBuilder.append("\t\treturn (P)this;\n");
-				classBuilder.append("\t}\n");
-				
-				classBuilder.append("\t\n");
-				
-				classBuilder.append("\tpublic " + generatedClassName + "<P> copyFrom(" + generatedClassName + "<?> bow)\n");
-				classBuilder.append("\t{\n");
-				classBuilder.append("\t\tsuper.getWrappedBranchNode().copyFrom(bow.getWrappedBranchNode());\n");
-				classBuilder.append("\t\treturn this;\n");
-				classBuilder.append("\t}\n");
-				
-				classBuilder.append("\t\n");
-				
-				/*classBuilder.append("\tpublic " + generatedClassName + "<P> applyToConsumer(java.util.function.Consumer<" + generatedClassName + "<?>> consumer)\n");
-				classBuilder.append("\t{\n");
-				classBuilder.append("\t\tconsumer.accept(this);\n");
-				classBuilder.append("\t\treturn this;\n");
-				classBuilder.append("\t}\n");
-				
-				classBuilder.append("\t\n");*/
-				
-				classBuilder.append("\tprivate static class FieldFactory_" + generatedPackageName.replace('.', '_') + "__" + generatedClassName + " \n");
-				classBuilder.append("\t{\n");
-				classBuilder.append("\t\tprivate FieldFactory_" + generatedPackageName.replace('.', '_') + "__" + generatedClassName + "(org.sodeac.common.typedtree.BranchNodeMetaModel model)\n");
-				classBuilder.append("\t\t{\n");
-				classBuilder.append("\t\t\tsuper();\n");
-				classBuilder.append("\t\t\tthis.model = model;\n");
-				classBuilder.append("\t\t\tthis.nodeFieldTemplates = new NodeField[" + definedFields.size() + "];\n");
-				classBuilder.append("\t\t\t\n");
-				
-				int index = 0;
-				for(CtField field : definedFields)
-				{
-					classBuilder.append("\t\t\tthis.nodeFieldTemplates[" + index++ +"] = new NodeField(model.getNodeTypeIndexByClass().get("+ javaClass.getQualifiedName() + "." + field.getSimpleName() +")," + javaClass.getQualifiedName() + "." + field.getSimpleName() + ");\n");
-				}
-				
-				classBuilder.append("\t\t\t\n");
-				classBuilder.append("\t\t\tthis.nestedBeanFactories = new NestedPowFactoryCache[model.getNodeTypeList().size()];\n");
-				classBuilder.append("\t\t\tfor(int i = 0; i < this.nestedBeanFactories.length; i++)\n");
-				classBuilder.append("\t\t\t{\n");
-				classBuilder.append("\t\t\t\tthis.nestedBeanFactories[i] = null;\n");
-				classBuilder.append("\t\t\t}\n");
-				classBuilder.append("\t\t\t\n");
-				
-				index = 0;
-				for(CtField field : definedFields)
-				{
-					int i = index++;
-					CtTypeReference reference = (CtTypeReference)field.getType();
-					if("org.sodeac.common.typedtree.LeafNodeType".equals(field.getType().getQualifiedName()))
-					{
-						continue;
-					}
-					CtTypeReference ref = reference.getActualTypeArguments().get(1);
-					String typeQualifiedName = ref.getQualifiedName();
-					classBuilder.append("\t\t\tthis.nestedBeanFactories[this.nodeFieldTemplates[" + i + "].getNodeTypeIndex()] = new NestedPowFactoryCache(this.nodeFieldTemplates[" + i + "],(n,p) -> new  " + getBOWName(typeQualifiedName) + "(n, p)); \n");
-				}
-				classBuilder.append("\t\t\t\n");
-				
-				classBuilder.append("\t\t}\n");
-				
-				classBuilder.append("\t\t\n");
-				classBuilder.append("\t\tprivate org.sodeac.common.typedtree.BranchNodeMetaModel model = null;\n");
-				classBuilder.append("\t\tprivate NodeField[] nodeFieldTemplates = null;\n");
-				classBuilder.append("\t\tprivate NestedPowFactoryCache[] nestedBeanFactories = null;\n");
-				classBuilder.append("\t\t\n");
-				classBuilder.append("\t\n");
-				classBuilder.append("\t\tprivate org.sodeac.common.typedtree.BranchNodeToObjectWrapper createNestedBow(int nodeTypeIndex, org.sodeac.common.typedtree.INodeType nodeType, org.sodeac.common.typedtree.BranchNode branchNode)\n");
-				classBuilder.append("\t\t{\n");
-				classBuilder.append("\t\t\tNestedPowFactoryCache factory = this.nestedBeanFactories[nodeTypeIndex];\n");
-				classBuilder.append("\t\t\tif(factory == null)\n");
-				classBuilder.append("\t\t\t{\n");
-				classBuilder.append("\t\t\t\treturn null;\n");
-				classBuilder.append("\t\t\t}\n");
-				classBuilder.append("\t\t\tif(factory.getNodeField().getNodeType() != nodeType)\n");
-				classBuilder.append("\t\t\t{\n");
-				classBuilder.append("\t\t\t\tthrow new java.lang.IllegalStateException(\"index of nested bean is wrong\");\n");
-				classBuilder.append("\t\t\t}\n");
-				classBuilder.append("\t\t\tif(branchNode.getNodeType() != nodeType)\n");
-				classBuilder.append("\t\t\t{\n");
-				classBuilder.append("\t\t\t\tthrow new java.lang.IllegalStateException(\"mismatch between nodetype and node\");\n");
-				classBuilder.append("\t\t\t}\n");
-				classBuilder.append("\t\t\treturn factory.getFactory().apply(branchNode, branchNode.getParentNode().getBow());\n");
-				classBuilder.append("\t\t}\n");
-				classBuilder.append("\t\n");
-				classBuilder.append("\t\tprivate org.sodeac.common.typedtree.BranchNodeMetaModel getModel()\n");
-				classBuilder.append("\t\t{\n");
-				classBuilder.append("\t\t\treturn model;\n");
-				classBuilder.append("\t\t}\n");
-				classBuilder.append("\t\t\n");
-				classBuilder.append("\t\tprivate NodeField[] getNodeFieldTemplates()\n");
-				classBuilder.append("\t\t{\n");
-				classBuilder.append("\t\t\treturn nodeFieldTemplates;\n");
-				classBuilder.append("\t\t}\n");
-				classBuilder.append("\t\t\n");
-				classBuilder.append("\t}\n");
-				
-				
-				classBuilder.append("}\n");
-				
-				
-				System.out.println("Generate BOW " + generatedPackageName  + "." + generatedClassName);
-				
-				File outputDirFile = new File(sourceRoot,generatedPackageName.replace('.', '/'));
-				if(!outputDirFile.exists())
-				{
-					outputDirFile.mkdirs();
-				}
-				File outputFile = new File(outputDirFile,generatedClassName +".java");
-				FileOutputStream fos = new FileOutputStream(outputFile);
-				try
+				getLog().info(message);
+			}
+			
+			if(state != null)
+			{
+				report.addCount(GenerationReport.COUNT_FILES_REMOVED, removeStaleOutputs(state.getStaleOutputs()));
+				state.save();
+			}
+			
+			if(cache != null)
+			{
+				List<File> outputFiles = new ArrayList<>();
+				for(CtClass javaClass : bowFactoryList)
 				{
-					fos.write(classBuilder.toString().getBytes());
+					outputFiles.add(getBOWFactoryOutputFile(sourceRoot, javaClass));
 				}
-				finally 
+				for(CtClass javaClass : toGenerateList)
 				{
-					fos.close();
+					outputFiles.add(getBOWOutputFile(sourceRoot, javaClass));
 				}
+				cache.store(sourceRoot, outputFiles);
+				report.setCount(GenerationReport.COUNT_CACHE_HIT, 0);
 			}
+			
+			report.setCount(GenerationReport.COUNT_CLASSES_GENERATED, renderTaskList.size());
+			report.setCount(GenerationReport.COUNT_FILES_WRITTEN, fileWriter.getWrittenCount());
+			report.setCount(GenerationReport.COUNT_FILES_UNCHANGED, fileWriter.getSkippedCount());
+			report.endPhase(GenerationReport.PHASE_TOTAL, executionStart);
+			
+			publishReport(GOAL);
 		}
 		catch (Exception e) 
 		{
 			throw new MojoExecutionException("error generate bows ",e); 
 		}
+		finally
+		{
+			releaseModel();
+		}
 		
-		this.project.addCompileSourceRoot( sourceRoot.getAbsolutePath() );
+		addGeneratedSourceRoot(sourceRoot);
 	}
 	
-
-	private String getBOWName(String className)
+	/**
+	 * Resolves super classes of annotated classes, which need a BOW too, and returns generation plan. 
+	 * Super classes are located in plan before their sub classes, classes of same depth are ordered by name.
+	 * 
+	 * @param annotatedBowList classes annotated by GenerateBow
+	 * @param sourceClassIndex qualified names of all classes in sources
+	 * @return classes to generate BOWs for
+	 */
+	private List<CtClass> resolveHierarchy(List<CtClass> annotatedBowList, Set<String> sourceClassIndex)
 	{
-		if(className.endsWith("NodeType") && className.length() > "NodeType".length())
+		Map<String,CtClass> planClassIndex = new HashMap<>();
+		Map<String,String> superClassIndex = new HashMap<>();
+		
+		LinkedList<CtClass> workQueue = new LinkedList<>();
+		for(CtClass javaClass : annotatedBowList)
+		{
+			if(planClassIndex.put(javaClass.getQualifiedName(), javaClass) == null)
+			{
+				workQueue.add(javaClass);
+			}
+		}
+		
+		while(! workQueue.isEmpty())
 		{
-			return className.substring(0, className.length() - "NodeType".length()) + "Bow";
+			CtClass javaClass = workQueue.removeFirst();
+			if(javaClass.getSuperclass() == null)
+			{
+				continue;
+			}
+			if(! (javaClass.getSuperclass().getTypeDeclaration() instanceof  CtClass))
+			{
+				continue;
+			}
+			CtClass superClass = (CtClass)javaClass.getSuperclass().getTypeDeclaration();
+			if("org.sodeac.common.typedtree.BranchNodeMetaModel".equals(superClass.getQualifiedName()))
+			{
+				continue;
+			}
+			if("org.sodeac.common.typedtree.TypedTreeMetaModel".equals(superClass.getQualifiedName()))
+			{
+				continue;
+			}
+			if(! sourceClassIndex.contains(superClass.getQualifiedName()))
+			{
+				continue;
+			}
+			
+			superClassIndex.put(javaClass.getQualifiedName(), superClass.getQualifiedName());
+			if(planClassIndex.put(superClass.getQualifiedName(), superClass) == null)
+			{
+				workQueue.add(superClass);
+			}
 		}
-		if(className.endsWith("Type") && className.length() > "Type".length())
+		
+		Map<String,Integer> depthIndex = new HashMap<>();
+		for(String className : planClassIndex.keySet())
 		{
-			return className.substring(0, className.length() - "Type".length()) + "Bow";
+			int depth = 0;
+			for(String superClassName = superClassIndex.get(className); superClassName != null; superClassName = superClassIndex.get(superClassName))
+			{
+				depth++;
+			}
+			depthIndex.put(className, depth);
 		}
-		return className + "Bow";
+		
+		List<CtClass> generationPlan = new ArrayList<>(planClassIndex.values());
+		Collections.sort(generationPlan, (c1, c2) -> 
+		{
+			int compare = Integer.compare(depthIndex.get(c1.getQualifiedName()), depthIndex.get(c2.getQualifiedName()));
+			return compare != 0 ? compare : c1.getQualifiedName().compareTo(c2.getQualifiedName());
+		});
+		return generationPlan;
 	}
 	
-	private String getBOWFactoryName(String className)
+	private boolean isUpToDate(CtClass<?> javaClass, File outputFile, String kind, GenerationState state, Map<String,List<CtType<?>>> referenceIndex) throws Exception
 	{
-		if(className.endsWith("TreeMetaModel") && className.length() > "TreeMetaModel".length())
+		if(state == null)
 		{
-			return className.substring(0, className.length() - "TreeMetaModel".length()) + "BowFactory";
+			return false;
 		}
-		if(className.endsWith("MetaModel") && className.length() > "MetaModel".length())
+		String fingerprint = getInputFingerprint(javaClass, kind, state, referenceIndex);
+		state.register(outputFile, javaClass.getQualifiedName(), fingerprint);
+		if(state.isUpToDate(outputFile, fingerprint))
 		{
-			return className.substring(0, className.length() - "MetaModel".length()) + "BowFactory";
+			report.addCount(GenerationReport.COUNT_UP_TO_DATE, 1);
+			return true;
 		}
-		if(className.endsWith("TreeModel") && className.length() > "TreeModel".length())
-		{
-			return className.substring(0, className.length() - "TreeModel".length()) + "BowFactory";
-		}
-		if(className.endsWith("Model") && className.length() > "Model".length())
-		{
-			return className.substring(0, className.length() - "Model".length()) + "BowFactory";
-		}
-		return className + "BowFactory";
+		return false;
 	}
 	
-	private String getSimpleClassName(CtClass javaClass)
+	private void renderAndWrite(BowRenderer renderer, BowTypeDescriptor descriptor, boolean bowFactory, File outputFile, GeneratedFileWriter fileWriter) throws Exception
 	{
-		return javaClass.getQualifiedName().substring(javaClass.getPackage().getQualifiedName().length() + 1);
+		long phaseStart = System.nanoTime();
+		byte[] content = render(descriptor.getQualifiedName(), () -> (bowFactory ? renderer.generateBowFactory(descriptor) : renderer.generateBow(descriptor)).getBytes());
+		report.endPhase(GenerationReport.PHASE_RENDER, phaseStart);
+		report.addCount(GenerationReport.COUNT_BYTES_EMITTED, content.length);
+		
+		phaseStart = System.nanoTime();
+		fileWriter.write(outputFile, content);
+		report.endPhase(GenerationReport.PHASE_WRITE, phaseStart);
 	}
 	
-	private String getPackageName(CtClass javaClass)
+	private int removeStaleOutputs(List<File> staleOutputs)
 	{
-		return javaClass.getPackage().getQualifiedName();
+		int removedCount = 0;
+		for(File staleOutput : staleOutputs)
+		{
+			if(staleOutput.delete())
+			{
+				getLog().info("Remove stale " + staleOutput.getName());
+				removedCount++;
+			}
+		}
+		return removedCount;
 	}
 	
-	private String parseAnnotationString(String value)
+	/**
+	 * Returns generated files in source root, which are not part of restored files. 
+	 * Files of source root are generated, if first line is header of generated files.
+	 * 
+	 * @param sourceRoot directory of generated sources
+	 * @param restoredFiles files restored from generation cache
+	 * @return stale outputs
+	 * @throws IOException
+	 */
+	private List<File> getStaleOutputs(File sourceRoot, Set<File> restoredFiles) throws IOException
 	{
-		if(value == null)
+		List<File> staleOutputs = new ArrayList<>();
+		File[] files = sourceRoot.listFiles();
+		if(files == null)
 		{
-			return value;
+			return staleOutputs;
 		}
-		if(value.isEmpty())
+		for(File file : files)
 		{
-			return value;
+			if(file.isDirectory())
+			{
+				staleOutputs.addAll(getStaleOutputs(file, restoredFiles));
+			}
+			else if(file.getName().endsWith(".java") && (! restoredFiles.contains(file)) && isGeneratedFile(file))
+			{
+				staleOutputs.add(file);
+			}
 		}
-		value = value.trim();
-		if((value.length() >= 2) && value.startsWith("\"") && value.endsWith("\""))
+		return staleOutputs;
+	}
+	
+	private boolean isGeneratedFile(File file) throws IOException
+	{
+		try(BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)))
 		{
-			return value.substring(1, value.length() -1);
+			return header.equals(reader.readLine());
 		}
-		return value;
 	}
 	
-	private String generateBowMethod(CtClass javaClass, CtMethod method, String rowPrefix, boolean isFactory)
+	private File getBOWOutputFile(File sourceRoot, CtClass javaClass)
 	{
-		boolean keepStatic = isFactory;
-		boolean convertReturnValueToBow = false;
-		boolean createBowFromReturnValue = false;
-		boolean returnSelf = false;
-		boolean undefinedParentType = isFactory;
-		boolean nestedBow = false;
-		
-		String returnValueExpression = method.getType().toString();
-		String methodeName = method.getSimpleName();
-		
-		
-		StringBuilder functionBuilder = new StringBuilder();
-		for(CtAnnotation<? extends Annotation> annotation : method.getAnnotations())
+		return new File(new File(sourceRoot,getPackageName(javaClass).replace('.', '/')),BowRenderer.getBOWName(getSimpleClassName(javaClass)) +".java");
+	}
+	
+	private File getBOWFactoryOutputFile(File sourceRoot, CtClass javaClass)
+	{
+		return new File(new File(sourceRoot,getPackageName(javaClass).replace('.', '/')),BowRenderer.getBOWFactoryName(getSimpleClassName(javaClass)) +".java");
+	}
+	
+	/**
+	 * Returns fingerprint of class and all source types, the class references directly or transitively, 
+	 * e.g. super classes, node types behind generics of fields and types of method signatures.
+	 * 
+	 * @param javaClass class to generate output from
+	 * @param kind kind of output
+	 * @param state generation state providing source hashes
+	 * @param referenceIndex source types referenced by type, by qualified name of type
+	 * @return fingerprint
+	 * @throws Exception
+	 */
+	private String getInputFingerprint(CtClass<?> javaClass, String kind, GenerationState state, Map<String,List<CtType<?>>> referenceIndex) throws Exception
+	{
+		Map<String,CtType<?>> inputTypes = new TreeMap<>();
+		LinkedList<CtType<?>> queue = new LinkedList<>();
+		queue.add(javaClass);
+		while(! queue.isEmpty())
 		{
-			if("org.sodeac.common.annotation.BowMethod".equals(annotation.getAnnotationType().getQualifiedName()))
+			CtType<?> type = queue.removeFirst();
+			if(inputTypes.putIfAbsent(type.getQualifiedName(), type) != null)
 			{
-				
-				for(Entry<String,CtExpression> valEntry : annotation.getValues().entrySet())
-				{
-					if("convertReturnValueToBow".equals(valEntry.getKey()))
-					{
-						try
-						{
-							convertReturnValueToBow = Boolean.parseBoolean(valEntry.getValue().toString().trim());
-						}
-						catch (Exception e) {}
-					}
-					else if ("createBowFromReturnValue".equals(valEntry.getKey()))
-					{
-						try
-						{
-							createBowFromReturnValue = Boolean.parseBoolean(valEntry.getValue().toString().trim());
-						}
-						catch (Exception e) {}
-					}
-					else if("keepStatic".equals(valEntry.getKey()))
-					{
-						try
-						{
-							keepStatic = Boolean.parseBoolean(valEntry.getValue().toString().trim());
-						}
-						catch (Exception e) {}
-					}
-					else if("name".equals(valEntry.getKey()))
-					{
-						try
-						{
-							methodeName = parseAnnotationString(valEntry.getValue().toString());
-						}
-						catch (Exception e) {}
-					}
-					else if("returnBowMode".equals(valEntry.getKey()))
-					{
-						try
-						{
-							if("org.sodeac.common.annotation.BowMethod.ReturnBowMode.DEFAULT".equals(valEntry.getValue().toString()))
-							{
-								
-							}
-							else if("org.sodeac.common.annotation.BowMethod.ReturnBowMode.SELF".equals(valEntry.getValue().toString()))
-							{
-								returnSelf = true;
-							}
-							else if("org.sodeac.common.annotation.BowMethod.ReturnBowMode.UNDEFINED_PARENT_TYPE".equals(valEntry.getValue().toString()))
-							{
-								undefinedParentType = true;
-							}
-							else if("org.sodeac.common.annotation.BowMethod.ReturnBowMode.NESTED_BOW".equals(valEntry.getValue().toString()))
-							{
-								nestedBow = true;
-							}
-						}
-						catch (Exception e) {}
-					}
-				}
+				continue;
 			}
+			queue.addAll(getReferencedSourceTypes(type, referenceIndex));
 		}
 		
-		if(convertReturnValueToBow)
+		StringBuilder fingerprintBuilder = new StringBuilder(kind);
+		for(CtType<?> type : inputTypes.values())
 		{
-			returnValueExpression = returnSelf ? getBOWName(javaClass.getQualifiedName()) + "<P>" : branchNodeToBow((CtTypeReference)method.getType(), nestedBow, undefinedParentType, false);
+			fingerprintBuilder.append("|" + type.getQualifiedName() + ":" + state.getSourceHash(type.getPosition().getFile()));
 		}
 		
-		List<String> parameterExpressions = new ArrayList<>();
-		List<String> invokeParameterNames = new ArrayList<>();
-		List<String> thrownExpressions = new ArrayList<>();
-		
-		StringBuilder parameterConverts = new StringBuilder();
+		return GenerationState.sha256(fingerprintBuilder.toString().getBytes("UTF-8"));
+	}
+	
+	private List<CtType<?>> getReferencedSourceTypes(CtType<?> type, Map<String,List<CtType<?>>> referenceIndex)
+	{
+		List<CtType<?>> referencedSourceTypes = referenceIndex.get(type.getQualifiedName());
+		if(referencedSourceTypes != null)
+		{
+			return referencedSourceTypes;
+		}
 		
-		int index = 0;
-		for(CtParameter parameter : (List<CtParameter>)method.getParameters())
+		referencedSourceTypes = new ArrayList<>();
+		for(CtTypeReference<?> reference : type.getReferencedTypes())
 		{
-			try
+			CtType<?> declaration = reference.getTypeDeclaration();
+			if((declaration == null) || (declaration instanceof CtTypeParameter))
 			{
-				boolean self = false;
-				boolean convertToBow = false;
-				String parameterName = parameter.getSimpleName();
-				
-				boolean automaticConsumerNewBowByReturnType = false;
-				
-				for(CtAnnotation<? extends Annotation> fieldAnnotation : parameter.getAnnotations())
-				{
-					if("org.sodeac.common.annotation.BowParameter".equals(fieldAnnotation.getAnnotationType().getQualifiedName()))
-					{
-						for(Entry<String,CtExpression> valEntry : fieldAnnotation.getValues().entrySet())
-						{
-							if("self".equals(valEntry.getKey()))
-							{
-								try
-								{
-									self = Boolean.parseBoolean(valEntry.getValue().toString().trim());
-								}
-								catch (Exception e) {}
-							}
-							else if("convertToBow".equals(valEntry.getKey()))
-							{
-								try
-								{
-									convertToBow = Boolean.parseBoolean(valEntry.getValue().toString().trim());
-								}
-								catch (Exception e) {}
-							}
-							else if("name".equals(valEntry.getKey()))
-							{
-								try
-								{
-									parameterName = parseAnnotationString(valEntry.getValue().toString());
-									
-									if(parameterName.isEmpty())
-									{
-										parameterName = parameter.getSimpleName();
-									}
-								}
-								catch (Exception e) {}
-							}
-							else if("automaticConsumerMode".equals(valEntry.getKey()))
-							{
-								try
-								{
-									if("org.sodeac.common.annotation.BowParameter.AutomaticConsumer.NONE".equals(valEntry.getValue().toString()))
-									{
-										
-									}
-									else if("org.sodeac.common.annotation.BowParameter.AutomaticConsumer.NEW_BOW_BY_RETURNTYPE".equals(valEntry.getValue().toString()))
-									{
-										automaticConsumerNewBowByReturnType = true;
-									}
-								}
-								catch (Exception e) {}
-							}
-						}
-					}
-					
-				}
-				
-				
-				
-				if(automaticConsumerNewBowByReturnType)
-				{
-					parameterConverts.append(rowPrefix + "\tjava.util.function.Consumer<" + method.getType().toString() + "> __consumer_" + index + " = n -> new " + branchNodeToBow((CtTypeReference)method.getType(), nestedBow, undefinedParentType,true) + "(n, null);\n");
-					invokeParameterNames.add("__consumer_" + index);
-				}
-				else if(self)
-				{
-					invokeParameterNames.add("super.getWrappedBranchNode()");
-				}
-				else if(convertToBow)
-				{
-					parameterExpressions.add(branchNodeToBow(parameter.getType(), false,false, false) + " " + parameterName);
-					parameterConverts.append(rowPrefix + "\t" + parameter.getType().getQualifiedName() + " __parameterConverted_" + index + " = " + parameterName + " == null ? null : " + parameterName + ".getWrappedBranchNode();\n");
-					invokeParameterNames.add("__parameterConverted_" + index);
-				}
-				else
-				{
-					if(parameter.isVarArgs() && parameter.getType().toString().endsWith("[]"))
-					{
-						parameterExpressions.add(parameter.getType().toString().substring(0, parameter.getType().toString().length() - 2) + "... " + parameterName);
-					}
-					else
-					{
-						parameterExpressions.add(parameter.getType().toString() + " " + parameterName);
-					}
-					invokeParameterNames.add(parameterName);
-				}
-				
-				if(parameter.getType().toString().equals("java.lang.String[]"))
-				{
-					System.out.println(" --- " + parameter.getType().toString() + " --- " + parameter.toString() +" - " + parameter.isVarArgs());
-				}
+				continue;
 			}
-			finally 
+			if((declaration.getPosition() == null) || (declaration.getPosition().getFile() == null))
 			{
-				index++;
+				continue; // type is not part of sources
 			}
+			referencedSourceTypes.add(declaration);
 		}
-		for(CtTypeReference throwable : (Set<CtTypeReference>)method.getThrownTypes())
-		{
-			thrownExpressions.add(throwable.getQualifiedName());
-		}
-		
-		functionBuilder.append(rowPrefix + "public " + (keepStatic ? "static " : ""));
-		functionBuilder.append(returnValueExpression + " ");
-		functionBuilder.append(methodeName + "(");
-		
-		for(int i = 0; i < parameterExpressions.size(); i++)
-		{
-			functionBuilder.append(i > 0 ? ", " : "");
-			functionBuilder.append(parameterExpressions.get(i));
-		}
-		functionBuilder.append(") ");
-		for(int i = 0; i < thrownExpressions.size(); i++)
-		{
-			functionBuilder.append(i > 0 ? ", " : " throws ");
-			functionBuilder.append(thrownExpressions.get(i));
-		}
-		functionBuilder.append("\n");
+		referenceIndex.put(type.getQualifiedName(), referencedSourceTypes);
+		return referencedSourceTypes;
+	}
+	
+	private String getSimpleClassName(CtClass javaClass)
+	{
+		return javaClass.getQualifiedName().substring(javaClass.getPackage().getQualifiedName().length() + 1);
+	}
+	
+	private String getPackageName(CtClass javaClass)
+	{
+		return javaClass.getPackage().getQualifiedName();
+	}
+	
+	private BowTypeDescriptor describeType(CtClass<?> javaClass)
+	{
+		BowTypeDescriptor descriptor = new BowTypeDescriptor(javaClass.getQualifiedName(), getPackageName(javaClass), javaClass.getSuperclass().getQualifiedName());
+		describeAnnotations(javaClass.getAnnotations(), descriptor.getAnnotations());
 		
-		functionBuilder.append(rowPrefix + "{\n");
-		functionBuilder.append(parameterConverts);
-		functionBuilder.append(rowPrefix + "\t");
-		if((! "void".equals(returnValueExpression)) && (! returnSelf))
+		for(CtField<?> field : javaClass.getFields())
 		{
-			functionBuilder.append( method.getType().toString() + " __return_Value_ = ");
+			descriptor.getFields().add(new BowTypeDescriptor.Field(field.getSimpleName(), describeTypeReference(field.getType())));
 		}
 		
-		functionBuilder.append(javaClass.getQualifiedName() + "." + method.getSimpleName() + "(");
-		for(int i = 0; i < invokeParameterNames.size(); i++)
-		{
-			functionBuilder.append(i > 0 ? ", " : "");
-			functionBuilder.append(invokeParameterNames.get(i));
-		}
-		functionBuilder.append(");\n");
+		// methods in source order, CtType.getMethods() is ordered by signature
 		
-		if(returnSelf)
-		{
-			functionBuilder.append(rowPrefix + "\treturn this;\n");
-		}
-		else if(! "void".equals(returnValueExpression))
+		for(CtTypeMember typeMember : javaClass.getTypeMembers())
 		{
-			if(createBowFromReturnValue)
+			if(! (typeMember instanceof CtMethod))
 			{
-				functionBuilder.append(rowPrefix + "\tif(__return_Value_ != null){ new " + branchNodeToBow((CtTypeReference)method.getType(), nestedBow, undefinedParentType,true) + "(__return_Value_, null);}\n");
+				continue;
 			}
-			if(convertReturnValueToBow)
+			CtMethod<?> method = (CtMethod<?>)typeMember;
+			BowTypeDescriptor.Method methodDescriptor = new BowTypeDescriptor.Method
+			(
+				method.getSimpleName(), describeTypeReference(method.getType()), method.isStatic(), method.isPublic(), method.isProtected()
+			);
+			describeAnnotations(method.getAnnotations(), methodDescriptor.getAnnotations());
+			for(CtParameter<?> parameter : method.getParameters())
 			{
-				functionBuilder.append(rowPrefix + "\treturn (" + returnValueExpression + ")(__return_Value_ == null ? null : __return_Value_.getBow());\n");
+				BowTypeDescriptor.Parameter parameterDescriptor = new BowTypeDescriptor.Parameter(parameter.getSimpleName(), describeTypeReference(parameter.getType()), parameter.isVarArgs());
+				describeAnnotations(parameter.getAnnotations(), parameterDescriptor.getAnnotations());
+				methodDescriptor.getParameters().add(parameterDescriptor);
 			}
-			else
+			for(CtTypeReference<? extends Throwable> throwable : method.getThrownTypes())
 			{
-				functionBuilder.append(rowPrefix + "\treturn __return_Value_");
+				methodDescriptor.getThrownTypes().add(describeTypeReference(throwable));
 			}
+			descriptor.getMethods().add(methodDescriptor);
 		}
 		
-		functionBuilder.append(rowPrefix + "}\n");
-		
-		return functionBuilder.toString();
+		return descriptor;
 	}
 	
-	private String branchNodeToBow(CtTypeReference reference, boolean nestedBow, boolean undefinedParentType, boolean noParentType)
+	private BowTypeDescriptor.TypeReference describeTypeReference(CtTypeReference<?> reference)
 	{
-		String bowExpression = "org.sodeac.common.typedtree.BranchNodeToObjectWrapper";
-		if(reference.getActualTypeArguments().size() == 2)
+		BowTypeDescriptor.TypeReference descriptor = new BowTypeDescriptor.TypeReference
+		(
+			reference.getQualifiedName(), reference.getSimpleName(), reference.getPackage() == null ? null : reference.getPackage().getQualifiedName(), reference.toString()
+		);
+		for(CtTypeReference<?> typeArgument : reference.getActualTypeArguments())
 		{
-			bowExpression = getBOWName(reference.getActualTypeArguments().get(1).getQualifiedName());
-			
-			if(noParentType)
-			{
-				return bowExpression;
-			}
-			if(nestedBow)
-			{
-				if("?".equals(reference.getActualTypeArguments().get(0).getQualifiedName()))
-				{
-					bowExpression += "<?>";
-				}
-				else
-				{
-					bowExpression += "<" + getBOWName(reference.getActualTypeArguments().get(0).getQualifiedName()) + "<P>>";
-				}
-			}
-			else if(undefinedParentType)
-			{
-				bowExpression += "<?>";
-			}
-			else
+			descriptor.getActualTypeArguments().add(describeTypeReference(typeArgument));
+		}
+		return descriptor;
+	}
+	
+	private void describeAnnotations(List<CtAnnotation<? extends Annotation>> annotations, Map<String,Map<String,String>> descriptor)
+	{
+		for(CtAnnotation<? extends Annotation> annotation : annotations)
+		{
+			Map<String,String> values = new LinkedHashMap<>();
+			for(Entry<String,CtExpression> valEntry : annotation.getValues().entrySet())
 			{
-				if("?".equals(reference.getActualTypeArguments().get(0).getQualifiedName()))
-				{
-					bowExpression += "<?>";
-				}
-				else
-				{
-					bowExpression += "<" + getBOWName(reference.getActualTypeArguments().get(0).getQualifiedName()) + ">";
-				}
+				values.put(valEntry.getKey(), valEntry.getValue().toString());
 			}
+			descriptor.put(annotation.getAnnotationType().getQualifiedName(), values);
 		}
-		
-		return bowExpression;
 	}
-
+	
 }
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes generated files only if content differs from existing file. Unchanged files keep their modification time,
+ * so that downstream compilation, resource processing and IDE indexing are not triggered.
+ *
+ * <p>Files are written to a temporary file in target directory and moved atomically to target file.
+ */
+public class GeneratedFileWriter
+{
+	private AtomicInteger writtenCount = new AtomicInteger();
+	private AtomicInteger skippedCount = new AtomicInteger();
+
+	/**
+	 * Write content to file, if content differs from existing file.
+	 *
+	 * @param file target file
+	 * @param content content to write
+	 * @return true, if file was written, otherwise false
+	 * @throws IOException
+	 */
+	public boolean write(File file, byte[] content) throws IOException
+	{
+		Path target = file.toPath();
+		if(file.isFile() && (file.length() == content.length))
+		{
+			if(Arrays.equals(Files.readAllBytes(target), content))
+			{
+				skippedCount.incrementAndGet();
+				return false;
+			}
+		}
+
+		File directory = file.getAbsoluteFile().getParentFile();
+		if(! directory.exists())
+		{
+			directory.mkdirs();
+		}
+
+		Path tempFile = new File(directory, "." + file.getName() + "." + UUID.randomUUID().toString() + ".tmp").toPath();
+		try
+		{
+			Files.write(tempFile, content, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+			try
+			{
+				Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			}
+			catch (AtomicMoveNotSupportedException e)
+			{
+				Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		finally
+		{
+			Files.deleteIfExists(tempFile);
+		}
+
+		writtenCount.incrementAndGet();
+		return true;
+	}
+
+	public int getWrittenCount()
+	{
+		return writtenCount.get();
+	}
+
+	public int getSkippedCount()
+	{
+		return skippedCount.get();
+	}
+
+	@Override
+	public String toString()
+	{
+		return getWrittenCount() + " files written, " + getSkippedCount() + " files unchanged";
+	}
+}
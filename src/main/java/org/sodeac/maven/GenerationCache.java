@@ -0,0 +1,358 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.maven;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Content addressed cache of generated files, shared by all builds of a machine. An entry is keyed by a fingerprint of all inputs
+ * (source files, classpath, plugin version, goal and configuration) and contains the generated files relative to output directory.
+ *
+ * <p>Entries are written to a temporary directory and renamed, so concurrent builds never see incomplete entries.
+ * The least recently used entries are removed, if the size of cache exceeds the limit.
+ */
+public class GenerationCache
+{
+	private static final String FILES_DIRECTORY = "files";
+	private static final String ACCESS_MARKER = "last-access";
+
+	private File cacheDirectory = null;
+	private long maxSize;
+	private String key = null;
+
+	/**
+	 * Constructor of generation cache.
+	 *
+	 * @param cacheDirectory root directory of cache
+	 * @param maxSize maximum size of all entries in bytes
+	 * @param key fingerprint of all inputs, provided by {@link #fingerprint(String, List, List)}
+	 */
+	public GenerationCache(File cacheDirectory, long maxSize, String key)
+	{
+		super();
+		this.cacheDirectory = cacheDirectory;
+		this.maxSize = maxSize;
+		this.key = key;
+	}
+
+	public String getKey()
+	{
+		return key;
+	}
+
+	/**
+	 * Calculates fingerprint of inputs. Source files are identified by their path relative to source directory,
+	 * so that builds of same sources in different locations share entries.
+	 *
+	 * @param configuration plugin version, goal and configuration of mojo
+	 * @param sourceDirectories source directories
+	 * @param classpath classpath elements of project, identified by content of jar files and class directories
+	 * @return fingerprint
+	 * @throws IOException
+	 */
+	public static String fingerprint(String configuration, List<File> sourceDirectories, List<String> classpath) throws IOException
+	{
+		try
+		{
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(configuration.getBytes(StandardCharsets.UTF_8));
+			for(String classpathElement : classpath)
+			{
+				digest.update("\nclasspath:".getBytes(StandardCharsets.UTF_8));
+				digestContent(digest, new File(classpathElement));
+			}
+			for(File sourceDirectory : sourceDirectories)
+			{
+				Map<String,File> sourceFiles = new TreeMap<>();
+				collectFiles(sourceDirectory, "", sourceFiles);
+
+				digest.update(("\nsources:" + sourceFiles.size()).getBytes(StandardCharsets.UTF_8));
+				for(Entry<String,File> entry : sourceFiles.entrySet())
+				{
+					if(! entry.getKey().endsWith(".java"))
+					{
+						continue;
+					}
+					byte[] content = Files.readAllBytes(entry.getValue().toPath());
+					digest.update(("\n" + entry.getKey() + ":" + content.length + ":").getBytes(StandardCharsets.UTF_8));
+					digest.update(content);
+				}
+			}
+			return GenerationState.toHex(digest.digest());
+		}
+		catch (IOException e)
+		{
+			throw e;
+		}
+		catch (Exception e)
+		{
+			throw new IOException("calculate fingerprint failed", e);
+		}
+	}
+
+	/**
+	 * Checks whether cache contains an entry for key, without restoring files.
+	 *
+	 * @return true, if cache contains entry
+	 */
+	public boolean contains()
+	{
+		return new File(new File(cacheDirectory, key), FILES_DIRECTORY).isDirectory();
+	}
+
+	/**
+	 * Restores cached files to output directory, if cache contains an entry for key.
+	 *
+	 * @param outputDirectory target directory
+	 * @param fileWriter writer to write changed files only
+	 * @return restored files, or null, if cache does not contain entry
+	 * @throws IOException
+	 */
+	public List<File> restore(File outputDirectory, GeneratedFileWriter fileWriter) throws IOException
+	{
+		File entryDirectory = new File(cacheDirectory, key);
+		File filesDirectory = new File(entryDirectory, FILES_DIRECTORY);
+		if(! filesDirectory.isDirectory())
+		{
+			return null;
+		}
+
+		Map<String,File> cachedFiles = new TreeMap<>();
+		collectFiles(filesDirectory, "", cachedFiles);
+
+		List<File> restoredFiles = new ArrayList<>();
+		for(Entry<String,File> entry : cachedFiles.entrySet())
+		{
+			File outputFile = new File(outputDirectory, entry.getKey());
+			fileWriter.write(outputFile, Files.readAllBytes(entry.getValue().toPath()));
+			restoredFiles.add(outputFile);
+		}
+
+		touch(entryDirectory);
+		return restoredFiles;
+	}
+
+	/**
+	 * Stores generated files as entry of key and evicts least recently used entries, if size of cache exceeds limit.
+	 *
+	 * @param outputDirectory output directory of generated files
+	 * @param outputFiles generated files
+	 * @throws IOException
+	 */
+	public void store(File outputDirectory, Collection<File> outputFiles) throws IOException
+	{
+		File entryDirectory = new File(cacheDirectory, key);
+		if(entryDirectory.isDirectory())
+		{
+			touch(entryDirectory);
+			return;
+		}
+
+		String outputPath = outputDirectory.getCanonicalPath() + File.separator;
+		File tempDirectory = new File(cacheDirectory, "." + key + "." + UUID.randomUUID().toString() + ".tmp");
+		try
+		{
+			File filesDirectory = new File(tempDirectory, FILES_DIRECTORY);
+			filesDirectory.mkdirs();
+			for(File outputFile : outputFiles)
+			{
+				String path = outputFile.getCanonicalPath();
+				if(! path.startsWith(outputPath))
+				{
+					throw new IOException("generated file " + outputFile + " is not located in " + outputDirectory);
+				}
+				File cachedFile = new File(filesDirectory, path.substring(outputPath.length()));
+				cachedFile.getParentFile().mkdirs();
+				Files.copy(outputFile.toPath(), cachedFile.toPath());
+			}
+			touch(tempDirectory);
+
+			try
+			{
+				Files.move(tempDirectory.toPath(), entryDirectory.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (IOException e)
+			{
+				if(! entryDirectory.isDirectory())
+				{
+					throw e;
+				}
+				// entry stored by concurrent build
+			}
+		}
+		finally
+		{
+			delete(tempDirectory);
+		}
+
+		evict();
+	}
+
+	private void evict() throws IOException
+	{
+		File[] entryDirectories = cacheDirectory.listFiles();
+		if(entryDirectories == null)
+		{
+			return;
+		}
+
+		Map<String,File> entriesByAccess = new TreeMap<>();
+		Map<File,Long> sizeByEntry = new TreeMap<>();
+		long cacheSize = 0L;
+		for(File entryDirectory : entryDirectories)
+		{
+			if((! entryDirectory.isDirectory()) || entryDirectory.getName().startsWith("."))
+			{
+				continue;
+			}
+			long entrySize = size(entryDirectory);
+			cacheSize += entrySize;
+			sizeByEntry.put(entryDirectory, entrySize);
+			entriesByAccess.put(String.format("%020d", new File(entryDirectory, ACCESS_MARKER).lastModified()) + entryDirectory.getName(), entryDirectory);
+		}
+
+		for(File entryDirectory : entriesByAccess.values())
+		{
+			if(cacheSize <= maxSize)
+			{
+				break;
+			}
+			if(entryDirectory.getName().equals(key))
+			{
+				continue;
+			}
+			delete(entryDirectory);
+			cacheSize -= sizeByEntry.get(entryDirectory);
+		}
+	}
+
+	private static void touch(File entryDirectory) throws IOException
+	{
+		File marker = new File(entryDirectory, ACCESS_MARKER);
+		if(! marker.exists())
+		{
+			marker.createNewFile();
+		}
+		marker.setLastModified(System.currentTimeMillis());
+	}
+
+	private static long size(File file)
+	{
+		if(! file.isDirectory())
+		{
+			return file.length();
+		}
+		long size = 0L;
+		File[] files = file.listFiles();
+		if(files != null)
+		{
+			for(File child : files)
+			{
+				size += size(child);
+			}
+		}
+		return size;
+	}
+
+	private static void delete(File file)
+	{
+		File[] files = file.listFiles();
+		if(files != null)
+		{
+			for(File child : files)
+			{
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+
+	/**
+	 * Updates digest by content of file. Content of directory is digested file by file, ordered by relative path.
+	 * Modification times are ignored, because class directories and jars of other projects are rewritten by each build.
+	 *
+	 * @param digest digest to update
+	 * @param file file or directory
+	 * @throws IOException
+	 */
+	static void digestContent(MessageDigest digest, File file) throws IOException
+	{
+		if(! file.isDirectory())
+		{
+			digestFile(digest, file);
+			return;
+		}
+
+		Map<String,File> files = new TreeMap<>();
+		collectFiles(file, "", files);
+
+		digest.update(("directory:" + files.size()).getBytes(StandardCharsets.UTF_8));
+		for(Entry<String,File> entry : files.entrySet())
+		{
+			digest.update(("\n" + entry.getKey() + ":").getBytes(StandardCharsets.UTF_8));
+			digestFile(digest, entry.getValue());
+		}
+	}
+
+	private static void digestFile(MessageDigest digest, File file) throws IOException
+	{
+		if(! file.isFile())
+		{
+			digest.update("missing".getBytes(StandardCharsets.UTF_8));
+			return;
+		}
+
+		digest.update(("file:" + file.length() + ":").getBytes(StandardCharsets.UTF_8));
+		byte[] buffer = new byte[65536];
+		try(InputStream in = new FileInputStream(file))
+		{
+			int length;
+			while((length = in.read(buffer)) > 0)
+			{
+				digest.update(buffer, 0, length);
+			}
+		}
+	}
+
+	private static void collectFiles(File directory, String prefix, Map<String,File> files)
+	{
+		File[] children = directory.listFiles();
+		if(children == null)
+		{
+			return;
+		}
+		for(File child : children)
+		{
+			if(child.isDirectory())
+			{
+				collectFiles(child, prefix + child.getName() + "/", files);
+			}
+			else
+			{
+				files.put(prefix + child.getName(), child);
+			}
+		}
+	}
+}
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Timings and counters of a mojo execution.
+ *
+ * <p>Phases executed by worker threads (render, write) are summed over all threads, all other phases are wall time.
+ */
+public class GenerationReport
+{
+	public static final String PHASE_MODEL = "model";
+	public static final String PHASE_SCAN = "scan";
+	public static final String PHASE_HIERARCHY = "hierarchy";
+	public static final String PHASE_RENDER = "render";
+	public static final String PHASE_WRITE = "write";
+	public static final String PHASE_TOTAL = "total";
+
+	public static final String COUNT_TYPES_SCANNED = "typesScanned";
+	public static final String COUNT_CLASSES_GENERATED = "classesGenerated";
+	public static final String COUNT_FILES_WRITTEN = "filesWritten";
+	public static final String COUNT_FILES_UNCHANGED = "filesUnchanged";
+	public static final String COUNT_FILES_REMOVED = "filesRemoved";
+	public static final String COUNT_BYTES_EMITTED = "bytesEmitted";
+	public static final String COUNT_UP_TO_DATE = "upToDate";
+	public static final String COUNT_MODEL_REUSED = "modelReused";
+	public static final String COUNT_CACHE_HIT = "cacheHit";
+	public static final String COUNT_SOURCES_PARSED = "sourcesParsed";
+
+	private Map<String,Long> phaseNanos = new LinkedHashMap<>();
+	private Map<String,Long> counters = new LinkedHashMap<>();
+
+	/**
+	 * Adds elapsed time since {@code startNanos} to phase.
+	 *
+	 * @param phase name of phase
+	 * @param startNanos start time of phase, provided by {@link System#nanoTime()}
+	 */
+	public void endPhase(String phase, long startNanos)
+	{
+		addPhaseTime(phase, System.nanoTime() - startNanos);
+	}
+
+	public synchronized void addPhaseTime(String phase, long nanos)
+	{
+		Long value = phaseNanos.get(phase);
+		phaseNanos.put(phase, value == null ? nanos : value + nanos);
+	}
+
+	public synchronized void addCount(String counter, long value)
+	{
+		Long current = counters.get(counter);
+		counters.put(counter, current == null ? value : current + value);
+	}
+
+	public synchronized void setCount(String counter, long value)
+	{
+		counters.put(counter, value);
+	}
+
+	public synchronized long getCount(String counter)
+	{
+		Long value = counters.get(counter);
+		return value == null ? 0L : value;
+	}
+
+	public synchronized long getPhaseTime(String phase)
+	{
+		Long value = phaseNanos.get(phase);
+		return value == null ? 0L : value;
+	}
+
+	public synchronized String formatPhases()
+	{
+		StringBuilder builder = new StringBuilder();
+		for(Entry<String,Long> entry : phaseNanos.entrySet())
+		{
+			builder.append(builder.length() == 0 ? "" : ", ");
+			builder.append(entry.getKey() + " " + (entry.getValue() / 1000000L) + " ms");
+		}
+		return builder.toString();
+	}
+
+	public synchronized String formatCounters()
+	{
+		StringBuilder builder = new StringBuilder();
+		for(Entry<String,Long> entry : counters.entrySet())
+		{
+			builder.append(builder.length() == 0 ? "" : ", ");
+			builder.append(entry.getKey() + " " + entry.getValue());
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Writes report as JSON document.
+	 *
+	 * @param file target file
+	 * @param goal goal of mojo
+	 * @param projectId id of maven project
+	 * @throws IOException
+	 */
+	public synchronized void writeJson(File file, String goal, String projectId) throws IOException
+	{
+		StringBuilder jsonBuilder = new StringBuilder();
+		jsonBuilder.append("{\n");
+		jsonBuilder.append("  \"goal\" : \"" + escapeJson(goal) + "\",\n");
+		jsonBuilder.append("  \"project\" : \"" + escapeJson(projectId) + "\",\n");
+		jsonBuilder.append("  \"phasesMillis\" : {");
+		int index = 0;
+		for(Entry<String,Long> entry : phaseNanos.entrySet())
+		{
+			jsonBuilder.append(index++ == 0 ? "\n" : ",\n");
+			jsonBuilder.append("    \"" + escapeJson(entry.getKey()) + "\" : " + (entry.getValue() / 1000000L));
+		}
+		jsonBuilder.append("\n  },\n");
+		jsonBuilder.append("  \"counters\" : {");
+		index = 0;
+		for(Entry<String,Long> entry : counters.entrySet())
+		{
+			jsonBuilder.append(index++ == 0 ? "\n" : ",\n");
+			jsonBuilder.append("    \"" + escapeJson(entry.getKey()) + "\" : " + entry.getValue());
+		}
+		jsonBuilder.append("\n  }\n");
+		jsonBuilder.append("}\n");
+
+		File directory = file.getAbsoluteFile().getParentFile();
+		if(! directory.exists())
+		{
+			directory.mkdirs();
+		}
+		Files.write(file.toPath(), jsonBuilder.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String escapeJson(String value)
+	{
+		if(value == null)
+		{
+			return "";
+		}
+		return value.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+}
@@ -0,0 +1,234 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.maven;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+
+/**
+ * Persisted state of a generator run. For each generated output the state stores the source class and a fingerprint of all inputs
+ * (source files of class and its ancestors), so that a subsequent run only regenerates outputs with changed inputs
+ * and removes outputs whose source class vanished.
+ */
+public class GenerationState
+{
+	private static final String KEY_VERSION = "state.version";
+	private static final String STATE_VERSION = "1";
+
+	private static final String PREFIX_OUTPUT = "output.";
+	private static final String PREFIX_SOURCE = "source.";
+
+	private GenerationState(File stateFile, String configuration)
+	{
+		super();
+		this.stateFile = stateFile;
+		this.configuration = configuration;
+	}
+
+	private File stateFile = null;
+	private String configuration = null;
+
+	private Map<String,String> previousOutputFingerprints = new HashMap<>();
+	private Map<String,String> currentOutputFingerprints = new HashMap<>();
+	private Map<String,String> currentOutputSources = new HashMap<>();
+	private Map<File,String> sourceFileHashes = new HashMap<>();
+
+	/**
+	 * Load state of previous run. If state file does not exist or was written with another configuration, an empty state is returned.
+	 *
+	 * @param stateFile file to persist state
+	 * @param configuration fingerprint of generator configuration (plugin version, parameters)
+	 * @return state
+	 * @throws IOException
+	 */
+	public static GenerationState load(File stateFile, String configuration) throws IOException
+	{
+		GenerationState state = new GenerationState(stateFile, configuration);
+		if(! stateFile.isFile())
+		{
+			return state;
+		}
+
+		Properties properties = new Properties();
+		FileInputStream fis = new FileInputStream(stateFile);
+		try
+		{
+			properties.load(fis);
+		}
+		finally
+		{
+			fis.close();
+		}
+
+		if(! STATE_VERSION.equals(properties.getProperty(KEY_VERSION)))
+		{
+			return state;
+		}
+		if(! configuration.equals(properties.getProperty("configuration")))
+		{
+			return state;
+		}
+
+		for(String key : properties.stringPropertyNames())
+		{
+			if(key.startsWith(PREFIX_OUTPUT))
+			{
+				state.previousOutputFingerprints.put(key.substring(PREFIX_OUTPUT.length()), properties.getProperty(key));
+			}
+		}
+
+		return state;
+	}
+
+	/**
+	 * Returns hash of source file. The hash is calculated only once per file and run.
+	 *
+	 * @param sourceFile source file
+	 * @return hash of source file content
+	 * @throws IOException
+	 */
+	public synchronized String getSourceHash(File sourceFile) throws IOException
+	{
+		String hash = sourceFileHashes.get(sourceFile);
+		if(hash == null)
+		{
+			hash = sha256(Files.readAllBytes(sourceFile.toPath()));
+			sourceFileHashes.put(sourceFile, hash);
+		}
+		return hash;
+	}
+
+	/**
+	 * Checks whether output was generated from same inputs in previous run and still exists.
+	 *
+	 * @param outputFile generated file
+	 * @param fingerprint fingerprint of all inputs of generated file
+	 * @return true, if output is up to date, otherwise false
+	 */
+	public synchronized boolean isUpToDate(File outputFile, String fingerprint)
+	{
+		if(fingerprint == null)
+		{
+			return false;
+		}
+		if(! outputFile.isFile())
+		{
+			return false;
+		}
+		return fingerprint.equals(previousOutputFingerprints.get(outputFile.getAbsolutePath()));
+	}
+
+	/**
+	 * Register output of current run.
+	 *
+	 * @param outputFile generated file
+	 * @param sourceClass qualified name of source class
+	 * @param fingerprint fingerprint of all inputs of generated file
+	 */
+	public synchronized void register(File outputFile, String sourceClass, String fingerprint)
+	{
+		if(fingerprint == null)
+		{
+			return;
+		}
+		currentOutputFingerprints.put(outputFile.getAbsolutePath(), fingerprint);
+		currentOutputSources.put(outputFile.getAbsolutePath(), sourceClass);
+	}
+
+	/**
+	 * Returns outputs of previous run, that are not registered in current run.
+	 *
+	 * @return stale outputs
+	 */
+	public synchronized List<File> getStaleOutputs()
+	{
+		List<File> staleOutputs = new ArrayList<>();
+		for(String output : previousOutputFingerprints.keySet())
+		{
+			if(! currentOutputFingerprints.containsKey(output))
+			{
+				staleOutputs.add(new File(output));
+			}
+		}
+		return staleOutputs;
+	}
+
+	/**
+	 * Persist state of current run.
+	 *
+	 * @throws IOException
+	 */
+	public synchronized void save() throws IOException
+	{
+		Properties properties = new Properties();
+		properties.setProperty(KEY_VERSION, STATE_VERSION);
+		properties.setProperty("configuration", configuration);
+		for(Entry<String,String> entry : currentOutputFingerprints.entrySet())
+		{
+			properties.setProperty(PREFIX_OUTPUT + entry.getKey(), entry.getValue());
+		}
+		for(Entry<String,String> entry : currentOutputSources.entrySet())
+		{
+			properties.setProperty(PREFIX_SOURCE + entry.getKey(), entry.getValue());
+		}
+
+		if(! stateFile.getParentFile().exists())
+		{
+			stateFile.getParentFile().mkdirs();
+		}
+		FileOutputStream fos = new FileOutputStream(stateFile);
+		try
+		{
+			properties.store(fos, "generation state - do not edit this file");
+		}
+		finally
+		{
+			fos.close();
+		}
+	}
+
+	public static String sha256(byte[] content)
+	{
+		try
+		{
+			return toHex(MessageDigest.getInstance("SHA-256").digest(content));
+		}
+		catch (Exception e)
+		{
+			if(e instanceof RuntimeException)
+			{
+				throw (RuntimeException)e;
+			}
+			throw new RuntimeException(e);
+		}
+	}
+
+	public static String toHex(byte[] bytes)
+	{
+		StringBuilder hexBuilder = new StringBuilder(bytes.length * 2);
+		for(byte b : bytes)
+		{
+			hexBuilder.append(Character.forDigit((b >> 4) & 0xF, 16));
+			hexBuilder.append(Character.forDigit(b & 0xF, 16));
+		}
+		return hexBuilder.toString();
+	}
+}
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.maven;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs independent generation tasks in a pool of worker threads.
+ */
+public class GenerationWorkerPool
+{
+	private GenerationWorkerPool()
+	{
+		super();
+	}
+
+	/**
+	 * Executes all tasks and returns their results in order of task list. If a task fails, all pending tasks are cancelled
+	 * and the first failure is thrown. Failures of other finished tasks are added as suppressed exceptions.
+	 *
+	 * @param taskList tasks to execute
+	 * @param threadCount count of worker threads
+	 * @return results in order of task list
+	 * @throws Exception first failure of a task
+	 */
+	public static <T> List<T> invokeAll(List<? extends Callable<T>> taskList, int threadCount) throws Exception
+	{
+		List<T> resultList = new ArrayList<>(taskList.size());
+
+		if((threadCount <= 1) || (taskList.size() <= 1))
+		{
+			for(Callable<T> task : taskList)
+			{
+				resultList.add(task.call());
+			}
+			return resultList;
+		}
+
+		ExecutorService executorService = Executors.newFixedThreadPool(Math.min(threadCount, taskList.size()), new WorkerThreadFactory());
+		try
+		{
+			CompletionService<T> completionService = new ExecutorCompletionService<>(executorService);
+			Map<Future<T>,Integer> indexByFuture = new HashMap<>();
+			for(int i = 0; i < taskList.size(); i++)
+			{
+				indexByFuture.put(completionService.submit(taskList.get(i)), i);
+				resultList.add(null);
+			}
+
+			Exception failure = null;
+			for(int i = 0; i < taskList.size(); i++)
+			{
+				Future<T> future = completionService.take();
+				try
+				{
+					resultList.set(indexByFuture.get(future), future.get());
+				}
+				catch (ExecutionException e)
+				{
+					Exception cause = e.getCause() instanceof Exception ? (Exception)e.getCause() : e;
+					if(failure == null)
+					{
+						failure = cause;
+
+						for(Future<T> pending : indexByFuture.keySet())
+						{
+							pending.cancel(true);
+						}
+					}
+					else
+					{
+						failure.addSuppressed(cause);
+					}
+				}
+				catch (CancellationException e) {}
+			}
+
+			if(failure != null)
+			{
+				throw failure;
+			}
+
+			return resultList;
+		}
+		finally
+		{
+			executorService.shutdownNow();
+		}
+	}
+
+	private static class WorkerThreadFactory implements ThreadFactory
+	{
+		private AtomicInteger threadCounter = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable)
+		{
+			Thread thread = new Thread(runnable, "sodeac-generator-" + threadCounter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
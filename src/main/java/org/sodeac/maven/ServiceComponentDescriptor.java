@@ -0,0 +1,306 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.maven;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Model of service component of a service factory class, independent of output format.
+ *
+ * <p>Property values are {@link String}, {@link Boolean}, {@link Long} or {@link Double}.
+ */
+public class ServiceComponentDescriptor
+{
+	public ServiceComponentDescriptor(String className)
+	{
+		super();
+		this.className = className;
+	}
+
+	private String className = null;
+	private List<Factory> factories = new ArrayList<>();
+	private List<Reference> references = new ArrayList<>();
+
+	public String getClassName()
+	{
+		return className;
+	}
+	public List<Factory> getFactories()
+	{
+		return factories;
+	}
+	public List<Reference> getReferences()
+	{
+		return references;
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		if(! (obj instanceof ServiceComponentDescriptor))
+		{
+			return false;
+		}
+		ServiceComponentDescriptor other = (ServiceComponentDescriptor)obj;
+		return Objects.equals(className, other.className) && factories.equals(other.factories) && references.equals(other.references);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(className, factories, references);
+	}
+
+	public static class Factory
+	{
+		public Factory(int lowerScalingLimit, int upperScalingLimit, int initialScaling, boolean shared, String requiredConfigurationClass, String factoryClass)
+		{
+			super();
+			this.lowerScalingLimit = lowerScalingLimit;
+			this.upperScalingLimit = upperScalingLimit;
+			this.initialScaling = initialScaling;
+			this.shared = shared;
+			this.requiredConfigurationClass = requiredConfigurationClass;
+			this.factoryClass = factoryClass;
+		}
+
+		private int lowerScalingLimit;
+		private int upperScalingLimit;
+		private int initialScaling;
+		private boolean shared;
+		private String requiredConfigurationClass = null;
+		private String factoryClass = null;
+		private Map<String,Object> properties = new LinkedHashMap<>();
+		private List<Registration> registrations = new ArrayList<>();
+
+		public int getLowerScalingLimit()
+		{
+			return lowerScalingLimit;
+		}
+		public int getUpperScalingLimit()
+		{
+			return upperScalingLimit;
+		}
+		public int getInitialScaling()
+		{
+			return initialScaling;
+		}
+		public boolean isShared()
+		{
+			return shared;
+		}
+		public String getRequiredConfigurationClass()
+		{
+			return requiredConfigurationClass;
+		}
+		public String getFactoryClass()
+		{
+			return factoryClass;
+		}
+		public Map<String, Object> getProperties()
+		{
+			return properties;
+		}
+		public List<Registration> getRegistrations()
+		{
+			return registrations;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if(! (obj instanceof Factory))
+			{
+				return false;
+			}
+			Factory other = (Factory)obj;
+			return (lowerScalingLimit == other.lowerScalingLimit) && (upperScalingLimit == other.upperScalingLimit) && (initialScaling == other.initialScaling)
+				&& (shared == other.shared) && Objects.equals(requiredConfigurationClass, other.requiredConfigurationClass) && Objects.equals(factoryClass, other.factoryClass)
+				&& new ArrayList<>(properties.entrySet()).equals(new ArrayList<>(other.properties.entrySet())) && registrations.equals(other.registrations);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(lowerScalingLimit, upperScalingLimit, initialScaling, shared, requiredConfigurationClass, factoryClass, properties, registrations);
+		}
+	}
+
+	public static class Registration
+	{
+		public Registration(String domain, String name, String version, String serviceInterface)
+		{
+			super();
+			this.domain = domain;
+			this.name = name;
+			this.version = version;
+			this.serviceInterface = serviceInterface;
+		}
+
+		private String domain = null;
+		private String name = null;
+		private String version = null;
+		private String serviceInterface = null;
+
+		public String getDomain()
+		{
+			return domain;
+		}
+		public String getName()
+		{
+			return name;
+		}
+		public String getVersion()
+		{
+			return version;
+		}
+		public String getServiceInterface()
+		{
+			return serviceInterface;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if(! (obj instanceof Registration))
+			{
+				return false;
+			}
+			Registration other = (Registration)obj;
+			return Objects.equals(domain, other.domain) && Objects.equals(name, other.name) && Objects.equals(version, other.version) && Objects.equals(serviceInterface, other.serviceInterface);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(domain, name, version, serviceInterface);
+		}
+	}
+
+	public static class Reference
+	{
+		public Reference(String name, String serviceType, String serviceName, String serviceDomain, String minVersion, String beforeVersion, String filter)
+		{
+			super();
+			this.name = name;
+			this.serviceType = serviceType;
+			this.serviceName = serviceName;
+			this.serviceDomain = serviceDomain;
+			this.minVersion = minVersion;
+			this.beforeVersion = beforeVersion;
+			this.filter = filter;
+		}
+
+		private String name = null;
+		private String serviceType = null;
+		private String serviceName = null;
+		private String serviceDomain = null;
+		private String minVersion = null;
+		private String beforeVersion = null;
+		private String filter = null;
+		private List<Preference> preferences = new ArrayList<>();
+
+		public String getName()
+		{
+			return name;
+		}
+		public String getServiceType()
+		{
+			return serviceType;
+		}
+		public String getServiceName()
+		{
+			return serviceName;
+		}
+		public String getServiceDomain()
+		{
+			return serviceDomain;
+		}
+		public String getMinVersion()
+		{
+			return minVersion;
+		}
+		public String getBeforeVersion()
+		{
+			return beforeVersion;
+		}
+		public String getFilter()
+		{
+			return filter;
+		}
+		public List<Preference> getPreferences()
+		{
+			return preferences;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if(! (obj instanceof Reference))
+			{
+				return false;
+			}
+			Reference other = (Reference)obj;
+			return Objects.equals(name, other.name) && Objects.equals(serviceType, other.serviceType) && Objects.equals(serviceName, other.serviceName)
+				&& Objects.equals(serviceDomain, other.serviceDomain) && Objects.equals(minVersion, other.minVersion) && Objects.equals(beforeVersion, other.beforeVersion)
+				&& Objects.equals(filter, other.filter) && preferences.equals(other.preferences);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(name, serviceType, serviceName, serviceDomain, minVersion, beforeVersion, filter, preferences);
+		}
+	}
+
+	public static class Preference
+	{
+		public Preference(String score, String filter)
+		{
+			super();
+			this.score = score;
+			this.filter = filter;
+		}
+
+		private String score = null;
+		private String filter = null;
+
+		public String getScore()
+		{
+			return score;
+		}
+		public String getFilter()
+		{
+			return filter;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if(! (obj instanceof Preference))
+			{
+				return false;
+			}
+			Preference other = (Preference)obj;
+			return Objects.equals(score, other.score) && Objects.equals(filter, other.filter);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(score, filter);
+		}
+	}
+}
@@ -0,0 +1,315 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.maven;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Compact binary encoding of service components of a module. The format is readable without xml parser and can be read from memory mapped files.
+ *
+ * <p>All numbers are big endian. Strings are stored once in string table and referenced by index, -1 references null.
+ *
+ * <pre>
+ * header       : magic "SDCB" (4 bytes), version (u16), reserved (u16)
+ * string table : count (i32), { length of UTF-8 bytes (i32), UTF-8 bytes }
+ * components   : count (i32), { class (str), factory count (i32), { factory }, reference count (i32), { reference } }
+ * factory      : lower scaling limit (i32), upper scaling limit (i32), initial scaling (i32), shared (u8), required configuration class (str), factory class (str),
+ *                property count (i32), { key (str), type (u8), value }, registration count (i32), { domain (str), name (str), version (str), interface (str) }
+ * value        : string (str) | boolean (u8) | int (i64) | dec (f64)
+ * reference    : name (str), service type (str), service name (str), service domain (str), min version (str), before version (str), filter (str),
+ *                preference count (i32), { score (str), filter (str) }
+ * </pre>
+ */
+public class ServiceDescriptorBinaryFormat
+{
+	public static final int MAGIC = 0x53444342; // SDCB
+	public static final int VERSION = 1;
+
+	public static final byte TYPE_STRING = 0;
+	public static final byte TYPE_BOOLEAN = 1;
+	public static final byte TYPE_INT = 2;
+	public static final byte TYPE_DEC = 3;
+
+	private static final int NULL_REFERENCE = -1;
+
+	private ServiceDescriptorBinaryFormat()
+	{
+		super();
+	}
+
+	/**
+	 * Encodes service components.
+	 *
+	 * @param serviceComponents service components to encode
+	 * @return binary encoding
+	 * @throws IOException
+	 */
+	public static byte[] write(List<ServiceComponentDescriptor> serviceComponents) throws IOException
+	{
+		Map<String,Integer> stringTable = new LinkedHashMap<>();
+
+		ByteArrayOutputStream bodyStream = new ByteArrayOutputStream();
+		DataOutputStream body = new DataOutputStream(bodyStream);
+
+		body.writeInt(serviceComponents.size());
+		for(ServiceComponentDescriptor serviceComponent : serviceComponents)
+		{
+			writeString(body, stringTable, serviceComponent.getClassName());
+
+			body.writeInt(serviceComponent.getFactories().size());
+			for(ServiceComponentDescriptor.Factory factory : serviceComponent.getFactories())
+			{
+				body.writeInt(factory.getLowerScalingLimit());
+				body.writeInt(factory.getUpperScalingLimit());
+				body.writeInt(factory.getInitialScaling());
+				body.writeByte(factory.isShared() ? 1 : 0);
+				writeString(body, stringTable, factory.getRequiredConfigurationClass());
+				writeString(body, stringTable, factory.getFactoryClass());
+
+				body.writeInt(factory.getProperties().size());
+				for(Entry<String,Object> property : factory.getProperties().entrySet())
+				{
+					writeString(body, stringTable, property.getKey());
+					if(property.getValue() instanceof Boolean)
+					{
+						body.writeByte(TYPE_BOOLEAN);
+						body.writeByte(((Boolean)property.getValue()) ? 1 : 0);
+					}
+					else if(property.getValue() instanceof Long)
+					{
+						body.writeByte(TYPE_INT);
+						body.writeLong((Long)property.getValue());
+					}
+					else if(property.getValue() instanceof Double)
+					{
+						body.writeByte(TYPE_DEC);
+						body.writeDouble((Double)property.getValue());
+					}
+					else
+					{
+						body.writeByte(TYPE_STRING);
+						writeString(body, stringTable, property.getValue().toString());
+					}
+				}
+
+				body.writeInt(factory.getRegistrations().size());
+				for(ServiceComponentDescriptor.Registration registration : factory.getRegistrations())
+				{
+					writeString(body, stringTable, registration.getDomain());
+					writeString(body, stringTable, registration.getName());
+					writeString(body, stringTable, registration.getVersion());
+					writeString(body, stringTable, registration.getServiceInterface());
+				}
+			}
+
+			body.writeInt(serviceComponent.getReferences().size());
+			for(ServiceComponentDescriptor.Reference reference : serviceComponent.getReferences())
+			{
+				writeString(body, stringTable, reference.getName());
+				writeString(body, stringTable, reference.getServiceType());
+				writeString(body, stringTable, reference.getServiceName());
+				writeString(body, stringTable, reference.getServiceDomain());
+				writeString(body, stringTable, reference.getMinVersion());
+				writeString(body, stringTable, reference.getBeforeVersion());
+				writeString(body, stringTable, reference.getFilter());
+
+				body.writeInt(reference.getPreferences().size());
+				for(ServiceComponentDescriptor.Preference preference : reference.getPreferences())
+				{
+					writeString(body, stringTable, preference.getScore());
+					writeString(body, stringTable, preference.getFilter());
+				}
+			}
+		}
+		body.flush();
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bodyStream.size() + (stringTable.size() * 32) + 12);
+		DataOutputStream out = new DataOutputStream(outputStream);
+		out.writeInt(MAGIC);
+		out.writeShort(VERSION);
+		out.writeShort(0);
+		out.writeInt(stringTable.size());
+		for(String string : stringTable.keySet())
+		{
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+		bodyStream.writeTo(out);
+		out.flush();
+
+		return outputStream.toByteArray();
+	}
+
+	/**
+	 * Reads service components from memory mapped file.
+	 *
+	 * @param file binary service descriptor file
+	 * @return service components
+	 * @throws IOException
+	 */
+	public static List<ServiceComponentDescriptor> read(File file) throws IOException
+	{
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try
+		{
+			return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+		finally
+		{
+			channel.close();
+		}
+	}
+
+	/**
+	 * Reads service components from buffer, beginning at current position.
+	 *
+	 * @param buffer buffer with binary encoding
+	 * @return service components
+	 * @throws IOException if encoding is invalid or version is not supported
+	 */
+	public static List<ServiceComponentDescriptor> read(ByteBuffer buffer) throws IOException
+	{
+		try
+		{
+			if(buffer.getInt() != MAGIC)
+			{
+				throw new IOException("invalid binary service descriptor");
+			}
+			int version = buffer.getShort() & 0xFFFF;
+			if(version != VERSION)
+			{
+				throw new IOException("unsupported version of binary service descriptor: " + version);
+			}
+			buffer.getShort(); // reserved
+
+			String[] stringTable = new String[buffer.getInt()];
+			for(int i = 0; i < stringTable.length; i++)
+			{
+				byte[] bytes = new byte[buffer.getInt()];
+				buffer.get(bytes);
+				stringTable[i] = new String(bytes, StandardCharsets.UTF_8);
+			}
+
+			int componentCount = buffer.getInt();
+			List<ServiceComponentDescriptor> serviceComponents = new ArrayList<>(componentCount);
+			for(int i = 0; i < componentCount; i++)
+			{
+				ServiceComponentDescriptor serviceComponent = new ServiceComponentDescriptor(readString(buffer, stringTable));
+
+				int factoryCount = buffer.getInt();
+				for(int j = 0; j < factoryCount; j++)
+				{
+					ServiceComponentDescriptor.Factory factory = new ServiceComponentDescriptor.Factory
+					(
+						buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.get() != 0, readString(buffer, stringTable), readString(buffer, stringTable)
+					);
+
+					int propertyCount = buffer.getInt();
+					for(int k = 0; k < propertyCount; k++)
+					{
+						String key = readString(buffer, stringTable);
+						byte type = buffer.get();
+						switch (type)
+						{
+							case TYPE_STRING:
+								factory.getProperties().put(key, readString(buffer, stringTable));
+								break;
+							case TYPE_BOOLEAN:
+								factory.getProperties().put(key, buffer.get() != 0);
+								break;
+							case TYPE_INT:
+								factory.getProperties().put(key, buffer.getLong());
+								break;
+							case TYPE_DEC:
+								factory.getProperties().put(key, buffer.getDouble());
+								break;
+							default:
+								throw new IOException("unsupported property type " + type);
+						}
+					}
+
+					int registrationCount = buffer.getInt();
+					for(int k = 0; k < registrationCount; k++)
+					{
+						factory.getRegistrations().add(new ServiceComponentDescriptor.Registration
+						(
+							readString(buffer, stringTable), readString(buffer, stringTable), readString(buffer, stringTable), readString(buffer, stringTable)
+						));
+					}
+
+					serviceComponent.getFactories().add(factory);
+				}
+
+				int referenceCount = buffer.getInt();
+				for(int j = 0; j < referenceCount; j++)
+				{
+					ServiceComponentDescriptor.Reference reference = new ServiceComponentDescriptor.Reference
+					(
+						readString(buffer, stringTable), readString(buffer, stringTable), readString(buffer, stringTable), readString(buffer, stringTable),
+						readString(buffer, stringTable), readString(buffer, stringTable), readString(buffer, stringTable)
+					);
+
+					int preferenceCount = buffer.getInt();
+					for(int k = 0; k < preferenceCount; k++)
+					{
+						reference.getPreferences().add(new ServiceComponentDescriptor.Preference(readString(buffer, stringTable), readString(buffer, stringTable)));
+					}
+
+					serviceComponent.getReferences().add(reference);
+				}
+
+				serviceComponents.add(serviceComponent);
+			}
+
+			return serviceComponents;
+		}
+		catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e)
+		{
+			throw new IOException("invalid binary service descriptor", e);
+		}
+	}
+
+	private static void writeString(DataOutputStream out, Map<String,Integer> stringTable, String value) throws IOException
+	{
+		if(value == null)
+		{
+			out.writeInt(NULL_REFERENCE);
+			return;
+		}
+		Integer index = stringTable.get(value);
+		if(index == null)
+		{
+			index = stringTable.size();
+			stringTable.put(value, index);
+		}
+		out.writeInt(index);
+	}
+
+	private static String readString(ByteBuffer buffer, String[] stringTable)
+	{
+		int index = buffer.getInt();
+		return index == NULL_REFERENCE ? null : stringTable[index];
+	}
+}
@@ -10,31 +10,34 @@
  *******************************************************************************/
 package org.sodeac.maven;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
 
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamWriter;
 
-import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
 import org.apache.maven.project.MavenProject;
 
-import spoon.MavenLauncher;
 import spoon.reflect.CtModel;
 import spoon.reflect.code.CtExpression;
 import spoon.reflect.code.CtNewArray;
@@ -42,28 +45,84 @@ import spoon.reflect.declaration.CtAnnotation;
 import spoon.reflect.declaration.CtClass;
 import spoon.reflect.declaration.CtElement;
 import spoon.reflect.declaration.CtType;
+import spoon.reflect.factory.Factory;
 import spoon.reflect.reference.CtFieldReference;
 import spoon.reflect.reference.CtPackageReference;
 import spoon.reflect.reference.CtTypeReference;
 
-@Mojo(name = "generate-service-descriptor", defaultPhase = LifecyclePhase.GENERATE_RESOURCES)
-public class ServiceDescriptorMojo extends AbstractMojo
+@Mojo(name = "generate-service-descriptor", defaultPhase = LifecyclePhase.GENERATE_RESOURCES, requiresDependencyResolution = ResolutionScope.COMPILE)
+public class ServiceDescriptorMojo extends AbstractSpoonModelMojo
 {
 	// mvn org.sodeac:org.sodeac.mvn.plugin:generate-service-descriptor
 	
+	private static final String GOAL = "generate-service-descriptor";
+	
 	public static final String DEFAULT_LOCAL_FACTORY = "org.sodeac.common.impl.NodeConfigurationImpl$LocalServiceFactory";
 	public static final String NO_REQUIRED_CONFIGURATION = "org.sodeac.common.annotation.ServiceFactory$NoRequiredConfiguration";
 	public static final String DEFAULT_REGISTRATION_NAME = "<REPLACED__BY__CLASS__NAME>";
 	public static final String DEFAULT_REGISTRATION_DOMAIN = "<REPLACED__BY__PACKAGE__NAME>";
+	public static final String DEFAULT_PROPERTY_KEY_PREFIX = "<UNNAMED__PROPERTY__";
+	
+	public static final String SERVICE_INDEX_FILE_NAME = "service-index.xml";
+	public static final String BINARY_SERVICE_INDEX_FILE_NAME = "service-index.sdcb";
+	
+	private static final String NAMESPACE = "http://www.sodeac.org/xmlns/serviceregistration/v1.0.0";
 	
 	@Parameter(property = "srv-descriptor-dir", defaultValue = "${basedir}/src/main/resources/SDC-INF")
 	private String outputdir;
- 
-	@Parameter(property = "project", readonly = true)
-	private MavenProject project;
+	
+	/**
+	 * Write descriptor file for each service factory class.
+	 */
+	@Parameter(property = "srv-class-descriptors", defaultValue = "true")
+	private boolean classDescriptors;
+	
+	/**
+	 * Write all service components of module into single index file {@value #SERVICE_INDEX_FILE_NAME} in descriptor directory.
+	 * The service components are children of root element in order of class names, so that the index can be read by a streaming parser.
+	 */
+	@Parameter(property = "srv-index", defaultValue = "false")
+	private boolean serviceIndex;
+	
+	/**
+	 * Write all service components of module into single file {@value #BINARY_SERVICE_INDEX_FILE_NAME} in descriptor directory, 
+	 * encoded in compact binary format of {@link ServiceDescriptorBinaryFormat}.
+	 */
+	@Parameter(property = "srv-binary-index", defaultValue = "false")
+	private boolean binaryIndex;
+	
+	/**
+	 * Qualified name of service registry class to generate. The class contains metadata of all service components of module 
+	 * with class literals instead of class names, so that the runtime does not need to parse descriptors and load classes by name.
+	 * If not set, no registry class is generated.
+	 */
+	@Parameter(property = "srv-registry-class")
+	private String registryClass;
+	
+	@Parameter(property = "srv-registry-dir", defaultValue = "${project.build.directory}/generated-sources/sodeac")
+	private String registryOutputdir;
+	
+	@Parameter(property = "header", defaultValue = "// auto-generated code - do not edit this file")
+	private String header;
 
+	/**
+	 * Configures mojo for executions without maven with descriptors of service classes and service index.
+	 */
+	@Override
+	void configureStandalone(MavenProject project, File outputDirectory)
+	{
+		super.configureStandalone(project, outputDirectory);
+		this.outputdir = outputDirectory.getPath();
+		this.classDescriptors = true;
+		this.serviceIndex = true;
+		this.registryOutputdir = new File(project.getBuild().getDirectory(), "generated-sources/sodeac").getPath();
+		this.header = "// auto-generated code - do not edit this file";
+	}
+	
 	public void execute() throws MojoExecutionException, MojoFailureException
 	{
+		long executionStart = System.nanoTime();
+		
 		try
 		{
 			File outputDirFile = new File(outputdir);
@@ -71,20 +130,62 @@ public class ServiceDescriptorMojo extends AbstractMojo
 			{
 				outputDirFile.mkdirs();
 			}
-			else
+			
+			Set<File> expectedFiles = new HashSet<>();
+			GeneratedFileWriter fileWriter = new GeneratedFileWriter();
+			
+			File registryDirFile = new File(registryOutputdir);
+			boolean generateRegistry = (registryClass != null) && (! registryClass.trim().isEmpty());
+			
+			GenerationCache cache = openGenerationCache(GOAL, getProjectRelativePath(outputdir) + "|" + classDescriptors + "|" + serviceIndex + "|" + binaryIndex);
+			GenerationCache registryCache = null;
+			if((cache != null) && generateRegistry)
+			{
+				registryCache = openGenerationCache(GOAL + "-registry", getProjectRelativePath(registryOutputdir) + "|" + registryClass.trim() + "|" + header);
+			}
+			
+			// restore only, if cache contains descriptors and registry, otherwise generate all
+			
+			if((cache != null) && cache.contains() && ((registryCache == null) || registryCache.contains()))
 			{
-				for(File file :outputDirFile.listFiles())
+				GeneratedFileWriter restoreWriter = new GeneratedFileWriter();
+				List<File> restoredFiles = cache.restore(outputDirFile, restoreWriter);
+				List<File> restoredRegistryFiles = registryCache == null ? null : registryCache.restore(registryDirFile, restoreWriter);
+				if((restoredFiles != null) && ((registryCache == null) || (restoredRegistryFiles != null)))
 				{
-					file.delete();
+					expectedFiles.addAll(restoredFiles);
+					int removedCount = removeStaleFiles(outputDirFile, expectedFiles);
+					getLog().info("restore " + restoredFiles.size() + " service descriptors from generation cache " + cache.getKey() + ", " + removedCount + " stale files removed");
+					
+					if(registryCache != null)
+					{
+						addGeneratedSourceRoot(registryDirFile);
+					}
+					
+					report.setCount(GenerationReport.COUNT_CACHE_HIT, 1);
+					report.setCount(GenerationReport.COUNT_FILES_WRITTEN, restoreWriter.getWrittenCount());
+					report.setCount(GenerationReport.COUNT_FILES_UNCHANGED, restoreWriter.getSkippedCount());
+					report.setCount(GenerationReport.COUNT_FILES_REMOVED, removedCount);
+					report.endPhase(GenerationReport.PHASE_TOTAL, executionStart);
+					publishReport(GOAL);
+					return;
 				}
+				
+				// entry evicted by concurrent build, generated files overwrite restored files
+				
+				getLog().info("generation cache entry evicted while restoring, generate service descriptors");
 			}
 			
-			MavenLauncher launcher = new MavenLauncher(project.getBasedir().getCanonicalPath(), MavenLauncher.SOURCE_TYPE.APP_SOURCE);
-			launcher.buildModel();
-			CtModel model = launcher.getModel();
+			CtModel model = getModel();
+			
+			long phaseStart = System.nanoTime();
 			
-			for(CtType<?> s : model.getAllTypes()) 
+			List<CtClass> serviceFactoryClassList = new ArrayList<>();
+			
+			for(CtType<?> s : getProjectTypes(model)) 
 			{
+				report.addCount(GenerationReport.COUNT_TYPES_SCANNED, 1);
+				
 				if(! (s instanceof CtClass))
 				{
 					continue;
@@ -105,412 +206,922 @@ public class ServiceDescriptorMojo extends AbstractMojo
 					continue;
 				}
 				
-				Map<String,Object> defaultProperties = new HashMap<String, Object>();
-				
-				parseProperties(javaClass.getAnnotations(), defaultProperties);
-				String defaultVersion = parseVersionFromList(javaClass.getAnnotations());
+				serviceFactoryClassList.add(javaClass);
+			}
+			
+			report.endPhase(GenerationReport.PHASE_SCAN, phaseStart);
+			
+			Collections.sort(serviceFactoryClassList, (c1, c2) -> c1.getQualifiedName().compareTo(c2.getQualifiedName()));
+			
+			// spoon model is not thread safe, parse service components one after another and render and write descriptors in parallel
+			
+			phaseStart = System.nanoTime();
+			List<ServiceComponentDescriptor> serviceComponentList = new ArrayList<>();
+			for(CtClass<?> javaClass : serviceFactoryClassList)
+			{
+				ServiceComponentDescriptor serviceComponent = parseServiceComponent(javaClass);
+				if(reproducibleCheck && (! serviceComponent.equals(parseServiceComponent(javaClass))))
+				{
+					throw new IllegalStateException("service component of " + javaClass.getQualifiedName() + " is not reproducible, two successive parses differ");
+				}
+				serviceComponentList.add(serviceComponent);
+			}
+			report.endPhase(GenerationReport.PHASE_RENDER, phaseStart);
+			
+			byte[] prologue = renderPrologue();
+			
+			byte[][] serviceComponentFragments = new byte[serviceComponentList.size()][];
+			
+			List<Callable<Void>> renderTaskList = new ArrayList<>();
+			for(ServiceComponentDescriptor serviceComponent : serviceComponentList)
+			{
+				int index = renderTaskList.size();
+				File outFile = new File(outputDirFile,serviceComponent.getClassName() + ".xml");
+				if(classDescriptors)
+				{
+					expectedFiles.add(outFile);
+				}
 				
-				String namespace = "http://www.sodeac.org/xmlns/serviceregistration/v1.0.0";
-				FileOutputStream os = null;
-				try
+				renderTaskList.add(() -> 
 				{
-					String className = javaClass.getQualifiedName();
-					File outFile = new File(outputDirFile,className + ".xml");
-					os = new FileOutputStream(outFile);
-					XMLStreamWriter out = XMLOutputFactory.newInstance().createXMLStreamWriter( new OutputStreamWriter(os, "UTF-8"));
-					try
+					long renderStart = System.nanoTime();
+					if(classDescriptors || serviceIndex)
 					{
-						out.setDefaultNamespace(namespace);
-						out.writeStartDocument("UTF-8", "1.0");
-						
-						out.writeCharacters("\n");
-						out.writeStartElement(namespace,"servicecomponent");
-						out.writeDefaultNamespace(namespace);
-						out.writeAttribute("type", "org.sodeac.common");
-						out.writeCharacters("\n");
-						
-						out.writeCharacters("  ");out.writeStartElement(namespace, "factories");
-						out.writeCharacters("\n");
-						
-						List<ServiceRegistration> serviceRegistrationList = new ArrayList<>();
-						parseServiceRegistration(javaClass.getAnnotations(), serviceRegistrationList);
+						serviceComponentFragments[index] = render(serviceComponent.getClassName(), () -> renderServiceComponent(serviceComponent));
+					}
+					report.endPhase(GenerationReport.PHASE_RENDER, renderStart);
+					
+					if(classDescriptors)
+					{
+						ByteArrayOutputStream content = new ByteArrayOutputStream(prologue.length + serviceComponentFragments[index].length);
+						content.write(prologue);
+						content.write(serviceComponentFragments[index]);
+						report.addCount(GenerationReport.COUNT_BYTES_EMITTED, content.size());
 						
-						for(CtAnnotation<? extends Annotation> annotation : javaClass.getAnnotations())
+						long writeStart = System.nanoTime();
+						fileWriter.write(outFile, content.toByteArray());
+						report.endPhase(GenerationReport.PHASE_WRITE, writeStart);
+					}
+					return null;
+				});
+			}
+			
+			GenerationWorkerPool.invokeAll(renderTaskList, getThreadCount());
+			
+			if(serviceIndex)
+			{
+				File indexFile = new File(outputDirFile, SERVICE_INDEX_FILE_NAME);
+				expectedFiles.add(indexFile);
+				
+				long renderStart = System.nanoTime();
+				byte[] content = render(SERVICE_INDEX_FILE_NAME, () -> renderServiceIndex(prologue, serviceComponentList, serviceComponentFragments));
+				report.endPhase(GenerationReport.PHASE_RENDER, renderStart);
+				report.addCount(GenerationReport.COUNT_BYTES_EMITTED, content.length);
+				
+				long writeStart = System.nanoTime();
+				fileWriter.write(indexFile, content);
+				report.endPhase(GenerationReport.PHASE_WRITE, writeStart);
+			}
+			
+			if(binaryIndex)
+			{
+				File binaryIndexFile = new File(outputDirFile, BINARY_SERVICE_INDEX_FILE_NAME);
+				expectedFiles.add(binaryIndexFile);
+				
+				long renderStart = System.nanoTime();
+				byte[] content = render(BINARY_SERVICE_INDEX_FILE_NAME, () -> ServiceDescriptorBinaryFormat.write(serviceComponentList));
+				report.endPhase(GenerationReport.PHASE_RENDER, renderStart);
+				report.addCount(GenerationReport.COUNT_BYTES_EMITTED, content.length);
+				
+				long writeStart = System.nanoTime();
+				fileWriter.write(binaryIndexFile, content);
+				report.endPhase(GenerationReport.PHASE_WRITE, writeStart);
+			}
+			
+			if(generateRegistry)
+			{
+				String registryClassName = registryClass.trim();
+				File registryFile = new File(registryDirFile, registryClassName.replace('.', '/') + ".java");
+				
+				long renderStart = System.nanoTime();
+				byte[] content = render(registryClassName, () -> generateServiceRegistry(registryClassName, serviceComponentList, model.getRootPackage().getFactory()).getBytes());
+				report.endPhase(GenerationReport.PHASE_RENDER, renderStart);
+				report.addCount(GenerationReport.COUNT_BYTES_EMITTED, content.length);
+				
+				long writeStart = System.nanoTime();
+				fileWriter.write(registryFile, content);
+				report.endPhase(GenerationReport.PHASE_WRITE, writeStart);
+				
+				getLog().info("Generate service registry " + registryClassName);
+				
+				if(registryCache != null)
+				{
+					registryCache.store(registryDirFile, Collections.singletonList(registryFile));
+				}
+				
+				addGeneratedSourceRoot(registryDirFile);
+			}
+			
+			int removedCount = removeStaleFiles(outputDirFile, expectedFiles);
+			
+			getLog().info("service descriptor generation: " + fileWriter + ", " + removedCount + " stale files removed");
+			
+			if(cache != null)
+			{
+				cache.store(outputDirFile, expectedFiles);
+				report.setCount(GenerationReport.COUNT_CACHE_HIT, 0);
+			}
+			
+			report.setCount(GenerationReport.COUNT_CLASSES_GENERATED, renderTaskList.size());
+			report.setCount(GenerationReport.COUNT_FILES_WRITTEN, fileWriter.getWrittenCount());
+			report.setCount(GenerationReport.COUNT_FILES_UNCHANGED, fileWriter.getSkippedCount());
+			report.setCount(GenerationReport.COUNT_FILES_REMOVED, removedCount);
+			report.endPhase(GenerationReport.PHASE_TOTAL, executionStart);
+			
+			publishReport(GOAL);
+		}
+		catch (Exception e) 
+		{
+			throw new MojoExecutionException("error generate service descriptor ",e); 
+		}
+		finally
+		{
+			releaseModel();
+		}
+
+	}
+	
+	private int removeStaleFiles(File outputDirFile, Set<File> expectedFiles)
+	{
+		int removedCount = 0;
+		for(File file : outputDirFile.listFiles())
+		{
+			if(file.isFile() && (! expectedFiles.contains(file)))
+			{
+				if(file.delete())
+				{
+					removedCount++;
+				}
+			}
+		}
+		return removedCount;
+	}
+	
+	private String generateServiceRegistry(String registryClassName, List<ServiceComponentDescriptor> serviceComponentList, Factory typeFactory)
+	{
+		String generatedPackageName = registryClassName.lastIndexOf('.') < 0 ? "" : registryClassName.substring(0, registryClassName.lastIndexOf('.'));
+		String generatedClassName = registryClassName.substring(registryClassName.lastIndexOf('.') + 1);
+		
+		StringBuilder classBuilder = new StringBuilder(this.header + "\n");
+		if(! generatedPackageName.isEmpty())
+		{
+			classBuilder.append("package " + generatedPackageName + ";\n");
+			classBuilder.append("\n");
+		}
+		classBuilder.append("public final class " + generatedClassName + "\n");
+		classBuilder.append("{\n");
+		classBuilder.append("\tpublic static final Component[] COMPONENTS = new Component[]\n");
+		classBuilder.append("\t{\n");
+		
+		for(ServiceComponentDescriptor serviceComponent : serviceComponentList)
+		{
+			classBuilder.append("\t\tnew Component\n");
+			classBuilder.append("\t\t(\n");
+			classBuilder.append("\t\t\t" + javaLiteral(serviceComponent.getClassName()) + ", " + classLiteral(serviceComponent.getClassName(), generatedPackageName, typeFactory) + ",\n");
+			classBuilder.append("\t\t\tnew Factory[]\n");
+			classBuilder.append("\t\t\t{\n");
+			for(ServiceComponentDescriptor.Factory factory : serviceComponent.getFactories())
+			{
+				classBuilder.append("\t\t\t\tnew Factory\n");
+				classBuilder.append("\t\t\t\t(\n");
+				classBuilder.append("\t\t\t\t\t" + factory.getLowerScalingLimit() + ", " + factory.getUpperScalingLimit() + ", " + factory.getInitialScaling() + ", " + factory.isShared() + ",\n");
+				classBuilder.append("\t\t\t\t\t" + javaLiteral(factory.getRequiredConfigurationClass()) + ", " + classLiteral(factory.getRequiredConfigurationClass(), generatedPackageName, typeFactory) + ",\n");
+				classBuilder.append("\t\t\t\t\t" + javaLiteral(factory.getFactoryClass()) + ", " + (DEFAULT_LOCAL_FACTORY.equals(factory.getFactoryClass()) ? "null" : classLiteral(factory.getFactoryClass(), generatedPackageName, typeFactory)) + ",\n");
+				classBuilder.append("\t\t\t\t\tnew Object[] {");
+				boolean first = true;
+				for(Entry<String,Object> propertyEntry : factory.getProperties().entrySet())
+				{
+					classBuilder.append((first ? "" : ", ") + javaLiteral(propertyEntry.getKey()) + ", " + javaLiteral(propertyEntry.getValue()));
+					first = false;
+				}
+				classBuilder.append("},\n");
+				classBuilder.append("\t\t\t\t\tnew Registration[]\n");
+				classBuilder.append("\t\t\t\t\t{\n");
+				for(ServiceComponentDescriptor.Registration registration : factory.getRegistrations())
+				{
+					classBuilder.append("\t\t\t\t\t\tnew Registration(" + javaLiteral(registration.getDomain()) + ", " + javaLiteral(registration.getName()) + ", " + javaLiteral(registration.getVersion()) + ", ");
+					classBuilder.append(javaLiteral(registration.getServiceInterface()) + ", " + classLiteral(registration.getServiceInterface(), generatedPackageName, typeFactory) + "),\n");
+				}
+				classBuilder.append("\t\t\t\t\t}\n");
+				classBuilder.append("\t\t\t\t),\n");
+			}
+			classBuilder.append("\t\t\t},\n");
+			classBuilder.append("\t\t\tnew Reference[]\n");
+			classBuilder.append("\t\t\t{\n");
+			for(ServiceComponentDescriptor.Reference reference : serviceComponent.getReferences())
+			{
+				classBuilder.append("\t\t\t\tnew Reference\n");
+				classBuilder.append("\t\t\t\t(\n");
+				classBuilder.append("\t\t\t\t\t" + javaLiteral(reference.getName()) + ", " + javaLiteral(reference.getServiceType()) + ", " + classLiteral(reference.getServiceType(), generatedPackageName, typeFactory) + ",\n");
+				classBuilder.append("\t\t\t\t\t" + javaLiteral(reference.getServiceName()) + ", " + javaLiteral(reference.getServiceDomain()) + ", " + javaLiteral(reference.getMinVersion()) + ", " + javaLiteral(reference.getBeforeVersion()) + ", " + javaLiteral(reference.getFilter()) + ",\n");
+				classBuilder.append("\t\t\t\t\tnew Preference[]\n");
+				classBuilder.append("\t\t\t\t\t{\n");
+				for(ServiceComponentDescriptor.Preference preference : reference.getPreferences())
+				{
+					classBuilder.append("\t\t\t\t\t\tnew Preference(" + javaLiteral(preference.getScore()) + ", " + javaLiteral(preference.getFilter()) + "),\n");
+				}
+				classBuilder.append("\t\t\t\t\t}\n");
+				classBuilder.append("\t\t\t\t),\n");
+			}
+			classBuilder.append("\t\t\t}\n");
+			classBuilder.append("\t\t),\n");
+		}
+		
+		classBuilder.append("\t};\n");
+		classBuilder.append("\t\n");
+		classBuilder.append("\tprivate " + generatedClassName + "()\n");
+		classBuilder.append("\t{\n");
+		classBuilder.append("\t\tsuper();\n");
+		classBuilder.append("\t}\n");
+		classBuilder.append("\t\n");
+		
+		// metadata types
+		
+		classBuilder.append("\tpublic static final class Component\n");
+		classBuilder.append("\t{\n");
+		classBuilder.append("\t\tprivate Component(String className, Class<?> type, Factory[] factories, Reference[] references)\n");
+		classBuilder.append("\t\t{\n");
+		classBuilder.append("\t\t\tthis.className = className;\n");
+		classBuilder.append("\t\t\tthis.type = type;\n");
+		classBuilder.append("\t\t\tthis.factories = factories;\n");
+		classBuilder.append("\t\t\tthis.references = references;\n");
+		classBuilder.append("\t\t}\n");
+		classBuilder.append("\t\t\n");
+		classBuilder.append("\t\t/** qualified name of service class */\n");
+		classBuilder.append("\t\tpublic final String className;\n");
+		classBuilder.append("\t\t/** service class, or null, if class is not accessible for registry */\n");
+		classBuilder.append("\t\tpublic final Class<?> type;\n");
+		classBuilder.append("\t\tpublic final Factory[] factories;\n");
+		classBuilder.append("\t\tpublic final Reference[] references;\n");
+		classBuilder.append("\t}\n");
+		classBuilder.append("\t\n");
+		
+		classBuilder.append("\tpublic static final class Factory\n");
+		classBuilder.append("\t{\n");
+		classBuilder.append("\t\tprivate Factory(int lowerScalingLimit, int upperScalingLimit, int initialScaling, boolean shared, String requiredConfigurationClassName, Class<?> requiredConfigurationClass, String factoryClassName, Class<?> factoryClass, Object[] properties, Registration[] registrations)\n");
+		classBuilder.append("\t\t{\n");
+		classBuilder.append("\t\t\tthis.lowerScalingLimit = lowerScalingLimit;\n");
+		classBuilder.append("\t\t\tthis.upperScalingLimit = upperScalingLimit;\n");
+		classBuilder.append("\t\t\tthis.initialScaling = initialScaling;\n");
+		classBuilder.append("\t\t\tthis.shared = shared;\n");
+		classBuilder.append("\t\t\tthis.requiredConfigurationClassName = requiredConfigurationClassName;\n");
+		classBuilder.append("\t\t\tthis.requiredConfigurationClass = requiredConfigurationClass;\n");
+		classBuilder.append("\t\t\tthis.factoryClassName = factoryClassName;\n");
+		classBuilder.append("\t\t\tthis.factoryClass = factoryClass;\n");
+		classBuilder.append("\t\t\tthis.properties = properties;\n");
+		classBuilder.append("\t\t\tthis.registrations = registrations;\n");
+		classBuilder.append("\t\t}\n");
+		classBuilder.append("\t\t\n");
+		classBuilder.append("\t\tpublic final int lowerScalingLimit;\n");
+		classBuilder.append("\t\tpublic final int upperScalingLimit;\n");
+		classBuilder.append("\t\tpublic final int initialScaling;\n");
+		classBuilder.append("\t\tpublic final boolean shared;\n");
+		classBuilder.append("\t\t/** qualified name of required configuration class, or null */\n");
+		classBuilder.append("\t\tpublic final String requiredConfigurationClassName;\n");
+		classBuilder.append("\t\tpublic final Class<?> requiredConfigurationClass;\n");
+		classBuilder.append("\t\tpublic final String factoryClassName;\n");
+		classBuilder.append("\t\t/** factory class, or null, if default factory is used or class is not accessible for registry */\n");
+		classBuilder.append("\t\tpublic final Class<?> factoryClass;\n");
+		classBuilder.append("\t\t/** alternating keys and values (String, Boolean, Long or Double) */\n");
+		classBuilder.append("\t\tpublic final Object[] properties;\n");
+		classBuilder.append("\t\tpublic final Registration[] registrations;\n");
+		classBuilder.append("\t}\n");
+		classBuilder.append("\t\n");
+		
+		classBuilder.append("\tpublic static final class Registration\n");
+		classBuilder.append("\t{\n");
+		classBuilder.append("\t\tprivate Registration(String domain, String name, String version, String serviceInterfaceName, Class<?> serviceInterface)\n");
+		classBuilder.append("\t\t{\n");
+		classBuilder.append("\t\t\tthis.domain = domain;\n");
+		classBuilder.append("\t\t\tthis.name = name;\n");
+		classBuilder.append("\t\t\tthis.version = version;\n");
+		classBuilder.append("\t\t\tthis.serviceInterfaceName = serviceInterfaceName;\n");
+		classBuilder.append("\t\t\tthis.serviceInterface = serviceInterface;\n");
+		classBuilder.append("\t\t}\n");
+		classBuilder.append("\t\t\n");
+		classBuilder.append("\t\tpublic final String domain;\n");
+		classBuilder.append("\t\tpublic final String name;\n");
+		classBuilder.append("\t\tpublic final String version;\n");
+		classBuilder.append("\t\tpublic final String serviceInterfaceName;\n");
+		classBuilder.append("\t\tpublic final Class<?> serviceInterface;\n");
+		classBuilder.append("\t}\n");
+		classBuilder.append("\t\n");
+		
+		classBuilder.append("\tpublic static final class Reference\n");
+		classBuilder.append("\t{\n");
+		classBuilder.append("\t\tprivate Reference(String name, String serviceTypeName, Class<?> serviceType, String serviceName, String serviceDomain, String minVersion, String beforeVersion, String filter, Preference[] preferences)\n");
+		classBuilder.append("\t\t{\n");
+		classBuilder.append("\t\t\tthis.name = name;\n");
+		classBuilder.append("\t\t\tthis.serviceTypeName = serviceTypeName;\n");
+		classBuilder.append("\t\t\tthis.serviceType = serviceType;\n");
+		classBuilder.append("\t\t\tthis.serviceName = serviceName;\n");
+		classBuilder.append("\t\t\tthis.serviceDomain = serviceDomain;\n");
+		classBuilder.append("\t\t\tthis.minVersion = minVersion;\n");
+		classBuilder.append("\t\t\tthis.beforeVersion = beforeVersion;\n");
+		classBuilder.append("\t\t\tthis.filter = filter;\n");
+		classBuilder.append("\t\t\tthis.preferences = preferences;\n");
+		classBuilder.append("\t\t}\n");
+		classBuilder.append("\t\t\n");
+		classBuilder.append("\t\tpublic final String name;\n");
+		classBuilder.append("\t\tpublic final String serviceTypeName;\n");
+		classBuilder.append("\t\tpublic final Class<?> serviceType;\n");
+		classBuilder.append("\t\tpublic final String serviceName;\n");
+		classBuilder.append("\t\tpublic final String serviceDomain;\n");
+		classBuilder.append("\t\tpublic final String minVersion;\n");
+		classBuilder.append("\t\tpublic final String beforeVersion;\n");
+		classBuilder.append("\t\tpublic final String filter;\n");
+		classBuilder.append("\t\tpublic final Preference[] preferences;\n");
+		classBuilder.append("\t}\n");
+		classBuilder.append("\t\n");
+		
+		classBuilder.append("\tpublic static final class Preference\n");
+		classBuilder.append("\t{\n");
+		classBuilder.append("\t\tprivate Preference(String score, String filter)\n");
+		classBuilder.append("\t\t{\n");
+		classBuilder.append("\t\t\tthis.score = score;\n");
+		classBuilder.append("\t\t\tthis.filter = filter;\n");
+		classBuilder.append("\t\t}\n");
+		classBuilder.append("\t\t\n");
+		classBuilder.append("\t\tpublic final String score;\n");
+		classBuilder.append("\t\tpublic final String filter;\n");
+		classBuilder.append("\t}\n");
+		classBuilder.append("}\n");
+		
+		return classBuilder.toString();
+	}
+	
+	private String classLiteral(String className, String registryPackageName, Factory typeFactory)
+	{
+		if(className == null)
+		{
+			return "null";
+		}
+		
+		// classes of module, that are not visible for registry class, are referenced by name only
+		
+		CtType<?> type = typeFactory.Type().get(className);
+		if((type != null) && (! registryPackageName.equals(type.getPackage() == null ? "" : type.getPackage().getQualifiedName())))
+		{
+			for(CtType<?> declaringType = type; declaringType != null; declaringType = declaringType.getDeclaringType())
+			{
+				if(! declaringType.isPublic())
+				{
+					return "null";
+				}
+			}
+		}
+		return className.replace('$', '.') + ".class";
+	}
+	
+	private String javaLiteral(Object value)
+	{
+		if(value == null)
+		{
+			return "null";
+		}
+		if(value instanceof Boolean)
+		{
+			return value.toString();
+		}
+		if(value instanceof Long)
+		{
+			return value.toString() + "L";
+		}
+		if(value instanceof Double)
+		{
+			Double doubleValue = (Double)value;
+			if(doubleValue.isNaN())
+			{
+				return "Double.NaN";
+			}
+			if(doubleValue.isInfinite())
+			{
+				return doubleValue > 0 ? "Double.POSITIVE_INFINITY" : "Double.NEGATIVE_INFINITY";
+			}
+			return value.toString() + "d";
+		}
+		
+		StringBuilder literalBuilder = new StringBuilder("\"");
+		for(char c : value.toString().toCharArray())
+		{
+			switch (c)
+			{
+				case '"':
+					literalBuilder.append("\\\"");
+					break;
+				case '\\':
+					literalBuilder.append("\\\\");
+					break;
+				case '\n':
+					literalBuilder.append("\\n");
+					break;
+				case '\r':
+					literalBuilder.append("\\r");
+					break;
+				case '\t':
+					literalBuilder.append("\\t");
+					break;
+				default:
+					if((c < 0x20) || (c > 0x7e))
+					{
+						literalBuilder.append(String.format("\\u%04x", (int)c));
+					}
+					else
+					{
+						literalBuilder.append(c);
+					}
+			}
+		}
+		literalBuilder.append("\"");
+		return literalBuilder.toString();
+	}
+	
+	byte[] renderPrologue() throws Exception
+	{
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		XMLStreamWriter out = XMLOutputFactory.newInstance().createXMLStreamWriter( new OutputStreamWriter(os, "UTF-8"));
+		try
+		{
+			out.writeStartDocument("UTF-8", "1.0");
+			out.writeCharacters("\n");
+			out.flush();
+		}
+		finally 
+		{
+			out.close();
+		}
+		
+		return os.toByteArray();
+	}
+	
+	byte[] renderServiceIndex(byte[] prologue, List<ServiceComponentDescriptor> serviceComponentList, byte[][] serviceComponentFragments) throws Exception
+	{
+		// service components are rendered as fragments already, the index only wraps them 
+		
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		os.write(prologue);
+		os.write(("<serviceindex xmlns=\"" + NAMESPACE + "\" type=\"org.sodeac.common\" size=\"" + serviceComponentList.size() + "\">\n").getBytes(StandardCharsets.UTF_8));
+		for(int i = 0; i < serviceComponentList.size(); i++)
+		{
+			os.write(("<service class=\"" + escapeAttribute(serviceComponentList.get(i).getClassName()) + "\">\n").getBytes(StandardCharsets.UTF_8));
+			os.write(serviceComponentFragments[i]);
+			os.write("\n</service>\n".getBytes(StandardCharsets.UTF_8));
+		}
+		os.write("</serviceindex>".getBytes(StandardCharsets.UTF_8));
+		return os.toByteArray();
+	}
+	
+	private static String escapeAttribute(String value)
+	{
+		StringBuilder builder = new StringBuilder(value.length());
+		for(char c : value.toCharArray())
+		{
+			switch (c)
+			{
+				case '&':
+					builder.append("&amp;");
+					break;
+				case '<':
+					builder.append("&lt;");
+					break;
+				case '>':
+					builder.append("&gt;");
+					break;
+				case '"':
+					builder.append("&quot;");
+					break;
+				case '\t':
+				case '\n':
+				case '\r':
+					builder.append("&#" + (int)c + ";");
+					break;
+				default:
+					builder.append(c);
+			}
+		}
+		return builder.toString();
+	}
+	
+	private ServiceComponentDescriptor parseServiceComponent(CtClass javaClass)
+	{
+		ServiceComponentDescriptor serviceComponent = new ServiceComponentDescriptor(javaClass.getQualifiedName());
+		
+		Map<String,Object> defaultProperties = new HashMap<String, Object>();
+		
+		parseProperties(javaClass.getAnnotations(), defaultProperties);
+		String defaultVersion = parseVersionFromList(javaClass.getAnnotations());
+		
+		List<ServiceRegistration> serviceRegistrationList = new ArrayList<>();
+		parseServiceRegistration(javaClass.getAnnotations(), serviceRegistrationList);
+		
+		for(CtAnnotation<? extends Annotation> annotation : javaClass.getAnnotations())
+		{
+			if("org.sodeac.common.annotation.ServiceFactory".equals(annotation.getAnnotationType().getQualifiedName()))
+			{
+				int lowerScalingLimit = 1;
+				int upperScalingLimit = 1;
+				int initialScaling = 0;
+				boolean shared = true;
+				String requiredConfigurationClass = "";
+				String factoryClass = DEFAULT_LOCAL_FACTORY;
+				
+				List<ServiceRegistration> currentServiceRegistrationList = new ArrayList<>(serviceRegistrationList);
+				
+				Map<String,Object> properties = new HashMap<>(defaultProperties);
+				
+				for(Entry<String,CtExpression> valEntry : annotation.getValues().entrySet())
+				{
+					if(valEntry.getKey().endsWith("Property"))
+					{
+						if(valEntry.getValue() instanceof CtNewArray)
 						{
-							if("org.sodeac.common.annotation.ServiceFactory".equals(annotation.getAnnotationType().getQualifiedName()))
-							{
-								int lowerScalingLimit = 1;
-								int upperScalingLimit = 1;
-								int initialScaling = 0;
-								boolean shared = true;
-								String requiredConfigurationClass = "";
-								String factoryClass = DEFAULT_LOCAL_FACTORY;
-								
-								List<ServiceRegistration> currentServiceRegistrationList = new ArrayList<>(serviceRegistrationList);
-								
-								Map<String,Object> properties = new HashMap<>(defaultProperties);
-								
-								for(Entry<String,CtExpression> valEntry : annotation.getValues().entrySet())
-								{
-									if(valEntry.getKey().endsWith("Property"))
-									{
-										if(valEntry.getValue() instanceof CtNewArray)
-										{
-											parseProperties(((CtNewArray)valEntry.getValue()).getElements(), properties);
-										}
-										else
-										{
-											parseProperties((List)Arrays.asList(new CtExpression[] {valEntry.getValue()}), properties);	
-										}
-									}
-									else if("registrations".equals(valEntry.getKey()))
-									{
-										if(valEntry.getValue() instanceof CtNewArray)
-										{
-											parseServiceRegistration(((CtNewArray)valEntry.getValue()).getElements(), currentServiceRegistrationList);
-										}
-										else
-										{
-											parseServiceRegistration((List)Arrays.asList(new CtExpression[] {valEntry.getValue()}), currentServiceRegistrationList);	
-										}
-									}
-									else if("lowerScalingLimit".equals(valEntry.getKey()))
-									{
-										try
-										{
-											lowerScalingLimit = Integer.parseInt(valEntry.getValue().toString().trim());
-										}
-										catch (Exception e) {}
-									}
-									else if("upperScalingLimit".equals(valEntry.getKey()))
-									{
-										try
-										{
-											upperScalingLimit = Integer.parseInt(valEntry.getValue().toString().trim());
-										}
-										catch (Exception e) {}
-									}
-									else if("initialScaling".equals(valEntry.getKey()))
-									{
-										try
-										{
-											initialScaling = Integer.parseInt(valEntry.getValue().toString().trim());
-										}
-										catch (Exception e) {}
-									}
-									else if("shared".equals(valEntry.getKey()))
-									{
-										try
-										{
-											shared = Boolean.parseBoolean(valEntry.getValue().toString().trim());
-										}
-										catch (Exception e) {}
-									}
-									else if("requiredConfigurationClass".equals(valEntry.getKey()))
-									{
-										try
-										{
-											requiredConfigurationClass = expressionToClassNameDefinition(valEntry.getValue()).toString();
-											if(NO_REQUIRED_CONFIGURATION.equals(requiredConfigurationClass))
-											{
-												requiredConfigurationClass = "";
-											}
-										}
-										catch (Exception e) {}
-									}
-									else if("factoryClass".equals(valEntry.getKey()))
-									{
-										try
-										{
-											factoryClass = expressionToClassNameDefinition(valEntry.getValue()).toString();
-										}
-										catch (Exception e) {}
-									}
-									
-								}
-								
-								out.writeCharacters("    ");out.writeStartElement(namespace, "factory");
-								out.writeAttribute("lower-scaling-limit", Integer.toString(lowerScalingLimit));
-								out.writeAttribute("upper-scaling-limit", Integer.toString(upperScalingLimit));
-								out.writeAttribute("initial-scaling", Integer.toString(initialScaling));
-								out.writeAttribute("shared", Boolean.toString(shared));
-								if(! requiredConfigurationClass.isEmpty())
-								{
-									out.writeAttribute("require-configuration-class", requiredConfigurationClass);
-								}
-								out.writeAttribute("class",factoryClass);
-								out.writeCharacters("\n");
-								
-								
-								for(Entry<String,Object> propertyEntry : properties.entrySet())
-								{
-									out.writeCharacters("      ");out.writeStartElement(namespace, "property");
-									
-									String type = "string";
-									
-									if(propertyEntry.getValue() instanceof Boolean)
-									{
-										type = "boolean";
-									}
-									else if(propertyEntry.getValue() instanceof Long)
-									{
-										type = "int";
-									}
-									else if(propertyEntry.getValue() instanceof Double)
-									{
-										type = "dec";
-									}
-									
-									out.writeAttribute("key", propertyEntry.getKey());
-									out.writeAttribute("type", type);
-									out.writeCharacters(propertyEntry.getValue().toString());
-									
-									out.writeEndElement(); // property
-									out.writeCharacters("\n");
-								}
-								
-								for(ServiceRegistration serviceRegistration : currentServiceRegistrationList)
-								{
-									List<ClassNameDefinition> definitionList = new ArrayList<>(serviceRegistration.getServiceTypes());
-									if(definitionList.isEmpty())
-									{
-										definitionList.add(new ClassNameDefinition(javaClass.getPackage().getQualifiedName(), javaClass.getQualifiedName().substring(javaClass.getPackage().getQualifiedName().length() + 1)));
-									}
-									
-									String domain = serviceRegistration.getDomain();
-									String name = serviceRegistration.getName();
-									String version = serviceRegistration.getVersion();
-									
-									if(version == null)
-									{
-										version = defaultVersion;
-									}
-									
-									if(version == null)
-									{
-										version = "1.0.0";
-									}
-									
-									for(ClassNameDefinition classNameDefinition : definitionList)
-									{
-										out.writeCharacters("      ");out.writeStartElement(namespace, "registration");
-										
-										out.writeAttribute("domain", DEFAULT_REGISTRATION_DOMAIN.equals(domain) ? classNameDefinition.getPackageName() : domain);
-										out.writeAttribute("name", DEFAULT_REGISTRATION_NAME.equals(name) ? classNameDefinition.getClassName() : name);
-										out.writeAttribute("version", version);
-										out.writeAttribute("interface", classNameDefinition.toString());
-										out.writeEndElement(); // registration
-										out.writeCharacters("\n");
-									}
-									
-								}
-								
-								out.writeCharacters("    ");out.writeEndElement(); // factory
-								out.writeCharacters("\n");
-							}
+							parseProperties(((CtNewArray<?>)valEntry.getValue()).getElements(), properties);
 						}
-						
-						out.writeCharacters("  ");out.writeEndElement(); // factories
-						out.writeCharacters("\n");
-						
-						boolean referenceElementCreated = false;
-						
-						for(CtFieldReference field : javaClass.getAllFields())
+						else
 						{
-							if(! "org.sodeac.common.IService$IServiceProvider".equals(field.getType().getQualifiedName()))
-							{
-								continue;
-							}
-							
-							if(! referenceElementCreated)
-							{
-								referenceElementCreated = true;
-								
-								out.writeCharacters("  ");out.writeStartElement(namespace, "references");
-								out.writeCharacters("\n");
-							}
-							
-							
-							
-							CtTypeReference reference = (CtTypeReference)field.getType();
-							String typeQualifiedName = null;
-							String typePackage = null;
-							String typeName = null;
-							
-							if(reference.getActualTypeArguments().size() == 1)
-							{
-								CtTypeReference ref = reference.getActualTypeArguments().get(0);
-								
-								typeQualifiedName = ref.getQualifiedName();
-								for(CtElement element : ref.asIterable())
-								{
-									if(element instanceof CtTypeReference)
-									{
-										typeName = ((CtTypeReference)element).getSimpleName(); // TODO  qualified - package ??? QualifiedName().substring(packageName.length() + 1 );
-									}
-									if(element instanceof CtPackageReference)
-									{
-										typePackage = ((CtPackageReference)element).getQualifiedName();
-									}
-								}
-							}
-							
-							String addressDomain = "";
-							String addressName = "";
-							String addressMinVersion = null;
-							String addressBeforeVersion = null;
-							String addressFilter = null;
-							
-							boolean preferences = false;
-							
-							for(CtAnnotation<? extends Annotation> annotation : field.getDeclaration().getAnnotations())
-							{
-								if("org.sodeac.common.annotation.ServicePreference".equals(annotation.getAnnotationType().getQualifiedName()))
-								{
-									preferences = true;
-								}
-							}
-							
-							for(CtAnnotation<? extends Annotation> annotation : field.getDeclaration().getAnnotations())
-							{
-								if("org.sodeac.common.annotation.ServiceAddress".equals(annotation.getAnnotationType().getQualifiedName()))
-								{
-									for(Entry<String,CtExpression> valEntry : annotation.getValues().entrySet())
-									{
-										if("name".equals(valEntry.getKey()))
-										{
-											addressName = parseAnnotationString(valEntry.getValue().toString());
-										}
-										else if("domain".equals(valEntry.getKey()))
-										{
-											addressDomain = parseAnnotationString(valEntry.getValue().toString());
-										}
-										else if("filter".equals(valEntry.getKey()))
-										{
-											addressFilter = parseAnnotationString(valEntry.getValue().toString());
-										}
-										else if("minVersion".equals(valEntry.getKey()))
-										{
-											addressMinVersion = parseVersion((CtAnnotation)valEntry.getValue());
-										}
-										else if("beforeVersion".equals(valEntry.getKey()))
-										{
-											addressBeforeVersion = parseVersion((CtAnnotation)valEntry.getValue());
-										}
-									}
-								}
-							}
-							
-							if(((addressName == null) || addressName.isEmpty()) && (typeName != null) && (! typeName.isEmpty()))
-							{
-								addressName = typeName;
-							}
-							
-							if(((addressDomain == null) || addressDomain.isEmpty()) && (typePackage != null) && (! typePackage.isEmpty()))
-							{
-								addressDomain = typePackage;
-							}
-							
-							out.writeCharacters("    ");out.writeStartElement(namespace, "reference");
-							
-							out.writeAttribute("name", field.getSimpleName()); // TODO qualified - Package ???? - QualifiedName().substring(packageName.length() + 1 );
-							out.writeAttribute("service-type", typeQualifiedName);
-							
-							out.writeAttribute("service-name", addressName);
-							out.writeAttribute("service-domain", addressDomain);
-							
-							if(addressMinVersion != null)
-							{
-								out.writeAttribute("service-min-version", addressMinVersion);
-							}
-							if(addressBeforeVersion != null)
-							{
-								out.writeAttribute("service-before-version", addressBeforeVersion);
-							}
-							if((addressFilter != null) && (! addressFilter.isEmpty()))
-							{
-								out.writeAttribute("service-filter", addressFilter);
-							}
-							
-							if(preferences)
-							{
-								out.writeCharacters("\n");
-								
-								for(CtAnnotation<? extends Annotation> annotation : field.getDeclaration().getAnnotations())
-								{
-									if("org.sodeac.common.annotation.ServicePreference".equals(annotation.getAnnotationType().getQualifiedName()))
-									{
-										out.writeCharacters("      ");out.writeStartElement(namespace, "preference");
-										
-										for(Entry<String,CtExpression> valEntry : annotation.getValues().entrySet())
-										{
-											if("score".equals(valEntry.getKey()))
-											{
-												out.writeAttribute("score",valEntry.getValue().toString());
-											}
-										}
-										
-										for(Entry<String,CtExpression> valEntry : annotation.getValues().entrySet())
-										{
-											if("filter".equals(valEntry.getKey()))
-											{
-												out.writeCharacters(parseAnnotationString(valEntry.getValue().toString()));
-											}
-										}
-										
-										out.writeEndElement(); // preference
-										out.writeCharacters("\n");
-									}
-								}
-								
-								out.writeCharacters("    ");out.writeEndElement(); // reference
-								out.writeCharacters("\n");
-							}
-							else
+							parseProperties(Collections.<CtExpression<?>>singletonList(valEntry.getValue()), properties);	
+						}
+					}
+					else if("registrations".equals(valEntry.getKey()))
+					{
+						if(valEntry.getValue() instanceof CtNewArray)
+						{
+							parseServiceRegistration(((CtNewArray<?>)valEntry.getValue()).getElements(), currentServiceRegistrationList);
+						}
+						else
+						{
+							parseServiceRegistration(Collections.<CtExpression<?>>singletonList(valEntry.getValue()), currentServiceRegistrationList);	
+						}
+					}
+					else if("lowerScalingLimit".equals(valEntry.getKey()))
+					{
+						try
+						{
+							lowerScalingLimit = Integer.parseInt(valEntry.getValue().toString().trim());
+						}
+						catch (Exception e) {}
+					}
+					else if("upperScalingLimit".equals(valEntry.getKey()))
+					{
+						try
+						{
+							upperScalingLimit = Integer.parseInt(valEntry.getValue().toString().trim());
+						}
+						catch (Exception e) {}
+					}
+					else if("initialScaling".equals(valEntry.getKey()))
+					{
+						try
+						{
+							initialScaling = Integer.parseInt(valEntry.getValue().toString().trim());
+						}
+						catch (Exception e) {}
+					}
+					else if("shared".equals(valEntry.getKey()))
+					{
+						try
+						{
+							shared = Boolean.parseBoolean(valEntry.getValue().toString().trim());
+						}
+						catch (Exception e) {}
+					}
+					else if("requiredConfigurationClass".equals(valEntry.getKey()))
+					{
+						try
+						{
+							requiredConfigurationClass = expressionToClassNameDefinition(valEntry.getValue()).toString();
+							if(NO_REQUIRED_CONFIGURATION.equals(requiredConfigurationClass))
 							{
-								out.writeEndElement(); // reference
-								out.writeCharacters("\n");
+								requiredConfigurationClass = "";
 							}
-							
 						}
-						
-						if(referenceElementCreated)
+						catch (Exception e) {}
+					}
+					else if("factoryClass".equals(valEntry.getKey()))
+					{
+						try
 						{
-							out.writeCharacters("  ");out.writeEndElement(); // references
-							out.writeCharacters("\n");
+							factoryClass = expressionToClassNameDefinition(valEntry.getValue()).toString();
 						}
-						
-						out.writeEndElement(); // servicecomponent
-						out.writeEndDocument();
+						catch (Exception e) {}
 					}
-					finally 
+					
+				}
+				
+				ServiceComponentDescriptor.Factory factory = new ServiceComponentDescriptor.Factory
+				(
+					lowerScalingLimit, upperScalingLimit, initialScaling, shared, 
+					requiredConfigurationClass.isEmpty() ? null : requiredConfigurationClass, factoryClass
+				);
+				factory.getProperties().putAll(new TreeMap<>(properties));
+				
+				for(ServiceRegistration serviceRegistration : currentServiceRegistrationList)
+				{
+					List<ClassNameDefinition> definitionList = new ArrayList<>(serviceRegistration.getServiceTypes());
+					if(definitionList.isEmpty())
 					{
-						out.close();
+						definitionList.add(new ClassNameDefinition(javaClass.getPackage().getQualifiedName(), javaClass.getQualifiedName().substring(javaClass.getPackage().getQualifiedName().length() + 1)));
+					}
+					
+					String domain = serviceRegistration.getDomain();
+					String name = serviceRegistration.getName();
+					String version = serviceRegistration.getVersion();
+					
+					if(version == null)
+					{
+						version = defaultVersion;
+					}
+					
+					if(version == null)
+					{
+						version = "1.0.0";
+					}
+					
+					for(ClassNameDefinition classNameDefinition : definitionList)
+					{
+						factory.getRegistrations().add(new ServiceComponentDescriptor.Registration
+						(
+							DEFAULT_REGISTRATION_DOMAIN.equals(domain) ? classNameDefinition.getPackageName() : domain,
+							DEFAULT_REGISTRATION_NAME.equals(name) ? classNameDefinition.getClassName() : name,
+							version,
+							classNameDefinition.toString()
+						));
 					}
 				}
-				catch (Exception e) 
+				
+				serviceComponent.getFactories().add(factory);
+			}
+		}
+		
+		for(CtFieldReference field : javaClass.getAllFields())
+		{
+			if(! "org.sodeac.common.IService$IServiceProvider".equals(field.getType().getQualifiedName()))
+			{
+				continue;
+			}
+			
+			CtTypeReference reference = (CtTypeReference)field.getType();
+			String typeQualifiedName = null;
+			String typePackage = null;
+			String typeName = null;
+			
+			if(reference.getActualTypeArguments().size() == 1)
+			{
+				CtTypeReference ref = reference.getActualTypeArguments().get(0);
+				
+				typeQualifiedName = ref.getQualifiedName();
+				for(CtElement element : ref.asIterable())
 				{
-					if(e instanceof RuntimeException)
+					if(element instanceof CtTypeReference)
+					{
+						typeName = ((CtTypeReference)element).getSimpleName(); // TODO  qualified - package ??? QualifiedName().substring(packageName.length() + 1 );
+					}
+					if(element instanceof CtPackageReference)
 					{
-						throw e;
+						typePackage = ((CtPackageReference)element).getQualifiedName();
 					}
-					throw new RuntimeException(e);
 				}
-				finally 
+			}
+			
+			String addressDomain = "";
+			String addressName = "";
+			String addressMinVersion = null;
+			String addressBeforeVersion = null;
+			String addressFilter = null;
+			
+			for(CtAnnotation<? extends Annotation> annotation : field.getDeclaration().getAnnotations())
+			{
+				if("org.sodeac.common.annotation.ServiceAddress".equals(annotation.getAnnotationType().getQualifiedName()))
 				{
-					try
+					for(Entry<String,CtExpression> valEntry : annotation.getValues().entrySet())
 					{
-						os.close();
+						if("name".equals(valEntry.getKey()))
+						{
+							addressName = parseAnnotationString(valEntry.getValue().toString());
+						}
+						else if("domain".equals(valEntry.getKey()))
+						{
+							addressDomain = parseAnnotationString(valEntry.getValue().toString());
+						}
+						else if("filter".equals(valEntry.getKey()))
+						{
+							addressFilter = parseAnnotationString(valEntry.getValue().toString());
+						}
+						else if("minVersion".equals(valEntry.getKey()))
+						{
+							addressMinVersion = parseVersion((CtAnnotation<?>)valEntry.getValue());
+						}
+						else if("beforeVersion".equals(valEntry.getKey()))
+						{
+							addressBeforeVersion = parseVersion((CtAnnotation<?>)valEntry.getValue());
+						}
 					}
-					catch (Exception e) {}
 				}
 			}
+			
+			if(((addressName == null) || addressName.isEmpty()) && (typeName != null) && (! typeName.isEmpty()))
+			{
+				addressName = typeName;
+			}
+			
+			if(((addressDomain == null) || addressDomain.isEmpty()) && (typePackage != null) && (! typePackage.isEmpty()))
+			{
+				addressDomain = typePackage;
+			}
+			
+			ServiceComponentDescriptor.Reference serviceReference = new ServiceComponentDescriptor.Reference
+			(
+				field.getSimpleName(), // TODO qualified - Package ???? - QualifiedName().substring(packageName.length() + 1 );
+				typeQualifiedName, addressName, addressDomain, addressMinVersion, addressBeforeVersion, 
+				((addressFilter != null) && (! addressFilter.isEmpty())) ? addressFilter : null
+			);
+			
+			for(CtAnnotation<? extends Annotation> annotation : field.getDeclaration().getAnnotations())
+			{
+				if("org.sodeac.common.annotation.ServicePreference".equals(annotation.getAnnotationType().getQualifiedName()))
+				{
+					String score = null;
+					String filter = null;
+					for(Entry<String,CtExpression> valEntry : annotation.getValues().entrySet())
+					{
+						if("score".equals(valEntry.getKey()))
+						{
+							score = valEntry.getValue().toString();
+						}
+						else if("filter".equals(valEntry.getKey()))
+						{
+							filter = parseAnnotationString(valEntry.getValue().toString());
+						}
+					}
+					serviceReference.getPreferences().add(new ServiceComponentDescriptor.Preference(score, filter));
+				}
+			}
+			
+			serviceComponent.getReferences().add(serviceReference);
 		}
-		catch (Exception e) 
+		
+		return serviceComponent;
+	}
+	
+	byte[] renderServiceComponent(ServiceComponentDescriptor serviceComponent) throws Exception
+	{
+		String namespace = NAMESPACE;
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		XMLStreamWriter out = XMLOutputFactory.newInstance().createXMLStreamWriter( new OutputStreamWriter(os, "UTF-8"));
+		try
 		{
-			throw new MojoExecutionException("error generate service descriptor ",e); 
+			out.setDefaultNamespace(namespace);
+			out.writeStartElement(namespace,"servicecomponent");
+			out.writeDefaultNamespace(namespace);
+			out.writeAttribute("type", "org.sodeac.common");
+			out.writeCharacters("\n");
+			
+			out.writeCharacters("  ");out.writeStartElement(namespace, "factories");
+			out.writeCharacters("\n");
+			
+			for(ServiceComponentDescriptor.Factory factory : serviceComponent.getFactories())
+			{
+				out.writeCharacters("    ");out.writeStartElement(namespace, "factory");
+				out.writeAttribute("lower-scaling-limit", Integer.toString(factory.getLowerScalingLimit()));
+				out.writeAttribute("upper-scaling-limit", Integer.toString(factory.getUpperScalingLimit()));
+				out.writeAttribute("initial-scaling", Integer.toString(factory.getInitialScaling()));
+				out.writeAttribute("shared", Boolean.toString(factory.isShared()));
+				if(factory.getRequiredConfigurationClass() != null)
+				{
+					out.writeAttribute("require-configuration-class", factory.getRequiredConfigurationClass());
+				}
+				out.writeAttribute("class",factory.getFactoryClass());
+				out.writeCharacters("\n");
+				
+				for(Entry<String,Object> propertyEntry : factory.getProperties().entrySet())
+				{
+					out.writeCharacters("      ");out.writeStartElement(namespace, "property");
+					
+					String type = "string";
+					
+					if(propertyEntry.getValue() instanceof Boolean)
+					{
+						type = "boolean";
+					}
+					else if(propertyEntry.getValue() instanceof Long)
+					{
+						type = "int";
+					}
+					else if(propertyEntry.getValue() instanceof Double)
+					{
+						type = "dec";
+					}
+					
+					out.writeAttribute("key", propertyEntry.getKey());
+					out.writeAttribute("type", type);
+					out.writeCharacters(propertyEntry.getValue().toString());
+					
+					out.writeEndElement(); // property
+					out.writeCharacters("\n");
+				}
+				
+				for(ServiceComponentDescriptor.Registration registration : factory.getRegistrations())
+				{
+					out.writeCharacters("      ");out.writeStartElement(namespace, "registration");
+					
+					out.writeAttribute("domain", registration.getDomain());
+					out.writeAttribute("name", registration.getName());
+					out.writeAttribute("version", registration.getVersion());
+					out.writeAttribute("interface", registration.getServiceInterface());
+					out.writeEndElement(); // registration
+					out.writeCharacters("\n");
+				}
+				
+				out.writeCharacters("    ");out.writeEndElement(); // factory
+				out.writeCharacters("\n");
+			}
+			
+			out.writeCharacters("  ");out.writeEndElement(); // factories
+			out.writeCharacters("\n");
+			
+			if(! serviceComponent.getReferences().isEmpty())
+			{
+				out.writeCharacters("  ");out.writeStartElement(namespace, "references");
+				out.writeCharacters("\n");
+			}
+			
+			for(ServiceComponentDescriptor.Reference reference : serviceComponent.getReferences())
+			{
+				out.writeCharacters("    ");out.writeStartElement(namespace, "reference");
+				
+				out.writeAttribute("name", reference.getName());
+				out.writeAttribute("service-type", reference.getServiceType());
+				
+				out.writeAttribute("service-name", reference.getServiceName());
+				out.writeAttribute("service-domain", reference.getServiceDomain());
+				
+				if(reference.getMinVersion() != null)
+				{
+					out.writeAttribute("service-min-version", reference.getMinVersion());
+				}
+				if(reference.getBeforeVersion() != null)
+				{
+					out.writeAttribute("service-before-version", reference.getBeforeVersion());
+				}
+				if(reference.getFilter() != null)
+				{
+					out.writeAttribute("service-filter", reference.getFilter());
+				}
+				
+				if(! reference.getPreferences().isEmpty())
+				{
+					out.writeCharacters("\n");
+					
+					for(ServiceComponentDescriptor.Preference preference : reference.getPreferences())
+					{
+						out.writeCharacters("      ");out.writeStartElement(namespace, "preference");
+						if(preference.getScore() != null)
+						{
+							out.writeAttribute("score",preference.getScore());
+						}
+						if(preference.getFilter() != null)
+						{
+							out.writeCharacters(preference.getFilter());
+						}
+						out.writeEndElement(); // preference
+						out.writeCharacters("\n");
+					}
+					
+					out.writeCharacters("    ");out.writeEndElement(); // reference
+					out.writeCharacters("\n");
+				}
+				else
+				{
+					out.writeEndElement(); // reference
+					out.writeCharacters("\n");
+				}
+			}
+			
+			if(! serviceComponent.getReferences().isEmpty())
+			{
+				out.writeCharacters("  ");out.writeEndElement(); // references
+				out.writeCharacters("\n");
+			}
+			
+			out.writeEndElement(); // servicecomponent
+			out.flush();
 		}
-
+		finally 
+		{
+			out.close();
+		}
+		
+		return os.toByteArray();
 	}
 	
 	private String parseVersionFromList(List<? extends CtExpression<?>> list)
@@ -522,7 +1133,7 @@ public class ServiceDescriptorMojo extends AbstractMojo
 				continue;
 			}
 			
-			CtAnnotation<? extends Annotation> annotation = (CtAnnotation)expression;
+			CtAnnotation<?> annotation = (CtAnnotation<?>)expression;
 			
 			if("org.sodeac.common.annotation.Version".equals(annotation.getAnnotationType().getQualifiedName()))
 			{
@@ -580,7 +1191,7 @@ public class ServiceDescriptorMojo extends AbstractMojo
 				continue;
 			}
 			
-			CtAnnotation<? extends Annotation> annotation = (CtAnnotation)expression;
+			CtAnnotation<?> annotation = (CtAnnotation<?>)expression;
 			
 			if("org.sodeac.common.annotation.ServiceRegistration".equals(annotation.getAnnotationType().getQualifiedName()))
 			{
@@ -594,7 +1205,7 @@ public class ServiceDescriptorMojo extends AbstractMojo
 				{
 					if("version".equals(valEntry.getKey()))
 					{
-						version = parseVersion((CtAnnotation)valEntry.getValue());
+						version = parseVersion((CtAnnotation<?>)valEntry.getValue());
 					}
 					else if("name".equals(valEntry.getKey()))
 					{
@@ -608,7 +1219,7 @@ public class ServiceDescriptorMojo extends AbstractMojo
 					{
 						if(valEntry.getValue() instanceof CtNewArray)
 						{
-							for(CtExpression<?> childExpression : (List<CtExpression<?>>)((CtNewArray)valEntry.getValue()).getElements())
+							for(CtExpression<?> childExpression : ((CtNewArray<?>)valEntry.getValue()).getElements())
 							{
 								serviceTypes.add(expressionToClassNameDefinition(childExpression));
 							}
@@ -638,12 +1249,12 @@ public class ServiceDescriptorMojo extends AbstractMojo
 				continue;
 			}
 			
-			CtAnnotation<? extends Annotation> annotation = (CtAnnotation)expression;
+			CtAnnotation<?> annotation = (CtAnnotation<?>)expression;
 			
 			if("org.sodeac.common.annotation.StringProperty".equals(annotation.getAnnotationType().getQualifiedName()))
 			{
-				String key = UUID.randomUUID().toString();
-				String value = UUID.randomUUID().toString();
+				String key = getDefaultPropertyKey(properties);
+				String value = "";
 				
 				for(Entry<String,CtExpression> valEntry : annotation.getValues().entrySet())
 				{
@@ -664,7 +1275,7 @@ public class ServiceDescriptorMojo extends AbstractMojo
 			}
 			else if("org.sodeac.common.annotation.BooleanProperty".equals(annotation.getAnnotationType().getQualifiedName()))
 			{
-				String key = UUID.randomUUID().toString();
+				String key = getDefaultPropertyKey(properties);
 				Boolean value = false;
 				
 				for(Entry<String,CtExpression> valEntry : annotation.getValues().entrySet())
@@ -686,7 +1297,7 @@ public class ServiceDescriptorMojo extends AbstractMojo
 			}
 			else if("org.sodeac.common.annotation.IntegerProperty".equals(annotation.getAnnotationType().getQualifiedName()))
 			{
-				String key = UUID.randomUUID().toString();
+				String key = getDefaultPropertyKey(properties);
 				Long value = 0L;
 				
 				for(Entry<String,CtExpression> valEntry : annotation.getValues().entrySet())
@@ -708,7 +1319,7 @@ public class ServiceDescriptorMojo extends AbstractMojo
 			}
 			else if("org.sodeac.common.annotation.DecimalProperty".equals(annotation.getAnnotationType().getQualifiedName()))
 			{
-				String key = UUID.randomUUID().toString();
+				String key = getDefaultPropertyKey(properties);
 				Double value = 0.0d;
 				
 				for(Entry<String,CtExpression> valEntry : annotation.getValues().entrySet())
@@ -731,6 +1342,22 @@ public class ServiceDescriptorMojo extends AbstractMojo
 		}
 	}
 	
+	/**
+	 * Returns key of property without key. Unlike a random key, the key depends only on properties parsed before, so that descriptors are reproducible.
+	 * 
+	 * @param properties properties parsed before
+	 * @return unused key
+	 */
+	private String getDefaultPropertyKey(Map<String,Object> properties)
+	{
+		int index = properties.size();
+		while(properties.containsKey(DEFAULT_PROPERTY_KEY_PREFIX + index + ">"))
+		{
+			index++;
+		}
+		return DEFAULT_PROPERTY_KEY_PREFIX + index + ">";
+	}
+	
 	private String parseAnnotationString(String value)
 	{
 		if(value == null)
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.maven;
+
+import java.util.Objects;
+
+import org.apache.maven.project.MavenProject;
+
+import spoon.reflect.CtModel;
+
+/**
+ * Spoon model shared by all mojo executions of one project within a build.
+ *
+ * <p>The model is stored in the context of {@link MavenProject} and is valid as long as the key (basedir, source roots and classpath) is unchanged.
+ * A model of all projects of reactor is stored in the context of top level project under {@link #REACTOR_CONTEXT_KEY}.
+ */
+public class SharedSpoonModel
+{
+	public static final String CONTEXT_KEY = SharedSpoonModel.class.getName();
+	public static final String REACTOR_CONTEXT_KEY = SharedSpoonModel.class.getName() + ".reactor";
+
+	private SharedSpoonModel(String key, CtModel model)
+	{
+		super();
+		this.key = key;
+		this.model = model;
+	}
+
+	private String key = null;
+	private CtModel model = null;
+
+	public String getKey()
+	{
+		return key;
+	}
+
+	public CtModel getModel()
+	{
+		return model;
+	}
+
+	/**
+	 * Returns model shared in project context, if key is equal.
+	 *
+	 * @param project maven project
+	 * @param key key of model
+	 * @return shared model or null, if model is not built yet or key is not equal
+	 */
+	public static CtModel get(MavenProject project, String key)
+	{
+		return get(project, CONTEXT_KEY, key);
+	}
+
+	/**
+	 * Returns model shared in project context under specified context key, if key is equal.
+	 *
+	 * @param project maven project
+	 * @param contextKey context key, {@link #CONTEXT_KEY} or {@link #REACTOR_CONTEXT_KEY}
+	 * @param key key of model
+	 * @return shared model or null, if model is not built yet or key is not equal
+	 */
+	public static CtModel get(MavenProject project, String contextKey, String key)
+	{
+		Object contextValue = project.getContextValue(contextKey);
+		if(! (contextValue instanceof SharedSpoonModel))
+		{
+			return null;
+		}
+		SharedSpoonModel sharedModel = (SharedSpoonModel)contextValue;
+		if(! Objects.equals(sharedModel.key, key))
+		{
+			return null;
+		}
+		return sharedModel.model;
+	}
+
+	/**
+	 * Store model in project context. A previously shared model is replaced.
+	 *
+	 * @param project maven project
+	 * @param key key of model
+	 * @param model model to share
+	 */
+	public static void put(MavenProject project, String key, CtModel model)
+	{
+		put(project, CONTEXT_KEY, key, model);
+	}
+
+	/**
+	 * Store model in project context under specified context key. A previously shared model is replaced.
+	 *
+	 * @param project maven project
+	 * @param contextKey context key, {@link #CONTEXT_KEY} or {@link #REACTOR_CONTEXT_KEY}
+	 * @param key key of model
+	 * @param model model to share
+	 */
+	public static void put(MavenProject project, String contextKey, String key, CtModel model)
+	{
+		project.setContextValue(contextKey, new SharedSpoonModel(key, model));
+	}
+
+	/**
+	 * Remove shared model from project context.
+	 *
+	 * @param project maven project
+	 */
+	public static void remove(MavenProject project)
+	{
+		project.setContextValue(CONTEXT_KEY, null);
+	}
+}
@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cheap text scan of source files to find candidates for code generation without building a spoon model.
+ *
+ * <p>Candidates are source files containing one of the trigger annotations ({@code @ServiceFactory}, {@code @GenerateBow}, {@code @GenerateBowFactory}).
+ * The result also contains all source files, whose top level type name occurs as identifier in a candidate or in an already required file (transitively).
+ * Type names of a file are its file name and the names of all types declared in the file.
+ * This is an over-approximation of the required dependencies, e.g. super classes and referenced types.
+ * Comments, string literals and character literals are not scanned.
+ */
+public class SourcePrefilter
+{
+	public static final Pattern TRIGGER_ANNOTATION_PATTERN = Pattern.compile("@\\s*(?:[\\w$]+\\s*\\.\\s*)*(ServiceFactory|GenerateBow|GenerateBowFactory)\\b");
+
+	private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("[\\p{javaJavaIdentifierStart}][\\p{javaJavaIdentifierPart}]*");
+
+	private static final Pattern TYPE_DECLARATION_PATTERN = Pattern.compile("\\b(?:class|interface|enum|record)\\s+([\\p{javaJavaIdentifierStart}][\\p{javaJavaIdentifierPart}]*)");
+
+	private SourcePrefilter()
+	{
+		super();
+	}
+
+	/**
+	 * Returns candidate source files and their dependencies in source directories.
+	 *
+	 * @param sourceDirectories source directories to scan
+	 * @return candidate source files and dependencies, or empty set, if no candidate exists
+	 * @throws IOException
+	 */
+	public static Set<File> findRequiredSourceFilesInDirectories(List<File> sourceDirectories) throws IOException
+	{
+		List<File> sourceFiles = new ArrayList<>();
+		for(File sourceDirectory : sourceDirectories)
+		{
+			collectSourceFiles(sourceDirectory, sourceFiles);
+		}
+		return findRequiredSourceFiles(sourceFiles);
+	}
+
+	/**
+	 * Returns candidate source files and their dependencies within given source files.
+	 *
+	 * @param sourceFiles source files to scan
+	 * @return candidate source files and dependencies, or empty set, if no candidate exists
+	 * @throws IOException
+	 */
+	public static Set<File> findRequiredSourceFiles(Collection<File> sourceFiles) throws IOException
+	{
+		Map<String,Set<File>> sourceFilesByTypeName = new HashMap<>();
+		Map<File,String> contentByFile = new HashMap<>();
+		LinkedList<File> workQueue = new LinkedList<>();
+		Set<File> requiredFiles = new TreeSet<>();
+
+		for(File sourceFile : sourceFiles)
+		{
+			String content = stripCommentsAndLiterals(readSource(sourceFile));
+
+			// secondary top level types are not declared in file of same name
+
+			addTypeName(sourceFilesByTypeName, sourceFile.getName().substring(0, sourceFile.getName().length() - ".java".length()), sourceFile);
+			Matcher matcher = TYPE_DECLARATION_PATTERN.matcher(content);
+			while(matcher.find())
+			{
+				addTypeName(sourceFilesByTypeName, matcher.group(1), sourceFile);
+			}
+
+			if(TRIGGER_ANNOTATION_PATTERN.matcher(content).find())
+			{
+				contentByFile.put(sourceFile, content);
+				requiredFiles.add(sourceFile);
+				workQueue.add(sourceFile);
+			}
+		}
+
+		while(! workQueue.isEmpty())
+		{
+			File sourceFile = workQueue.removeFirst();
+			String content = contentByFile.remove(sourceFile);
+			if(content == null)
+			{
+				content = stripCommentsAndLiterals(readSource(sourceFile));
+			}
+
+			Matcher matcher = IDENTIFIER_PATTERN.matcher(content);
+			while(matcher.find())
+			{
+				Set<File> referencedFiles = sourceFilesByTypeName.get(matcher.group());
+				if(referencedFiles == null)
+				{
+					continue;
+				}
+				for(File referencedFile : referencedFiles)
+				{
+					if(requiredFiles.add(referencedFile))
+					{
+						workQueue.add(referencedFile);
+					}
+				}
+			}
+		}
+
+		return requiredFiles;
+	}
+
+	private static void addTypeName(Map<String,Set<File>> sourceFilesByTypeName, String typeName, File sourceFile)
+	{
+		Set<File> set = sourceFilesByTypeName.get(typeName);
+		if(set == null)
+		{
+			set = new TreeSet<>();
+			sourceFilesByTypeName.put(typeName, set);
+		}
+		set.add(sourceFile);
+	}
+
+	/**
+	 * Removes comments and replaces string, text block and character literals by empty literals, so that annotations and identifiers 
+	 * in comments and literals are not scanned.
+	 *
+	 * @param content source code
+	 * @return source code without comments and content of literals
+	 */
+	static String stripCommentsAndLiterals(String content)
+	{
+		StringBuilder builder = new StringBuilder(content.length());
+		int length = content.length();
+		int i = 0;
+		while(i < length)
+		{
+			char c = content.charAt(i);
+			if((c == '/') && (i + 1 < length) && (content.charAt(i + 1) == '/'))
+			{
+				int end = content.indexOf('\n', i);
+				i = end < 0 ? length : end;
+				builder.append(' ');
+			}
+			else if((c == '/') && (i + 1 < length) && (content.charAt(i + 1) == '*'))
+			{
+				int end = content.indexOf("*/", i + 2);
+				i = end < 0 ? length : end + 2;
+				builder.append(' ');
+			}
+			else if(content.startsWith("\"\"\"", i))
+			{
+				int end = i + 3;
+				while((end < length) && (! content.startsWith("\"\"\"", end)))
+				{
+					end += content.charAt(end) == '\\' ? 2 : 1;
+				}
+				i = Math.min(end + 3, length);
+				builder.append("\"\"");
+			}
+			else if((c == '"') || (c == '\''))
+			{
+				int end = i + 1;
+				while((end < length) && (content.charAt(end) != c) && (content.charAt(end) != '\n'))
+				{
+					end += content.charAt(end) == '\\' ? 2 : 1;
+				}
+				i = Math.min(end + 1, length);
+				builder.append(c).append(c);
+			}
+			else
+			{
+				builder.append(c);
+				i++;
+			}
+		}
+		return builder.toString();
+	}
+
+	private static void collectSourceFiles(File directory, List<File> sourceFiles)
+	{
+		File[] files = directory.listFiles();
+		if(files == null)
+		{
+			return;
+		}
+		for(File file : files)
+		{
+			if(file.isDirectory())
+			{
+				collectSourceFiles(file, sourceFiles);
+			}
+			else if(file.getName().endsWith(".java") && (! "package-info.java".equals(file.getName())) && (! "module-info.java".equals(file.getName())))
+			{
+				sourceFiles.add(file);
+			}
+		}
+	}
+
+	private static String readSource(File sourceFile) throws IOException
+	{
+		return new String(Files.readAllBytes(sourceFile.toPath()), StandardCharsets.UTF_8);
+	}
+}
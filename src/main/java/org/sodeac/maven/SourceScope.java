@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.maven;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Include and exclude patterns, which limit the source files of spoon model.
+ *
+ * <p>Patterns containing '/' or ending with ".java" are path patterns and match the path of source file relative to its source root,
+ * e.g. {@code com/example/model/Person*.java}. All other patterns are package globs and match the package of source file, which is derived from its directory,
+ * e.g. {@code com.example.model} or {@code com.example.**}. {@code *} matches within one package or directory, {@code **} matches any count of packages or directories.
+ *
+ * <p>A source file is in scope, if no include pattern is defined or it matches an include pattern, and it matches no exclude pattern.
+ */
+public class SourceScope
+{
+	private List<String> includes = null;
+	private List<String> excludes = null;
+	private List<Pattern> includePatterns = new ArrayList<>();
+	private List<Pattern> excludePatterns = new ArrayList<>();
+	private List<Boolean> includePathPatterns = new ArrayList<>();
+	private List<Boolean> excludePathPatterns = new ArrayList<>();
+
+	/**
+	 * Constructor of scope.
+	 *
+	 * @param includes include patterns, null or empty to include all source files
+	 * @param excludes exclude patterns, null or empty to exclude nothing
+	 */
+	public SourceScope(List<String> includes, List<String> excludes)
+	{
+		super();
+		this.includes = normalize(includes);
+		this.excludes = normalize(excludes);
+		compile(this.includes, includePatterns, includePathPatterns);
+		compile(this.excludes, excludePatterns, excludePathPatterns);
+	}
+
+	/**
+	 * Returns true, if scope contains all source files.
+	 *
+	 * @return true, if no pattern is defined
+	 */
+	public boolean isUnrestricted()
+	{
+		return includes.isEmpty() && excludes.isEmpty();
+	}
+
+	/**
+	 * Returns true, if source file is in scope.
+	 *
+	 * @param relativePath path of source file relative to source root, separated by '/'
+	 * @return true, if source file is in scope
+	 */
+	public boolean contains(String relativePath)
+	{
+		int index = relativePath.lastIndexOf('/');
+		String packageName = index < 0 ? "" : relativePath.substring(0, index).replace('/', '.');
+
+		if((! includePatterns.isEmpty()) && (! matches(includePatterns, includePathPatterns, relativePath, packageName)))
+		{
+			return false;
+		}
+		return ! matches(excludePatterns, excludePathPatterns, relativePath, packageName);
+	}
+
+	/**
+	 * Returns all source files in scope.
+	 *
+	 * @param sourceRoots source roots to scan
+	 * @return source files in scope
+	 */
+	public List<File> collectSourceFiles(List<File> sourceRoots)
+	{
+		List<File> sourceFiles = new ArrayList<>();
+		for(File sourceRoot : sourceRoots)
+		{
+			collectSourceFiles(sourceRoot, "", sourceFiles);
+		}
+		return sourceFiles;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "includes:" + includes + ",excludes:" + excludes;
+	}
+
+	private void collectSourceFiles(File directory, String prefix, List<File> sourceFiles)
+	{
+		File[] files = directory.listFiles();
+		if(files == null)
+		{
+			return;
+		}
+		for(File file : files)
+		{
+			if(file.isDirectory())
+			{
+				collectSourceFiles(file, prefix + file.getName() + "/", sourceFiles);
+			}
+			else if(file.getName().endsWith(".java") && contains(prefix + file.getName()))
+			{
+				sourceFiles.add(file);
+			}
+		}
+	}
+
+	private static boolean matches(List<Pattern> patterns, List<Boolean> pathPatterns, String relativePath, String packageName)
+	{
+		for(int i = 0; i < patterns.size(); i++)
+		{
+			if(patterns.get(i).matcher(pathPatterns.get(i) ? relativePath : packageName).matches())
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static List<String> normalize(List<String> patterns)
+	{
+		if(patterns == null)
+		{
+			return Collections.emptyList();
+		}
+		List<String> normalized = new ArrayList<>();
+		for(String pattern : patterns)
+		{
+			if((pattern != null) && (! pattern.trim().isEmpty()))
+			{
+				normalized.add(pattern.trim().replace('\\', '/'));
+			}
+		}
+		return normalized;
+	}
+
+	private static void compile(List<String> globs, List<Pattern> patterns, List<Boolean> pathPatterns)
+	{
+		for(String glob : globs)
+		{
+			boolean pathPattern = glob.contains("/") || glob.endsWith(".java");
+			patterns.add(Pattern.compile(globToRegex(glob, pathPattern ? '/' : '.')));
+			pathPatterns.add(pathPattern);
+		}
+	}
+
+	private static String globToRegex(String glob, char separator)
+	{
+		String quotedSeparator = Pattern.quote(String.valueOf(separator));
+		String anySegment = separator == '.' ? "[^.]" : "[^/]";
+
+		StringBuilder regex = new StringBuilder();
+		for(int i = 0; i < glob.length(); i++)
+		{
+			char c = glob.charAt(i);
+			boolean doubleStar = (c == '*') && (i + 1 < glob.length()) && (glob.charAt(i + 1) == '*');
+			if(doubleStar && ((i == 0) || (glob.charAt(i - 1) == separator)) && (i + 2 < glob.length()) && (glob.charAt(i + 2) == separator))
+			{
+				// leading or inner "**" matches zero or more segments
+				regex.append("(?:.*" + quotedSeparator + ")?");
+				i += 2;
+			}
+			else if((c == separator) && (i + 3 == glob.length()) && glob.endsWith("**"))
+			{
+				// trailing "**" matches parent itself and all children
+				regex.append("(?:" + quotedSeparator + ".*)?");
+				i += 2;
+			}
+			else if(doubleStar)
+			{
+				regex.append(".*");
+				i++;
+			}
+			else if(c == '*')
+			{
+				regex.append(anySegment + "*");
+			}
+			else if(c == '?')
+			{
+				regex.append(anySegment);
+			}
+			else
+			{
+				regex.append(Pattern.quote(String.valueOf(c)));
+			}
+		}
+		return regex.toString();
+	}
+}
@@ -0,0 +1,383 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import spoon.Launcher;
+import spoon.SpoonModelBuilder;
+import spoon.reflect.CtModel;
+import spoon.reflect.cu.SourcePosition;
+import spoon.reflect.declaration.CtCompilationUnit;
+import spoon.reflect.declaration.CtType;
+import spoon.reflect.factory.Factory;
+
+/**
+ * Spoon model kept in memory of build process across builds, e.g. by maven daemon or embedded maven of IDE.
+ *
+ * <p>Models are keyed by project and model configuration. A model remembers content hashes of its source files and classpath elements.
+ * If sources are changed, only changed and added compilation units are parsed again and types of changed and removed compilation units are dropped.
+ * The model is updated in place. Builds using the model, directly or shared by {@link SharedSpoonModel}, hold read access
+ * from {@link #acquire()} to {@link #release()}, an update waits for exclusive access.
+ *
+ * <p>Memory of a model is estimated as {@value #SIZE_FACTOR} times the size of its source files. The least recently used models are dropped,
+ * if estimated memory of all models exceeds the limit.
+ */
+public class WarmSpoonModel
+{
+	public static final long SIZE_FACTOR = 32L;
+
+	private static final Map<String,WarmSpoonModel> MODELS = new LinkedHashMap<>(16, 0.75f, true);
+
+	private WarmSpoonModel(String key, CtModel model, Map<File,String> sourceStamps, Map<String,String> classpathStamps)
+	{
+		super();
+		this.key = key;
+		this.model = model;
+		this.sourceStamps = sourceStamps;
+		this.classpathStamps = classpathStamps;
+		this.estimatedSize = estimateSize(sourceStamps.keySet());
+	}
+
+	private String key = null;
+	private CtModel model = null;
+	private volatile Map<File,String> sourceStamps = null;
+	private Map<String,String> classpathStamps = null;
+	private volatile long estimatedSize;
+	private volatile boolean invalid = false;
+	private ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	public String getKey()
+	{
+		return key;
+	}
+
+	public CtModel getModel()
+	{
+		return model;
+	}
+
+	/**
+	 * Acquires read access to model. The model is not updated until read access is released by {@link #release()} of same thread.
+	 *
+	 * @return model or null, if model is invalid after failed update
+	 */
+	public CtModel acquire()
+	{
+		lock.readLock().lock();
+		if(invalid)
+		{
+			lock.readLock().unlock();
+			return null;
+		}
+		return model;
+	}
+
+	/**
+	 * Releases read access acquired by {@link #acquire()} or {@link #update(Collection, List)}.
+	 */
+	public void release()
+	{
+		lock.readLock().unlock();
+	}
+
+	public long getEstimatedSize()
+	{
+		return estimatedSize;
+	}
+
+	/**
+	 * Returns warm model of key.
+	 *
+	 * @param key key of model
+	 * @return warm model or null, if no model of key is kept
+	 */
+	public static synchronized WarmSpoonModel get(String key)
+	{
+		return MODELS.get(key);
+	}
+
+	/**
+	 * Returns warm model keeping spoon model, e.g. to acquire read access to spoon model shared by {@link SharedSpoonModel}.
+	 *
+	 * @param model spoon model
+	 * @return warm model or null, if spoon model is not kept
+	 */
+	public static synchronized WarmSpoonModel find(CtModel model)
+	{
+		for(WarmSpoonModel warmModel : MODELS.values())
+		{
+			if(warmModel.model == model)
+			{
+				return warmModel;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Keeps model as warm model of key and drops least recently used models, if estimated memory of all models exceeds {@code maxSize}.
+	 * A model exceeding the limit by itself is not kept. A kept model is returned with read access acquired, see {@link #release()}.
+	 *
+	 * @param key key of model
+	 * @param model model built from {@code sourceFiles}
+	 * @param sourceFiles source files of model
+	 * @param classpath classpath of model
+	 * @param maxSize maximum estimated memory of all warm models in bytes
+	 * @return warm model or null, if model is not kept
+	 * @throws IOException
+	 */
+	public static WarmSpoonModel put(String key, CtModel model, Collection<File> sourceFiles, List<String> classpath, long maxSize) throws IOException
+	{
+		WarmSpoonModel warmModel = new WarmSpoonModel(key, model, stampSources(sourceFiles), stampClasspath(classpath));
+		synchronized (WarmSpoonModel.class)
+		{
+			MODELS.remove(key);
+			if(warmModel.estimatedSize > maxSize)
+			{
+				return null;
+			}
+			warmModel.lock.readLock().lock();
+			MODELS.put(key, warmModel);
+
+			long size = 0L;
+			for(WarmSpoonModel keptModel : MODELS.values())
+			{
+				size += keptModel.estimatedSize;
+			}
+			Iterator<WarmSpoonModel> iterator = MODELS.values().iterator();
+			while((size > maxSize) && iterator.hasNext())
+			{
+				WarmSpoonModel leastRecentlyUsed = iterator.next();
+				if(leastRecentlyUsed == warmModel)
+				{
+					break;
+				}
+				size -= leastRecentlyUsed.estimatedSize;
+				iterator.remove();
+			}
+			return warmModel;
+		}
+	}
+
+	/**
+	 * Drops warm model of key.
+	 *
+	 * @param key key of model
+	 */
+	public static synchronized void remove(String key)
+	{
+		MODELS.remove(key);
+	}
+
+	/**
+	 * Returns true, if a classpath element is added, removed or modified since model was built. Classpath changes require a new model.
+	 *
+	 * @param classpath current classpath
+	 * @return true, if classpath is changed
+	 * @throws IOException
+	 */
+	public boolean isClasspathChanged(List<String> classpath) throws IOException
+	{
+		return ! Objects.equals(classpathStamps, stampClasspath(classpath));
+	}
+
+	/**
+	 * Returns source files added or modified since model was built or updated.
+	 *
+	 * @param sourceFiles current source files
+	 * @return added or modified source files
+	 * @throws IOException
+	 */
+	public Set<File> getChangedSourceFiles(Collection<File> sourceFiles) throws IOException
+	{
+		Map<File,String> sourceStamps = this.sourceStamps;
+		Set<File> changedSourceFiles = new HashSet<>();
+		for(File sourceFile : sourceFiles)
+		{
+			if(! Objects.equals(sourceStamps.get(sourceFile.getAbsoluteFile()), stamp(sourceFile)))
+			{
+				changedSourceFiles.add(sourceFile.getAbsoluteFile());
+			}
+		}
+		return changedSourceFiles;
+	}
+
+	/**
+	 * Returns source files removed since model was built or updated.
+	 *
+	 * @param sourceFiles current source files
+	 * @return removed source files
+	 */
+	public Set<File> getRemovedSourceFiles(Collection<File> sourceFiles)
+	{
+		Set<File> removedSourceFiles = new HashSet<>(sourceStamps.keySet());
+		for(File sourceFile : sourceFiles)
+		{
+			removedSourceFiles.remove(sourceFile.getAbsoluteFile());
+		}
+		return removedSourceFiles;
+	}
+
+	/**
+	 * Updates model in place with exclusive access, after all builds released read access. Changes are determined again with exclusive access,
+	 * so that a concurrent update is not repeated. Types of changed and removed source files are dropped, changed source files are parsed into model.
+	 * On success, read access is acquired for caller, see {@link #release()}. If update fails, the warm model is dropped and invalidated.
+	 *
+	 * @param sourceFiles current source files
+	 * @param classpath classpath to resolve types of unchanged source files, e.g. including output directory of previous build
+	 * @return updated model
+	 * @throws Exception
+	 */
+	public CtModel update(Collection<File> sourceFiles, List<String> classpath) throws Exception
+	{
+		lock.writeLock().lock();
+		try
+		{
+			if(invalid)
+			{
+				throw new IllegalStateException("warm spoon model is invalid after failed update");
+			}
+
+			Set<File> changedSourceFiles = getChangedSourceFiles(sourceFiles);
+			Set<File> droppedSourceFiles = new HashSet<>(changedSourceFiles);
+			droppedSourceFiles.addAll(getRemovedSourceFiles(sourceFiles));
+
+			Factory factory = model.getRootPackage().getFactory();
+			for(CtType<?> type : new ArrayList<>(model.getAllTypes()))
+			{
+				if(droppedSourceFiles.contains(getSourceFile(type)))
+				{
+					type.delete();
+				}
+			}
+			for(String path : new ArrayList<>(factory.CompilationUnit().getMap().keySet()))
+			{
+				CtCompilationUnit compilationUnit = factory.CompilationUnit().getMap().get(path);
+				File file = compilationUnit == null ? null : compilationUnit.getFile();
+				if((file != null) && droppedSourceFiles.contains(file.getAbsoluteFile()))
+				{
+					factory.CompilationUnit().removeFromCache(path);
+				}
+			}
+
+			if(! changedSourceFiles.isEmpty())
+			{
+				model.setBuildModelIsFinished(false);
+				SpoonModelBuilder builder = new Launcher().createCompiler(factory);
+				if(! classpath.isEmpty())
+				{
+					builder.setSourceClasspath(classpath.toArray(new String[classpath.size()]));
+				}
+				for(File changedSourceFile : changedSourceFiles)
+				{
+					builder.addInputSource(changedSourceFile);
+				}
+				builder.build();
+				model.setBuildModelIsFinished(true);
+			}
+
+			this.sourceStamps = stampSources(sourceFiles);
+			this.estimatedSize = estimateSize(sourceStamps.keySet());
+
+			lock.readLock().lock();
+			return model;
+		}
+		catch (Exception | Error e)
+		{
+			invalid = true;
+			synchronized (WarmSpoonModel.class)
+			{
+				if(MODELS.get(key) == this)
+				{
+					MODELS.remove(key);
+				}
+			}
+			throw e;
+		}
+		finally
+		{
+			lock.writeLock().unlock();
+		}
+	}
+
+	private static File getSourceFile(CtType<?> type)
+	{
+		SourcePosition position = type.getPosition();
+		File file = position == null ? null : position.getFile();
+		return file == null ? null : file.getAbsoluteFile();
+	}
+
+	private static long estimateSize(Collection<File> sourceFiles)
+	{
+		long size = 0L;
+		for(File sourceFile : sourceFiles)
+		{
+			size += sourceFile.length();
+		}
+		return size * SIZE_FACTOR;
+	}
+
+	private static Map<File,String> stampSources(Collection<File> sourceFiles) throws IOException
+	{
+		Map<File,String> stamps = new HashMap<>();
+		for(File sourceFile : sourceFiles)
+		{
+			stamps.put(sourceFile.getAbsoluteFile(), stamp(sourceFile));
+		}
+		return stamps;
+	}
+
+	private static Map<String,String> stampClasspath(List<String> classpath) throws IOException
+	{
+		Map<String,String> stamps = new LinkedHashMap<>();
+		for(String classpathElement : classpath)
+		{
+			stamps.put(classpathElement, stamp(new File(classpathElement)));
+		}
+		return stamps;
+	}
+
+	/**
+	 * Returns stamp of file by content hash. Stamp of directory covers relative paths and contents of all contained files.
+	 *
+	 * @param file file or directory
+	 * @return stamp
+	 * @throws IOException
+	 */
+	static String stamp(File file) throws IOException
+	{
+		try
+		{
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			GenerationCache.digestContent(digest, file);
+			return GenerationState.toHex(digest.digest());
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IOException("calculate stamp failed", e);
+		}
+	}
+}
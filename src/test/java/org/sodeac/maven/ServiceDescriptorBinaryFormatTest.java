@@ -0,0 +1,243 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.maven;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Round trip of service components through binary index must be equivalent to XML index rendered by {@link ServiceDescriptorMojo}.
+ */
+public class ServiceDescriptorBinaryFormatTest
+{
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void binaryIndexEqualsXmlIndex() throws Exception
+	{
+		List<ServiceComponentDescriptor> serviceComponents = createServiceComponents();
+
+		File outputDirectory = temporaryFolder.newFolder("SDC-INF");
+		File xmlIndexFile = new File(outputDirectory, ServiceDescriptorMojo.SERVICE_INDEX_FILE_NAME);
+		File binaryIndexFile = new File(outputDirectory, ServiceDescriptorMojo.BINARY_SERVICE_INDEX_FILE_NAME);
+
+		Files.write(xmlIndexFile.toPath(), renderXmlIndex(serviceComponents));
+		Files.write(binaryIndexFile.toPath(), ServiceDescriptorBinaryFormat.write(serviceComponents));
+
+		List<ServiceComponentDescriptor> fromXml = null;
+		try(InputStream in = new FileInputStream(xmlIndexFile))
+		{
+			fromXml = parseXmlIndex(in);
+		}
+
+		List<ServiceComponentDescriptor> fromBinary = null;
+		try(FileChannel channel = FileChannel.open(binaryIndexFile.toPath(), StandardOpenOption.READ))
+		{
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			fromBinary = ServiceDescriptorBinaryFormat.read(buffer);
+		}
+
+		assertEquals(serviceComponents, fromXml);
+		assertEquals(fromXml, fromBinary);
+	}
+
+	@Test
+	public void emptyIndex() throws Exception
+	{
+		List<ServiceComponentDescriptor> serviceComponents = new ArrayList<>();
+
+		List<ServiceComponentDescriptor> fromXml = parseXmlIndex(new ByteArrayInputStream(renderXmlIndex(serviceComponents)));
+		List<ServiceComponentDescriptor> fromBinary = ServiceDescriptorBinaryFormat.read(ByteBuffer.wrap(ServiceDescriptorBinaryFormat.write(serviceComponents)));
+
+		assertEquals(0, fromXml.size());
+		assertEquals(fromXml, fromBinary);
+	}
+
+	@Test
+	public void serviceClassIsEscapedInXmlIndex() throws Exception
+	{
+		List<ServiceComponentDescriptor> serviceComponents = new ArrayList<>();
+		ServiceComponentDescriptor escaped = new ServiceComponentDescriptor("com.example.srv.Escaped\"<&>'");
+		escaped.getFactories().add(new ServiceComponentDescriptor.Factory(1, 1, 0, true, null, "com.example.srv.Escaped"));
+		serviceComponents.add(escaped);
+
+		XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(new ByteArrayInputStream(renderXmlIndex(serviceComponents)), "UTF-8");
+		try
+		{
+			while(reader.hasNext())
+			{
+				if((reader.next() == XMLStreamConstants.START_ELEMENT) && "service".equals(reader.getLocalName()))
+				{
+					assertEquals(escaped.getClassName(), reader.getAttributeValue(null, "class"));
+				}
+			}
+		}
+		finally
+		{
+			reader.close();
+		}
+		assertEquals(serviceComponents, parseXmlIndex(new ByteArrayInputStream(renderXmlIndex(serviceComponents))));
+	}
+
+	private static List<ServiceComponentDescriptor> createServiceComponents()
+	{
+		List<ServiceComponentDescriptor> serviceComponents = new ArrayList<>();
+
+		ServiceComponentDescriptor greeter = new ServiceComponentDescriptor("com.example.srv.GreeterImpl");
+		ServiceComponentDescriptor.Factory factory = new ServiceComponentDescriptor.Factory(1, 8, 2, true, "com.example.srv.GreeterConfiguration", "com.example.srv.GreeterImpl");
+		factory.getProperties().put("greeting", "hello äöü <&>");
+		factory.getProperties().put("enabled", Boolean.TRUE);
+		factory.getProperties().put("limit", Long.valueOf(-42L));
+		factory.getProperties().put("ratio", Double.valueOf(0.25d));
+		factory.getRegistrations().add(new ServiceComponentDescriptor.Registration("com.example", "greeter", "1.2.0", "com.example.srv.IGreeter"));
+		factory.getRegistrations().add(new ServiceComponentDescriptor.Registration("com.example", "greeter-legacy", "1.0.0", "com.example.srv.IGreeter"));
+		greeter.getFactories().add(factory);
+		greeter.getFactories().add(new ServiceComponentDescriptor.Factory(1, 1, 1, false, null, "com.example.srv.GreeterImpl$Fallback"));
+
+		ServiceComponentDescriptor.Reference reference = new ServiceComponentDescriptor.Reference("greeterProvider", "com.example.srv.IGreeter", "greeter", "com.example", "1.0.0", "2.0.0", "(x=1)");
+		reference.getPreferences().add(new ServiceComponentDescriptor.Preference("10", "(region=eu)"));
+		reference.getPreferences().add(new ServiceComponentDescriptor.Preference(null, "(fallback=true)"));
+		greeter.getReferences().add(reference);
+		greeter.getReferences().add(new ServiceComponentDescriptor.Reference("logger", "com.example.srv.ILogger", "logger", "com.example", null, null, null));
+		serviceComponents.add(greeter);
+
+		ServiceComponentDescriptor plain = new ServiceComponentDescriptor("com.example.srv.Plain");
+		plain.getFactories().add(new ServiceComponentDescriptor.Factory(0, 4, 0, false, null, "com.example.srv.Plain"));
+		serviceComponents.add(plain);
+
+		return serviceComponents;
+	}
+
+	private static byte[] renderXmlIndex(List<ServiceComponentDescriptor> serviceComponents) throws Exception
+	{
+		ServiceDescriptorMojo mojo = new ServiceDescriptorMojo();
+		byte[][] serviceComponentFragments = new byte[serviceComponents.size()][];
+		for(int i = 0; i < serviceComponents.size(); i++)
+		{
+			serviceComponentFragments[i] = mojo.renderServiceComponent(serviceComponents.get(i));
+		}
+		return mojo.renderServiceIndex(mojo.renderPrologue(), serviceComponents, serviceComponentFragments);
+	}
+
+	private static List<ServiceComponentDescriptor> parseXmlIndex(InputStream in) throws Exception
+	{
+		List<ServiceComponentDescriptor> serviceComponents = new ArrayList<>();
+
+		ServiceComponentDescriptor serviceComponent = null;
+		ServiceComponentDescriptor.Factory factory = null;
+		ServiceComponentDescriptor.Reference reference = null;
+
+		XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(in, "UTF-8");
+		try
+		{
+			while(reader.hasNext())
+			{
+				if(reader.next() != XMLStreamConstants.START_ELEMENT)
+				{
+					continue;
+				}
+				switch (reader.getLocalName())
+				{
+					case "service":
+						serviceComponent = new ServiceComponentDescriptor(reader.getAttributeValue(null, "class"));
+						serviceComponents.add(serviceComponent);
+						break;
+					case "factory":
+						factory = new ServiceComponentDescriptor.Factory
+						(
+							Integer.parseInt(reader.getAttributeValue(null, "lower-scaling-limit")),
+							Integer.parseInt(reader.getAttributeValue(null, "upper-scaling-limit")),
+							Integer.parseInt(reader.getAttributeValue(null, "initial-scaling")),
+							Boolean.parseBoolean(reader.getAttributeValue(null, "shared")),
+							reader.getAttributeValue(null, "require-configuration-class"),
+							reader.getAttributeValue(null, "class")
+						);
+						serviceComponent.getFactories().add(factory);
+						break;
+					case "property":
+						String key = reader.getAttributeValue(null, "key");
+						String type = reader.getAttributeValue(null, "type");
+						String value = reader.getElementText();
+						factory.getProperties().put(key, parsePropertyValue(type, value));
+						break;
+					case "registration":
+						factory.getRegistrations().add(new ServiceComponentDescriptor.Registration
+						(
+							reader.getAttributeValue(null, "domain"),
+							reader.getAttributeValue(null, "name"),
+							reader.getAttributeValue(null, "version"),
+							reader.getAttributeValue(null, "interface")
+						));
+						break;
+					case "reference":
+						reference = new ServiceComponentDescriptor.Reference
+						(
+							reader.getAttributeValue(null, "name"),
+							reader.getAttributeValue(null, "service-type"),
+							reader.getAttributeValue(null, "service-name"),
+							reader.getAttributeValue(null, "service-domain"),
+							reader.getAttributeValue(null, "service-min-version"),
+							reader.getAttributeValue(null, "service-before-version"),
+							reader.getAttributeValue(null, "service-filter")
+						);
+						serviceComponent.getReferences().add(reference);
+						break;
+					case "preference":
+						String score = reader.getAttributeValue(null, "score");
+						String filter = reader.getElementText();
+						reference.getPreferences().add(new ServiceComponentDescriptor.Preference(score, filter.isEmpty() ? null : filter));
+						break;
+					default:
+						break;
+				}
+			}
+		}
+		finally
+		{
+			reader.close();
+		}
+		return serviceComponents;
+	}
+
+	private static Object parsePropertyValue(String type, String value)
+	{
+		switch (type)
+		{
+			case "boolean":
+				return Boolean.valueOf(value);
+			case "int":
+				return Long.valueOf(value);
+			case "dec":
+				return Double.valueOf(value);
+			default:
+				return value;
+		}
+	}
+}
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.maven;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Candidates and dependencies found by {@link SourcePrefilter} in small source trees.
+ */
+public class SourcePrefilterTest
+{
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File sourceRoot = null;
+
+	@Before
+	public void createSourceRoot() throws Exception
+	{
+		sourceRoot = temporaryFolder.newFolder("src");
+	}
+
+	@Test
+	public void superClassesAreRequiredTransitively() throws Exception
+	{
+		File model = writeSource("com/example/model/PersonNodeType.java",
+			"package com.example.model;\n" +
+			"@GenerateBow\n" +
+			"public class PersonNodeType extends BaseEntityNodeType {}\n");
+		File base = writeSource("com/example/model/BaseEntityNodeType.java",
+			"package com.example.model;\n" +
+			"public class BaseEntityNodeType extends RootNodeType {}\n");
+		File root = writeSource("com/example/model/RootNodeType.java",
+			"package com.example.model;\n" +
+			"public class RootNodeType {}\n");
+		writeSource("com/example/model/Unrelated.java",
+			"package com.example.model;\n" +
+			"public class Unrelated {}\n");
+
+		assertEquals(files(model, base, root), SourcePrefilter.findRequiredSourceFilesInDirectories(Collections.singletonList(sourceRoot)));
+	}
+
+	@Test
+	public void typeReachableOnlyThroughImportIsRequired() throws Exception
+	{
+		File service = writeSource("com/example/srv/GreeterImpl.java",
+			"package com.example.srv;\n" +
+			"import com.example.api.IGreeter;\n" +
+			"@org.sodeac.common.annotation.ServiceFactory\n" +
+			"public class GreeterImpl implements java.util.function.Supplier<Object> { public Object get() { return null; } }\n");
+		File api = writeSource("com/example/api/IGreeter.java",
+			"package com.example.api;\n" +
+			"public interface IGreeter {}\n");
+
+		assertEquals(files(service, api), SourcePrefilter.findRequiredSourceFilesInDirectories(Collections.singletonList(sourceRoot)));
+	}
+
+	@Test
+	public void secondaryTopLevelTypeIsRequired() throws Exception
+	{
+		File model = writeSource("com/example/model/OrderNodeType.java",
+			"package com.example.model;\n" +
+			"@GenerateBow\n" +
+			"public class OrderNodeType extends AbstractNodeType {}\n");
+		File helpers = writeSource("com/example/model/NodeTypes.java",
+			"package com.example.model;\n" +
+			"public class NodeTypes {}\n" +
+			"abstract class AbstractNodeType {}\n");
+
+		assertEquals(files(model, helpers), SourcePrefilter.findRequiredSourceFilesInDirectories(Collections.singletonList(sourceRoot)));
+	}
+
+	@Test
+	public void triggerAnnotationInCommentOrStringIsIgnored() throws Exception
+	{
+		writeSource("com/example/Commented.java",
+			"package com.example;\n" +
+			"// @GenerateBow\n" +
+			"/* @ServiceFactory */\n" +
+			"public class Commented {}\n");
+		writeSource("com/example/Literal.java",
+			"package com.example;\n" +
+			"public class Literal { String trigger = \"@GenerateBowFactory \\\" @ServiceFactory\"; char c = '\"'; }\n");
+
+		assertTrue(SourcePrefilter.findRequiredSourceFilesInDirectories(Collections.singletonList(sourceRoot)).isEmpty());
+	}
+
+	@Test
+	public void identifierInCommentOrStringIsNotFollowed() throws Exception
+	{
+		File model = writeSource("com/example/model/AddressNodeType.java",
+			"package com.example.model;\n" +
+			"/** see {@link Unrelated} */\n" +
+			"@GenerateBow\n" +
+			"public class AddressNodeType { String name = \"Other\"; }\n");
+		writeSource("com/example/model/Unrelated.java",
+			"package com.example.model;\n" +
+			"public class Unrelated {}\n");
+		writeSource("com/example/model/Other.java",
+			"package com.example.model;\n" +
+			"public class Other {}\n");
+
+		assertEquals(files(model), SourcePrefilter.findRequiredSourceFilesInDirectories(Collections.singletonList(sourceRoot)));
+	}
+
+	@Test
+	public void onlyGivenSourceFilesAreScanned() throws Exception
+	{
+		File model = writeSource("com/example/model/PersonNodeType.java",
+			"package com.example.model;\n" +
+			"@GenerateBow\n" +
+			"public class PersonNodeType extends BaseEntityNodeType {}\n");
+		File base = writeSource("com/example/model/BaseEntityNodeType.java",
+			"package com.example.model;\n" +
+			"public class BaseEntityNodeType extends RootNodeType {}\n");
+		writeSource("com/example/model/RootNodeType.java",
+			"package com.example.model;\n" +
+			"public class RootNodeType {}\n");
+
+		assertEquals(files(model, base), SourcePrefilter.findRequiredSourceFiles(Arrays.asList(model, base)));
+	}
+
+	@Test
+	public void stripCommentsAndLiterals()
+	{
+		assertEquals("class A { String s = \"\"; char c = ''; }    ", SourcePrefilter.stripCommentsAndLiterals("class A { String s = \"// @GenerateBow \\\" x\"; char c = '\\''; } /* B */ // C"));
+		assertEquals("String t = \"\";", SourcePrefilter.stripCommentsAndLiterals("String t = \"\"\"\n  @ServiceFactory \"\n  \"\"\";"));
+	}
+
+	private File writeSource(String path, String content) throws Exception
+	{
+		File file = new File(sourceRoot, path);
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private static Set<File> files(File... files)
+	{
+		return new TreeSet<>(Arrays.asList(files));
+	}
+}
@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Sebastian Palarus
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors:
+ *     Sebastian Palarus - initial API and implementation
+ *******************************************************************************/
+package org.sodeac.maven;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Package globs and path patterns of {@link SourceScope}.
+ */
+public class SourceScopeTest
+{
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void unrestrictedScope()
+	{
+		SourceScope scope = new SourceScope(null, Arrays.asList(" ", null));
+
+		assertTrue(scope.isUnrestricted());
+		assertTrue(scope.contains("A.java"));
+		assertTrue(scope.contains("com/example/model/A.java"));
+	}
+
+	@Test
+	public void packageGlobWithoutWildcardMatchesPackageOnly()
+	{
+		SourceScope scope = includes("com.example.model");
+
+		assertFalse(scope.isUnrestricted());
+		assertTrue(scope.contains("com/example/model/PersonNodeType.java"));
+		assertFalse(scope.contains("com/example/model/sub/PersonNodeType.java"));
+		assertFalse(scope.contains("com/example/PersonNodeType.java"));
+		assertFalse(scope.contains("com/example/modelx/PersonNodeType.java"));
+	}
+
+	@Test
+	public void singleStarMatchesWithinOnePackage()
+	{
+		SourceScope scope = includes("com.example.*");
+
+		assertTrue(scope.contains("com/example/model/A.java"));
+		assertTrue(scope.contains("com/example/srv/A.java"));
+		assertFalse(scope.contains("com/example/A.java"));
+		assertFalse(scope.contains("com/example/model/sub/A.java"));
+
+		scope = includes("com.example.mod*");
+
+		assertTrue(scope.contains("com/example/model/A.java"));
+		assertTrue(scope.contains("com/example/module/A.java"));
+		assertFalse(scope.contains("com/example/srv/A.java"));
+	}
+
+	@Test
+	public void trailingDoubleStarMatchesPackageAndSubPackages()
+	{
+		SourceScope scope = includes("com.example.**");
+
+		assertTrue(scope.contains("com/example/A.java"));
+		assertTrue(scope.contains("com/example/model/A.java"));
+		assertTrue(scope.contains("com/example/model/sub/A.java"));
+		assertFalse(scope.contains("com/examples/A.java"));
+		assertFalse(scope.contains("com/A.java"));
+	}
+
+	@Test
+	public void leadingAndInnerDoubleStarMatchZeroOrMorePackages()
+	{
+		SourceScope scope = includes("**.model");
+
+		assertTrue(scope.contains("model/A.java"));
+		assertTrue(scope.contains("com/example/model/A.java"));
+		assertFalse(scope.contains("com/example/model/sub/A.java"));
+		assertFalse(scope.contains("com/example/mymodel/A.java"));
+
+		scope = includes("com.**.model");
+
+		assertTrue(scope.contains("com/model/A.java"));
+		assertTrue(scope.contains("com/example/model/A.java"));
+		assertTrue(scope.contains("com/a/b/model/A.java"));
+		assertFalse(scope.contains("org/example/model/A.java"));
+	}
+
+	@Test
+	public void defaultPackage()
+	{
+		assertFalse(includes("com.**").contains("A.java"));
+		assertTrue(includes("**").contains("A.java"));
+	}
+
+	@Test
+	public void pathPatternMatchesRelativePath()
+	{
+		SourceScope scope = includes("com/example/model/Person*.java");
+
+		assertTrue(scope.contains("com/example/model/Person.java"));
+		assertTrue(scope.contains("com/example/model/PersonNodeType.java"));
+		assertFalse(scope.contains("com/example/model/AddressNodeType.java"));
+		assertFalse(scope.contains("com/example/model/sub/PersonNodeType.java"));
+
+		scope = includes("**/*NodeType.java");
+
+		assertTrue(scope.contains("PersonNodeType.java"));
+		assertTrue(scope.contains("com/example/model/PersonNodeType.java"));
+		assertFalse(scope.contains("com/example/model/Person.java"));
+
+		scope = includes("com/example/**");
+
+		assertTrue(scope.contains("com/example/A.java"));
+		assertTrue(scope.contains("com/example/model/A.java"));
+		assertFalse(scope.contains("com/examples/A.java"));
+	}
+
+	@Test
+	public void patternEndingWithJavaIsPathPattern()
+	{
+		// "Person.java" is no package glob for package "Person.java"
+
+		SourceScope scope = includes("Person.java");
+
+		assertTrue(scope.contains("Person.java"));
+		assertFalse(scope.contains("com/example/Person.java"));
+	}
+
+	@Test
+	public void backslashesAreSeparatorsOfPathPattern()
+	{
+		SourceScope scope = includes("com\\example\\model\\*.java");
+
+		assertTrue(scope.contains("com/example/model/PersonNodeType.java"));
+		assertFalse(scope.contains("com/example/PersonNodeType.java"));
+	}
+
+	@Test
+	public void dotInPathPatternIsLiteral()
+	{
+		SourceScope scope = includes("com/example/A.java");
+
+		assertTrue(scope.contains("com/example/A.java"));
+		assertFalse(scope.contains("com/example/AXjava"));
+	}
+
+	@Test
+	public void excludesOverrideIncludes()
+	{
+		SourceScope scope = new SourceScope(Arrays.asList("com.example.**"), Arrays.asList("com.example.internal.**", "**/*Test*.java"));
+
+		assertTrue(scope.contains("com/example/model/A.java"));
+		assertFalse(scope.contains("com/example/internal/A.java"));
+		assertFalse(scope.contains("com/example/internal/impl/A.java"));
+		assertFalse(scope.contains("com/example/model/ATest.java"));
+		assertFalse(scope.contains("org/example/A.java"));
+
+		scope = new SourceScope(null, Arrays.asList("com.example.internal"));
+
+		assertFalse(scope.isUnrestricted());
+		assertTrue(scope.contains("org/example/A.java"));
+		assertTrue(scope.contains("com/example/internal/impl/A.java"));
+		assertFalse(scope.contains("com/example/internal/A.java"));
+	}
+
+	@Test
+	public void collectSourceFiles() throws Exception
+	{
+		File sourceRoot = temporaryFolder.newFolder("src");
+		File person = newFile(sourceRoot, "com/example/model/PersonNodeType.java");
+		File address = newFile(sourceRoot, "com/example/model/sub/AddressNodeType.java");
+		newFile(sourceRoot, "com/example/model/README.txt");
+		newFile(sourceRoot, "com/example/srv/GreeterImpl.java");
+
+		List<File> sourceFiles = includes("com.example.model.**").collectSourceFiles(Collections.singletonList(sourceRoot));
+
+		assertEquals(new TreeSet<>(Arrays.asList(person, address)), new TreeSet<>(sourceFiles));
+	}
+
+	private static SourceScope includes(String... includes)
+	{
+		return new SourceScope(Arrays.asList(includes), null);
+	}
+
+	private static File newFile(File sourceRoot, String path) throws Exception
+	{
+		File file = new File(sourceRoot, path);
+		file.getParentFile().mkdirs();
+		file.createNewFile();
+		return file;
+	}
+}